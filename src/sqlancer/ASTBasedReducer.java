@@ -1,9 +1,16 @@
 package sqlancer;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLQueryAdapter;
@@ -30,6 +37,12 @@ public class ASTBasedReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpeci
     private List<Query<C>> reducedStatements;
     // statement after reduction.
 
+    // the outcomes of the candidates that were already tested, keyed by a hash of their normalized statements, since
+    // the transformations often generate the same candidate more than once
+    private final Map<ByteBuffer, Boolean> candidateOutcomes = new HashMap<>();
+    private long cacheHits;
+    private long cacheMisses;
+
     public ASTBasedReducer(DatabaseProvider<G, O, C> provider) {
         this.provider = provider;
     }
@@ -72,6 +85,10 @@ public class ASTBasedReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpeci
             return false;
         });
 
+        candidateOutcomes.clear();
+        cacheHits = 0;
+        cacheMisses = 0;
+
         boolean observeChange;
         reducedStatements = new ArrayList<>();
         for (Query<?> query : initialBugInducingStatements) {
@@ -113,14 +130,32 @@ public class ASTBasedReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpeci
             }
         } while (observeChange);
 
+        long nrCandidates = cacheHits + cacheMisses;
+        newGlobalState.getLogger()
+                .logReducer(String.format(Locale.ROOT,
+                        "candidate cache: %d of %d candidates were already tested (%.1f%% hit rate)%n", cacheHits,
+                        nrCandidates, nrCandidates == 0 ? 0.0 : 100.0 * cacheHits / nrCandidates));
         newGlobalState.getState().setStatements(new ArrayList<>(reducedStatements));
         newGlobalState.getLogger().logReduced(newGlobalState.getState());
     }
 
     public boolean bugStillTriggers() throws Exception {
+        List<Query<C>> candidateStatements = new ArrayList<>(reducedStatements);
+        ByteBuffer key = getCandidateKey(candidateStatements);
+        Boolean knownOutcome = candidateOutcomes.get(key);
+        if (knownOutcome != null) {
+            cacheHits++;
+            return knownOutcome;
+        }
+        cacheMisses++;
+        boolean triggers = bugStillTriggers(candidateStatements);
+        candidateOutcomes.put(key, triggers);
+        return triggers;
+    }
+
+    private boolean bugStillTriggers(List<Query<C>> candidateStatements) throws Exception {
         try (C con2 = provider.createDatabase(newGlobalState)) {
             newGlobalState.setConnection(con2);
-            List<Query<C>> candidateStatements = new ArrayList<>(reducedStatements);
             newGlobalState.getState().setStatements(new ArrayList<>(candidateStatements));
 
             for (Query<C> s : candidateStatements) {
@@ -141,4 +176,32 @@ public class ASTBasedReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpeci
         }
         return false;
     }
+
+    /**
+     * Computes the key of a candidate in the cache. Statements that differ only in surrounding whitespace or in a
+     * terminating semicolon are considered identical.
+     *
+     * @param candidateStatements
+     *            the statements of the candidate
+     *
+     * @return the SHA-256 digest of the statements
+     */
+    private static ByteBuffer getCandidateKey(List<? extends Query<?>> candidateStatements) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+        for (Query<?> query : candidateStatements) {
+            String statement = query.getQueryString().trim();
+            while (statement.endsWith(";")) {
+                statement = statement.substring(0, statement.length() - 1).trim();
+            }
+            digest.update(statement.getBytes(StandardCharsets.UTF_8));
+            // separates the statements
+            digest.update((byte) 0);
+        }
+        return ByteBuffer.wrap(digest.digest());
+    }
 }
@@ -0,0 +1,109 @@
+package sqlancer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Learns which actions of a {@link StatementExecutor} are worth executing, based on whether the DBMS accepted their
+ * statements and how long they took. Each action is an arm of a multi-armed bandit: a statement earns a reward of 1 if
+ * it succeeded in at most the average time of all statements, a proportionally smaller reward if it succeeded but was
+ * slower, and 0 if it failed. The weight of an action is the upper confidence bound (UCB1) of its mean reward, so that
+ * actions that mostly fail are executed less often, while every action is still tried now and then.
+ *
+ * The statistics are shared by all threads that use the same actions (see {@link #getInstance(Class)}).
+ */
+public final class ActionStatistics {
+
+    // the smallest weight of an action, so that no action is excluded entirely
+    static final double MIN_WEIGHT = 0.01;
+
+    private static final ConcurrentMap<Class<?>, ActionStatistics> INSTANCES = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Arm> arms = new ConcurrentHashMap<>();
+    private final LongAdder totalAttempts = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * The statistics of a single action.
+     */
+    public static final class Arm {
+
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final DoubleAdder rewards = new DoubleAdder();
+
+        public long getNrAttempts() {
+            return attempts.sum();
+        }
+
+        public double getMeanReward() {
+            long n = attempts.sum();
+            return n == 0 ? 0 : rewards.sum() / n;
+        }
+
+        public double getMeanNanos() {
+            long n = attempts.sum();
+            return n == 0 ? 0 : (double) nanos.sum() / n;
+        }
+
+    }
+
+    /**
+     * Returns the statistics of the actions of the given type, which are shared across all threads.
+     *
+     * @param actionClass
+     *            the type of the actions, typically an enum that implements {@link AbstractAction}
+     *
+     * @return the shared statistics
+     */
+    public static ActionStatistics getInstance(Class<?> actionClass) {
+        return INSTANCES.computeIfAbsent(actionClass, c -> new ActionStatistics());
+    }
+
+    public Arm getArm(String actionName) {
+        return arms.computeIfAbsent(actionName, name -> new Arm());
+    }
+
+    /**
+     * Records the outcome of a statement generated by an action.
+     *
+     * @param arm
+     *            the statistics of the action
+     * @param success
+     *            whether the DBMS successfully executed the statement
+     * @param nanos
+     *            the time it took to generate and execute the statement
+     */
+    public void record(Arm arm, boolean success, long nanos) {
+        double reward = 0;
+        if (success) {
+            long n = totalAttempts.sum();
+            reward = n == 0 ? 1 : Math.min(1, (double) totalNanos.sum() / n / Math.max(1, nanos));
+        }
+        arm.attempts.increment();
+        arm.nanos.add(nanos);
+        arm.rewards.add(reward);
+        totalAttempts.increment();
+        totalNanos.add(nanos);
+    }
+
+    /**
+     * Returns how much the selection of an action should be favored.
+     *
+     * @param arm
+     *            the statistics of the action
+     *
+     * @return a weight between {@link #MIN_WEIGHT} and 1, which is 1 for actions that have not been tried yet
+     */
+    public double getWeight(Arm arm) {
+        long n = arm.getNrAttempts();
+        if (n == 0) {
+            return 1;
+        }
+        double explorationBonus = Math.sqrt(2 * Math.log(Math.max(n, totalAttempts.sum())) / n);
+        return Math.max(MIN_WEIGHT, Math.min(1, arm.getMeanReward() + explorationBonus));
+    }
+
+}
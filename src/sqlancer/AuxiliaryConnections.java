@@ -0,0 +1,158 @@
+package sqlancer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import sqlancer.common.query.Query;
+import sqlancer.common.schema.AbstractSchema;
+
+/**
+ * Additional connections of a thread to the database of its state, each of which is bound to its own state. The
+ * connections see only the committed state of the database, so they can be used only if
+ * {@link ProviderAdapter#canUseAuxiliaryConnections} holds. The statements that change the state of the thread's
+ * connection (see {@link ProviderAdapter#isConnectionStatement}) are executed on a connection before it is used (see
+ * {@link #synchronize(int)}). Each state has its own log, named after the database of the thread and a suffix, and its
+ * own source of randomness, which is seeded by that of the thread, so that the states can be used concurrently with the
+ * state of the thread.
+ *
+ * @param <G>
+ *            the global state type
+ * @param <O>
+ *            the DBMS-specific options type
+ * @param <C>
+ *            the connection type
+ */
+final class AuxiliaryConnections<G extends GlobalState<O, ? extends AbstractSchema<G, ?>, C>, O extends DBMSSpecificOptions<? extends OracleFactory<G>>, C extends SQLancerDBConnection>
+        implements AutoCloseable {
+
+    private final ProviderAdapter<G, O, C> provider;
+    private final G globalState;
+    private final List<G> auxiliaryStates;
+    // the number of statements of the thread's state that were executed on each connection, if necessary
+    private final int[] nrSynchronizedStatements;
+
+    /**
+     * Opens the additional connections of a thread.
+     *
+     * @param provider
+     *            the provider of the thread
+     * @param globalState
+     *            the state of the thread
+     * @param nrConnections
+     *            the maximum number of additional connections
+     * @param suffix
+     *            the suffix of the database names of the states, which are used in the logs
+     *
+     * @throws Exception
+     *             if a connection cannot be opened
+     */
+    AuxiliaryConnections(ProviderAdapter<G, O, C> provider, G globalState, int nrConnections, String suffix)
+            throws Exception {
+        this.provider = provider;
+        this.globalState = globalState;
+        this.auxiliaryStates = new ArrayList<>(nrConnections);
+        try {
+            for (int i = 0; i < nrConnections; i++) {
+                C con = provider.createAuxiliaryConnection(globalState);
+                if (con == null) {
+                    break;
+                }
+                G auxiliaryState = createAuxiliaryState(suffix + i);
+                auxiliaryState.setConnection(con);
+                auxiliaryStates.add(auxiliaryState);
+            }
+        } catch (Exception e) {
+            close();
+            throw e;
+        }
+        this.nrSynchronizedStatements = new int[auxiliaryStates.size()];
+    }
+
+    private G createAuxiliaryState(String suffix) {
+        G auxiliaryState;
+        try {
+            auxiliaryState = provider.getGlobalStateClass().getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+        String logName = globalState.getDatabaseName() + suffix;
+        auxiliaryState.setState(provider.getStateToReproduce(logName));
+        auxiliaryState.setRandomly(new Randomly(globalState.getRandomly().getLong(0, Long.MAX_VALUE)));
+        // the connections are opened to the database of the thread
+        auxiliaryState.setDatabaseName(globalState.getDatabaseName());
+        auxiliaryState.setMainOptions(globalState.getOptions());
+        auxiliaryState.setDbmsSpecificOptions(globalState.getDbmsSpecificOptions());
+        auxiliaryState.setStateLogger(new Main.StateLogger(logName, provider, globalState.getOptions()));
+        auxiliaryState.setManager(new Main.QueryManager<>(auxiliaryState));
+        return auxiliaryState;
+    }
+
+    /**
+     * Returns whether the DBMS supports additional connections.
+     *
+     * @return false if no connection could be opened
+     */
+    boolean isSupported() {
+        return !auxiliaryStates.isEmpty();
+    }
+
+    /**
+     * Returns the states of the connections.
+     *
+     * @return the states, which are in the same order as the indexes of {@link #synchronize(int)}
+     */
+    List<G> getStates() {
+        return Collections.unmodifiableList(auxiliaryStates);
+    }
+
+    /**
+     * Returns whether the connections currently see the same database state as the connection of the thread.
+     *
+     * @return false if, for example, a transaction is open
+     */
+    boolean canBeUsed() {
+        try {
+            return provider.canUseAuxiliaryConnections(globalState);
+        } catch (Exception e) {
+            // for example, the transaction of the thread's connection was aborted
+            return false;
+        }
+    }
+
+    /**
+     * Executes the statements that changed the state of the thread's connection since the connection was last
+     * synchronized. The connection must not be in use by another thread.
+     *
+     * @param index
+     *            the index of the connection
+     */
+    @SuppressWarnings("unchecked")
+    void synchronize(int index) {
+        G auxiliaryState = auxiliaryStates.get(index);
+        List<Query<?>> statements = globalState.getState().getStatements();
+        for (int i = nrSynchronizedStatements[index]; i < statements.size(); i++) {
+            Query<C> statement = (Query<C>) statements.get(i);
+            if (provider.isConnectionStatement(statement)) {
+                try {
+                    statement.execute(auxiliaryState);
+                } catch (Throwable ignored) {
+                    // the statement also failed on the thread's connection, or does not affect the queries
+                }
+            }
+        }
+        nrSynchronizedStatements[index] = statements.size();
+    }
+
+    @Override
+    public void close() {
+        for (G auxiliaryState : auxiliaryStates) {
+            try {
+                auxiliaryState.getConnection().close();
+            } catch (Exception ignored) {
+            }
+            auxiliaryState.getLogger().close();
+        }
+    }
+
+}
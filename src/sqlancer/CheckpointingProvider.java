@@ -0,0 +1,75 @@
+package sqlancer;
+
+import java.io.File;
+
+import sqlancer.common.query.Query;
+
+/**
+ * Implemented by providers whose databases can be saved to and restored from files. The {@link StatementReducer} uses
+ * such checkpoints to avoid replaying the statements that the candidates have in common, by restoring the database
+ * after a prefix of the statements and replaying only the remaining ones.
+ *
+ * @param <G>
+ *            the global state type
+ * @param <C>
+ *            the connection type
+ */
+public interface CheckpointingProvider<G extends GlobalState<?, ?, C>, C extends SQLancerDBConnection> {
+
+    /**
+     * Returns whether checkpoints can be used for the databases of the given global state, for example, whether the
+     * database is stored in files rather than in memory.
+     *
+     * @param globalState
+     *            the global state
+     *
+     * @return true if {@link #saveCheckpoint(GlobalState, File)} can be used
+     */
+    default boolean supportsCheckpoints(G globalState) {
+        return true;
+    }
+
+    /**
+     * Saves the current database of the global state.
+     *
+     * @param globalState
+     *            the global state, whose connection is open
+     * @param checkpoint
+     *            the file or directory to be created for the checkpoint
+     *
+     * @return false if the state of the database cannot be captured, for example, within a transaction
+     *
+     * @throws Exception
+     *             if saving the database fails
+     */
+    boolean saveCheckpoint(G globalState, File checkpoint) throws Exception;
+
+    /**
+     * Creates the database of the global state from a checkpoint, like {@link DatabaseProvider#createDatabase}.
+     *
+     * @param globalState
+     *            the global state
+     * @param checkpoint
+     *            a checkpoint saved by {@link #saveCheckpoint(GlobalState, File)}
+     *
+     * @return the connection to the restored database
+     *
+     * @throws Exception
+     *             if restoring the database fails
+     */
+    C restoreCheckpoint(G globalState, File checkpoint) throws Exception;
+
+    /**
+     * Returns whether the statement changes the state of the connection rather than the database, so that it needs to
+     * be executed again after restoring a checkpoint that was saved after it.
+     *
+     * @param query
+     *            the statement
+     *
+     * @return true if the statement affects only the connection
+     */
+    default boolean isConnectionStatement(Query<?> query) {
+        return false;
+    }
+
+}
@@ -1,14 +1,19 @@
 package sqlancer;
 
-import java.io.IOException;
+import java.math.BigInteger;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
+import sqlancer.MetricsRegistry.Counter;
 import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLancerResultSet;
@@ -38,19 +43,229 @@ public final class ComparatorHelper {
 
     public static List<String> getResultSetFirstColumnAsString(String queryString, ExpectedErrors errors,
             SQLGlobalState<?, ?> state) throws SQLException {
+        List<String> resultSet = new ArrayList<>();
+        readResultSet(queryString, errors, state, result -> resultSet.add(getFirstColumn(result)));
+        return resultSet;
+    }
+
+    /**
+     * Computes the digest of the first column of the result set of a query. Only with
+     * {@link MainOptions#useResultDigests()}, the digest is computed without materializing the result set, and
+     * otherwise keeps the rows.
+     *
+     * @param queryString
+     *            the query
+     * @param errors
+     *            the errors that are expected when executing the query
+     * @param state
+     *            the state whose connection is used
+     *
+     * @return the digest
+     *
+     * @throws SQLException
+     *             if the result set cannot be read
+     */
+    public static ResultSetDigest getResultSetFirstColumnDigest(String queryString, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state) throws SQLException {
+        ResultSetDigest fingerprint = getFingerprint(List.of(queryString), errors, state, null);
+        if (fingerprint != null) {
+            return fingerprint;
+        }
+        if (!state.getOptions().useResultDigests()) {
+            return ResultSetDigest.fromRows(getResultSetFirstColumnAsString(queryString, errors, state));
+        }
+        ResultSetDigest digest = new ResultSetDigest(List.of(queryString), errors);
+        readResultSet(queryString, errors, state, result -> digest.add(getFirstColumn(result)));
+        return digest;
+    }
+
+    /**
+     * Fetches the first column of the result set of a query, and computes its digest, which is compared to the digests
+     * of other queries, for example, after changing the settings of the DBMS, so that the original result set cannot be
+     * fetched again.
+     *
+     * @param queryString
+     *            the query
+     * @param errors
+     *            the errors that are expected when executing the query
+     * @param state
+     *            the state whose connection is used
+     *
+     * @return the digest, which keeps a reference to the rows
+     *
+     * @throws SQLException
+     *             if the result set cannot be read
+     */
+    public static ResultSetDigest getMaterializedResultSetDigest(String queryString, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state) throws SQLException {
+        List<String> rows = getResultSetFirstColumnAsString(queryString, errors, state);
+        ResultSetDigest fingerprint = getFingerprint(List.of(queryString), errors, state, rows);
+        return fingerprint == null ? ResultSetDigest.fromRows(rows) : fingerprint;
+    }
+
+    // lets the DBMS compute the fingerprints of the queries if enabled, or returns null if they cannot be computed
+    private static ResultSetDigest getFingerprint(List<String> queries, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state, List<String> rows) throws SQLException {
+        if (!state.getOptions().useResultFingerprints()) {
+            return null;
+        }
+        List<ResultFetcher<long[]>> fetchers = new ArrayList<>(queries.size());
+        for (String queryString : queries) {
+            fetchers.add(s -> getFingerprint(queryString, s));
+        }
+        List<long[]> fingerprints = fetchAll(state, fetchers);
+        if (fingerprints.contains(null)) {
+            return null;
+        }
+        ResultSetDigest digest = new ResultSetDigest(queries, errors, rows, true);
+        for (long[] fingerprint : fingerprints) {
+            digest.addFingerprint(fingerprint[0], fingerprint[1], fingerprint[2]);
+        }
+        return digest;
+    }
+
+    // the number of rows and the two sums of the fingerprint of a query, or null if it cannot be computed
+    private static long[] getFingerprint(String queryString, SQLGlobalState<?, ?> state) throws SQLException {
+        try {
+            String fingerprintQuery = state.getResultFingerprintQuery(removeTerminator(queryString));
+            if (fingerprintQuery == null) {
+                return null;
+            }
+            if (state.getOptions().logEachSelect()) {
+                state.getLogger().writeCurrent(fingerprintQuery);
+            }
+            SQLConnection con = state.getConnection();
+            Statement s = con.acquireStatement();
+            try (ResultSet result = s.executeQuery(fingerprintQuery)) {
+                if (!result.next()) {
+                    return null;
+                }
+                long[] fingerprint = new long[3];
+                int nrColumns = result.getMetaData().getColumnCount();
+                for (int i = 2; i <= nrColumns && i - 1 < fingerprint.length; i++) {
+                    String sum = result.getString(i);
+                    // the integers can be larger than 64 bits, of which the lower ones are sufficient
+                    fingerprint[i - 1] = sum == null ? 0 : new BigInteger(sum).longValue();
+                }
+                fingerprint[0] = result.getLong(1);
+                Main.METRICS.increment(Counter.SUCCESSFUL_ACTIONS);
+                return fingerprint;
+            } finally {
+                con.releaseStatement(s);
+            }
+        } catch (SQLException | NumberFormatException e) {
+            // for example, the query causes an (expected) error, which is checked when fetching its rows
+            Main.METRICS.increment(Counter.UNSUCCESSFUL_ACTIONS);
+            return null;
+        }
+    }
+
+    private static String removeTerminator(String queryString) {
+        String result = queryString.trim();
+        while (result.endsWith(";")) {
+            result = result.substring(0, result.length() - 1).trim();
+        }
+        return result;
+    }
+
+    /**
+     * Fetches a result, for example, the result set of a query, using the connection of the given state.
+     *
+     * @param <T>
+     *            the type of the result
+     */
+    @FunctionalInterface
+    public interface ResultFetcher<T> {
+        T fetch(SQLGlobalState<?, ?> state) throws SQLException;
+    }
+
+    /**
+     * Fetches several results, for example, the result sets of the original and the partitioning queries of TLP. If the
+     * thread has sibling connections (see {@link MainOptions#getTLPSiblingConnections()}), the results are fetched
+     * concurrently on them and the connection of the state, and otherwise one after another on the connection of the
+     * state.
+     *
+     * @param <T>
+     *            the type of the results
+     * @param state
+     *            the state of the thread
+     * @param fetchers
+     *            fetch the results using the connection of a given state, which need not be the connection of the
+     *            thread
+     *
+     * @return the results, in the same order as the fetchers
+     *
+     * @throws SQLException
+     *             if a result cannot be fetched; if several results cannot be fetched, the exception of the first one
+     */
+    @SafeVarargs
+    public static <T> List<T> fetchConcurrently(SQLGlobalState<?, ?> state, ResultFetcher<T>... fetchers)
+            throws SQLException {
+        return fetchAll(state, Arrays.asList(fetchers));
+    }
+
+    static <T> List<T> fetchAll(SQLGlobalState<?, ?> state, List<ResultFetcher<T>> fetchers) throws SQLException {
+        return fetchAll(state, fetchers, state.getOptions().getTLPSiblingConnections());
+    }
+
+    // like fetchAll(SQLGlobalState, List), but uses at most the given number of sibling connections
+    static <T> List<T> fetchAll(SQLGlobalState<?, ?> state, List<ResultFetcher<T>> fetchers, int maxSiblings)
+            throws SQLException {
+        SiblingConnections<?, ?, ?> siblingConnections = state.getSiblingConnections();
+        if (siblingConnections != null && maxSiblings > 0 && fetchers.size() > 1) {
+            return siblingConnections.fetchAll(fetchers, maxSiblings);
+        }
+        List<T> results = new ArrayList<>(fetchers.size());
+        for (ResultFetcher<T> fetcher : fetchers) {
+            results.add(fetcher.fetch(state));
+        }
+        return results;
+    }
+
+    /**
+     * Reads all columns of the result set of a query by their typed values (see {@link ResultRow}).
+     *
+     * @param queryString
+     *            the query
+     * @param errors
+     *            the errors that are expected when executing the query
+     * @param state
+     *            the state whose connection is used
+     *
+     * @return the rows
+     *
+     * @throws SQLException
+     *             if the result set cannot be read
+     */
+    public static List<ResultRow> getResultSetRows(String queryString, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state) throws SQLException {
+        List<ResultRow> rows = new ArrayList<>();
+        ResultRow.Codec codec = new ResultRow.Codec();
+        readResultSet(queryString, errors, state, result -> rows.add(codec.read(result)));
+        return rows;
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+        void read(SQLancerResultSet result) throws SQLException;
+    }
+
+    private static String getFirstColumn(SQLancerResultSet result) throws SQLException {
+        String resultTemp = result.getString(1);
+        if (resultTemp != null) {
+            resultTemp = removeTrailingZeros(resultTemp); // Remove the trailing zeros as many DBMS treat
+            // it as non-bugs
+        }
+        return resultTemp;
+    }
+
+    private static void readResultSet(String queryString, ExpectedErrors errors, SQLGlobalState<?, ?> state,
+            RowReader reader) throws SQLException {
         if (state.getOptions().logEachSelect()) {
-            // TODO: refactor me
             state.getLogger().writeCurrent(queryString);
-            try {
-                state.getLogger().getCurrentFileWriter().flush();
-            } catch (IOException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
-            }
         }
         boolean canonicalizeString = state.getOptions().canonicalizeSqlString();
         SQLQueryAdapter q = new SQLQueryAdapter(queryString, errors, true, canonicalizeString);
-        List<String> resultSet = new ArrayList<>();
         SQLancerResultSet result = null;
         try {
             result = q.executeAndGet(state);
@@ -58,12 +273,7 @@ public final class ComparatorHelper {
                 throw new IgnoreMeException();
             }
             while (result.next()) {
-                String resultTemp = result.getString(1);
-                if (resultTemp != null) {
-                    resultTemp = resultTemp.replaceAll("[\\.]0+$", ""); // Remove the trailing zeros as many DBMS treat
-                    // it as non-bugs
-                }
-                resultSet.add(resultTemp);
+                reader.read(result);
             }
         } catch (Exception e) {
             if (e instanceof IgnoreMeException) {
@@ -82,27 +292,53 @@ public final class ComparatorHelper {
                 result.close();
             }
         }
-        return resultSet;
     }
 
-    public static void assumeResultSetsAreEqual(List<String> resultSet, List<String> secondResultSet,
-            String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state) {
-        if (resultSet.size() != secondResultSet.size()) {
+    // equivalent to value.replaceAll("[\\.]0+$", ""), without compiling and matching a regular expression
+    static String removeTrailingZeros(String value) {
+        int end = value.length();
+        // like $, also match before a line terminator at the end of the value
+        if (value.endsWith("\r\n")) {
+            end -= 2;
+        } else if (end > 0 && isLineTerminator(value.charAt(end - 1))) {
+            end--;
+        }
+        int start = end;
+        while (start > 0 && value.charAt(start - 1) == '0') {
+            start--;
+        }
+        if (start == end || start == 0 || value.charAt(start - 1) != '.') {
+            return value;
+        }
+        return value.substring(0, start - 1) + value.substring(end);
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static void assumeResultSizesAreEqual(int size, int secondSize, String originalQueryString,
+            List<String> combinedString, SQLGlobalState<?, ?> state) {
+        if (size != secondSize) {
             String queryFormatString = "-- %s;" + System.lineSeparator() + "-- cardinality: %d"
                     + System.lineSeparator();
-            String firstQueryString = String.format(queryFormatString, originalQueryString, resultSet.size());
+            String firstQueryString = String.format(queryFormatString, originalQueryString, size);
             String combinedQueryString = String.join(";", combinedString);
-            String secondQueryString = String.format(queryFormatString, combinedQueryString, secondResultSet.size());
+            String secondQueryString = String.format(queryFormatString, combinedQueryString, secondSize);
             state.getState().getLocalState()
                     .log(String.format("%s" + System.lineSeparator() + "%s", firstQueryString, secondQueryString));
             String assertionMessage = String.format(
                     "The size of the result sets mismatch (%d and %d)!" + System.lineSeparator()
                             + "First query: \"%s\", whose cardinality is: %d" + System.lineSeparator()
                             + "Second query:\"%s\", whose cardinality is: %d",
-                    resultSet.size(), secondResultSet.size(), originalQueryString, resultSet.size(),
-                    combinedQueryString, secondResultSet.size());
+                    size, secondSize, originalQueryString, size, combinedQueryString, secondSize);
             throw new AssertionError(assertionMessage);
         }
+    }
+
+    public static void assumeResultSetsAreEqual(List<String> resultSet, List<String> secondResultSet,
+            String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state) {
+        assumeResultSizesAreEqual(resultSet.size(), secondResultSet.size(), originalQueryString, combinedString, state);
 
         Set<String> firstHashSet = new HashSet<>(resultSet);
         Set<String> secondHashSet = new HashSet<>(secondResultSet);
@@ -140,6 +376,237 @@ public final class ComparatorHelper {
                 combinedString, state);
     }
 
+    /**
+     * Checks that two result sets contain the same values, like
+     * {@link #assumeResultSetsAreEqual(List, List, String, List, SQLGlobalState)}, by comparing their digests. Only if
+     * the digests do not match, the result sets whose rows the digests did not keep are fetched again to check and
+     * report their difference, so that a mismatch caused by nondeterministic results might not be reported.
+     *
+     * @param digest
+     *            the digest of the result set of the original query
+     * @param secondDigest
+     *            the digest of the result set of the combined queries
+     * @param originalQueryString
+     *            the original query
+     * @param combinedString
+     *            the combined queries
+     * @param state
+     *            the state whose connection is used to fetch the result sets again
+     *
+     * @throws SQLException
+     *             if the result sets cannot be fetched again
+     */
+    public static void assumeResultSetsAreEqual(ResultSetDigest digest, ResultSetDigest secondDigest,
+            String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state) throws SQLException {
+        if (digest.matches(secondDigest)
+                || state.getOptions().validateResultSizeOnly() && digest.getCount() == secondDigest.getCount()) {
+            return;
+        }
+        assumeResultSetsAreEqual(getRows(digest, state), getRows(secondDigest, state), originalQueryString,
+                combinedString, state);
+    }
+
+    public static void assumeResultSetsAreEqual(ResultSetDigest digest, ResultSetDigest secondDigest,
+            String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state,
+            UnaryOperator<String> canonicalizationRule) throws SQLException {
+        // if the digests match, the result sets are also equal after their canonicalization
+        if (digest.matches(secondDigest)
+                || state.getOptions().validateResultSizeOnly() && digest.getCount() == secondDigest.getCount()) {
+            return;
+        }
+        assumeResultSetsAreEqual(getRows(digest, state), getRows(secondDigest, state), originalQueryString,
+                combinedString, state, canonicalizationRule);
+    }
+
+    private static List<String> getRows(ResultSetDigest digest, SQLGlobalState<?, ?> state) throws SQLException {
+        if (digest.getRows() != null) {
+            return digest.getRows();
+        }
+        List<String> resultSet = new ArrayList<>();
+        for (String queryString : digest.getQueries()) {
+            resultSet.addAll(getResultSetFirstColumnAsString(queryString, digest.getErrors(), state));
+        }
+        return resultSet;
+    }
+
+    /**
+     * Checks that two result sets contain the same rows, including their number of duplicates, allowing for small
+     * differences between floating-point values (see {@link ResultRow#matches(ResultRow)}).
+     *
+     * @param resultSet
+     *            the rows of the original query
+     * @param secondResultSet
+     *            the rows of the combined queries
+     * @param originalQueryString
+     *            the original query
+     * @param combinedString
+     *            the combined queries
+     * @param state
+     *            the state to which the difference is logged
+     */
+    public static void assumeResultRowsAreEqual(List<ResultRow> resultSet, List<ResultRow> secondResultSet,
+            String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state) {
+        assumeResultSizesAreEqual(resultSet.size(), secondResultSet.size(), originalQueryString, combinedString, state);
+        if (state.getOptions().validateResultSizeOnly()) {
+            return;
+        }
+        List<ResultRow> firstResultSetMisses = new ArrayList<>();
+        List<ResultRow> secondResultSetMisses = new ArrayList<>();
+        collectMisses(resultSet, secondResultSet, firstResultSetMisses, secondResultSetMisses);
+        if (firstResultSetMisses.isEmpty() && secondResultSetMisses.isEmpty()) {
+            return;
+        }
+        String queryFormatString = "-- Query: \"%s\"; It misses: \"%s\"";
+        String firstQueryString = String.format(queryFormatString, originalQueryString, firstResultSetMisses);
+        String secondQueryString = String.format(queryFormatString, String.join(";", combinedString),
+                secondResultSetMisses);
+        state.getState().getLocalState()
+                .log(String.format("%s" + System.lineSeparator() + "%s", firstQueryString, secondQueryString));
+        String assertionMessage = String.format("The content of the result sets mismatch!" + System.lineSeparator()
+                + "First query : \"%s\"" + System.lineSeparator() + "Second query: \"%s\"", originalQueryString,
+                secondQueryString);
+        throw new AssertionError(assertionMessage);
+    }
+
+    /**
+     * Returns whether two result sets contain the same rows, like
+     * {@link #assumeResultRowsAreEqual(List, List, String, List, SQLGlobalState)}, without logging their difference.
+     *
+     * @param resultSet
+     *            the rows of the original query
+     * @param secondResultSet
+     *            the rows of the other queries
+     * @param state
+     *            the state whose options are used
+     *
+     * @return true if the rows match
+     */
+    static boolean resultRowsMatch(List<ResultRow> resultSet, List<ResultRow> secondResultSet,
+            SQLGlobalState<?, ?> state) {
+        if (resultSet.size() != secondResultSet.size()) {
+            return false;
+        }
+        if (state.getOptions().validateResultSizeOnly()) {
+            return true;
+        }
+        List<ResultRow> firstResultSetMisses = new ArrayList<>();
+        List<ResultRow> secondResultSetMisses = new ArrayList<>();
+        collectMisses(resultSet, secondResultSet, firstResultSetMisses, secondResultSetMisses);
+        return firstResultSetMisses.isEmpty() && secondResultSetMisses.isEmpty();
+    }
+
+    /*
+     * Since the tolerance of floating-point values is not transitive, rows cannot be matched by merging the sorted
+     * result sets: a row can be sorted between two rows that match, for example, if they differ in a later column.
+     * Instead, the rows are grouped by their exact values (that is, regardless of the numbers in the columns that hold
+     * a floating-point value in any row), and only the rows of the same group are matched with each other.
+     */
+    /**
+     * Returns whether two result sets contain the same values, like
+     * {@link #assumeResultSetsAreEqual(List, List, String, List, SQLGlobalState)}, without logging their difference.
+     *
+     * @param resultSet
+     *            the values of the original query
+     * @param secondResultSet
+     *            the values of the other queries
+     * @param state
+     *            the state whose options are used
+     *
+     * @return true if the values match
+     */
+    static boolean resultSetsMatch(List<String> resultSet, List<String> secondResultSet, SQLGlobalState<?, ?> state) {
+        if (resultSet.size() != secondResultSet.size()) {
+            return false;
+        }
+        return state.getOptions().validateResultSizeOnly()
+                || new HashSet<>(resultSet).equals(new HashSet<>(secondResultSet));
+    }
+
+    private static void collectMisses(List<ResultRow> resultSet, List<ResultRow> secondResultSet,
+            List<ResultRow> firstResultSetMisses, List<ResultRow> secondResultSetMisses) {
+        Comparator<ResultRow> order = ResultRow.orderIgnoringNumbers(getApproximateColumns(resultSet, secondResultSet));
+        List<ResultRow> first = new ArrayList<>(resultSet);
+        List<ResultRow> second = new ArrayList<>(secondResultSet);
+        first.sort(order.thenComparing(ResultRow.ORDER));
+        second.sort(order.thenComparing(ResultRow.ORDER));
+        int i = 0;
+        int j = 0;
+        while (i < first.size() || j < second.size()) {
+            int comparison;
+            if (i == first.size()) {
+                comparison = 1;
+            } else if (j == second.size()) {
+                comparison = -1;
+            } else {
+                comparison = order.compare(first.get(i), second.get(j));
+            }
+            if (comparison < 0) {
+                firstResultSetMisses.add(first.get(i++));
+            } else if (comparison > 0) {
+                secondResultSetMisses.add(second.get(j++));
+            } else {
+                int firstEnd = getGroupEnd(first, i, order);
+                int secondEnd = getGroupEnd(second, j, order);
+                matchGroup(first.subList(i, firstEnd), second.subList(j, secondEnd), firstResultSetMisses,
+                        secondResultSetMisses);
+                i = firstEnd;
+                j = secondEnd;
+            }
+        }
+    }
+
+    private static boolean[] getApproximateColumns(List<ResultRow> resultSet, List<ResultRow> secondResultSet) {
+        int nrColumns = 0;
+        for (ResultRow row : resultSet) {
+            nrColumns = Math.max(nrColumns, row.getColumnCount());
+        }
+        for (ResultRow row : secondResultSet) {
+            nrColumns = Math.max(nrColumns, row.getColumnCount());
+        }
+        boolean[] approximateColumns = new boolean[nrColumns];
+        for (int i = 0; i < nrColumns; i++) {
+            for (ResultRow row : resultSet) {
+                approximateColumns[i] |= row.isApproximate(i);
+            }
+            for (ResultRow row : secondResultSet) {
+                approximateColumns[i] |= row.isApproximate(i);
+            }
+        }
+        return approximateColumns;
+    }
+
+    private static int getGroupEnd(List<ResultRow> rows, int start, Comparator<ResultRow> order) {
+        int end = start + 1;
+        while (end < rows.size() && order.compare(rows.get(start), rows.get(end)) == 0) {
+            end++;
+        }
+        return end;
+    }
+
+    // matches each row of the first group with the first row of the second group that matches and is not yet matched
+    private static void matchGroup(List<ResultRow> first, List<ResultRow> second, List<ResultRow> firstResultSetMisses,
+            List<ResultRow> secondResultSetMisses) {
+        boolean[] matched = new boolean[second.size()];
+        for (ResultRow row : first) {
+            int match = -1;
+            for (int k = 0; k < second.size() && match == -1; k++) {
+                if (!matched[k] && row.matches(second.get(k))) {
+                    match = k;
+                }
+            }
+            if (match == -1) {
+                firstResultSetMisses.add(row);
+            } else {
+                matched[match] = true;
+            }
+        }
+        for (int k = 0; k < second.size(); k++) {
+            if (!matched[k]) {
+                secondResultSetMisses.add(second.get(k));
+            }
+        }
+    }
+
     public static List<String> getCombinedResultSet(String firstQueryString, String secondQueryString,
             String thirdQueryString, List<String> combinedString, boolean asUnion, SQLGlobalState<?, ?> state,
             ExpectedErrors errors) throws SQLException {
@@ -151,9 +618,97 @@ public final class ComparatorHelper {
             secondResultSet = getResultSetFirstColumnAsString(unionString, errors, state);
         } else {
             secondResultSet = new ArrayList<>();
-            secondResultSet.addAll(getResultSetFirstColumnAsString(firstQueryString, errors, state));
-            secondResultSet.addAll(getResultSetFirstColumnAsString(secondQueryString, errors, state));
-            secondResultSet.addAll(getResultSetFirstColumnAsString(thirdQueryString, errors, state));
+            List<List<String>> resultSets = fetchConcurrently(state,
+                    s -> getResultSetFirstColumnAsString(firstQueryString, errors, s),
+                    s -> getResultSetFirstColumnAsString(secondQueryString, errors, s),
+                    s -> getResultSetFirstColumnAsString(thirdQueryString, errors, s));
+            resultSets.forEach(secondResultSet::addAll);
+            combinedString.add(firstQueryString);
+            combinedString.add(secondQueryString);
+            combinedString.add(thirdQueryString);
+        }
+        return secondResultSet;
+    }
+
+    /**
+     * Computes the digest of the combined result sets of the three partitioning queries, like
+     * {@link #getCombinedResultSet(String, String, String, List, boolean, SQLGlobalState, ExpectedErrors)}. Only with
+     * {@link MainOptions#useResultDigests()}, the digest does not keep the rows.
+     *
+     * @param firstQueryString
+     *            the query with the predicate
+     * @param secondQueryString
+     *            the query with the negated predicate
+     * @param thirdQueryString
+     *            the query with the IS NULL predicate
+     * @param combinedString
+     *            the list to which the executed queries are added
+     * @param asUnion
+     *            whether the queries are combined by UNION ALL into a single query
+     * @param state
+     *            the state whose connection is used
+     * @param errors
+     *            the errors that are expected when executing the queries
+     *
+     * @return the digest
+     *
+     * @throws SQLException
+     *             if a result set cannot be read
+     */
+    public static ResultSetDigest getCombinedResultSetDigest(String firstQueryString, String secondQueryString,
+            String thirdQueryString, List<String> combinedString, boolean asUnion, SQLGlobalState<?, ?> state,
+            ExpectedErrors errors) throws SQLException {
+        List<String> queries;
+        if (asUnion) {
+            queries = List.of(firstQueryString + " UNION ALL " + secondQueryString + " UNION ALL " + thirdQueryString);
+        } else {
+            queries = List.of(firstQueryString, secondQueryString, thirdQueryString);
+        }
+        combinedString.addAll(queries);
+        ResultSetDigest fingerprint = getFingerprint(queries, errors, state, null);
+        if (fingerprint != null) {
+            return fingerprint;
+        }
+        if (!state.getOptions().useResultDigests()) {
+            List<ResultFetcher<List<String>>> fetchers = new ArrayList<>(queries.size());
+            for (String queryString : queries) {
+                fetchers.add(s -> getResultSetFirstColumnAsString(queryString, errors, s));
+            }
+            List<String> rows = new ArrayList<>();
+            fetchAll(state, fetchers).forEach(rows::addAll);
+            return ResultSetDigest.fromRows(rows);
+        }
+        List<ResultFetcher<ResultSetDigest>> fetchers = new ArrayList<>(queries.size());
+        for (String queryString : queries) {
+            fetchers.add(s -> {
+                ResultSetDigest partition = new ResultSetDigest(List.of(queryString), errors);
+                readResultSet(queryString, errors, s, result -> partition.add(getFirstColumn(result)));
+                return partition;
+            });
+        }
+        ResultSetDigest digest = new ResultSetDigest(queries, errors);
+        for (ResultSetDigest partition : fetchAll(state, fetchers)) {
+            digest.add(partition);
+        }
+        return digest;
+    }
+
+    public static List<ResultRow> getCombinedResultSetRows(String firstQueryString, String secondQueryString,
+            String thirdQueryString, List<String> combinedString, boolean asUnion, SQLGlobalState<?, ?> state,
+            ExpectedErrors errors) throws SQLException {
+        List<ResultRow> secondResultSet;
+        if (asUnion) {
+            String unionString = firstQueryString + " UNION ALL " + secondQueryString + " UNION ALL "
+                    + thirdQueryString;
+            combinedString.add(unionString);
+            secondResultSet = getResultSetRows(unionString, errors, state);
+        } else {
+            secondResultSet = new ArrayList<>();
+            List<List<ResultRow>> resultSets = fetchConcurrently(state,
+                    s -> getResultSetRows(firstQueryString, errors, s),
+                    s -> getResultSetRows(secondQueryString, errors, s),
+                    s -> getResultSetRows(thirdQueryString, errors, s));
+            resultSets.forEach(secondResultSet::addAll);
             combinedString.add(firstQueryString);
             combinedString.add(secondQueryString);
             combinedString.add(thirdQueryString);
@@ -0,0 +1,196 @@
+package sqlancer;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import sqlancer.common.query.ExpectedErrors;
+import sqlancer.common.query.SQLQueryAdapter;
+
+/**
+ * Executes the variants of a query that the DQP oracles compare with the original query: the query with each of its
+ * hints, and the original query after each change of the optimizer settings. If the thread has sibling connections (see
+ * {@link MainOptions#getDQPSiblingConnections()}), the variants are split into contiguous chunks, which are executed
+ * concurrently on them and the connection of the thread, and otherwise one after another on the connection of the
+ * thread.
+ *
+ * Each result is compared with the original result as soon as it was fetched, and the first mismatch stops all chunks.
+ * The settings are applied cumulatively, as when they are executed one after another on a single connection: before a
+ * variant is executed on a connection, all settings up to that of the variant are applied to its session. Afterwards,
+ * all settings are applied to every connection, so that the sessions of the connections do not diverge.
+ */
+public final class DQPExecutor {
+
+    private DQPExecutor() {
+    }
+
+    // a query that is executed after the first nrSettings settings were applied to the session
+    private static final class Variant {
+
+        private final String queryString;
+        private final int nrSettings;
+
+        Variant(String queryString, int nrSettings) {
+            this.queryString = queryString;
+            this.nrSettings = nrSettings;
+        }
+
+    }
+
+    // the first variant of a chunk whose result does not match the original one, or the failure of the chunk
+    private static final class Outcome {
+
+        private int index = -1;
+        private Object result;
+        private Throwable failure;
+
+    }
+
+    /**
+     * Checks that the variants of a query return the same result as the query, by all columns if
+     * {@link MainOptions#compareAllColumns()} holds, and otherwise by the first column.
+     *
+     * @param state
+     *            the state of the thread
+     * @param originalQueryString
+     *            the original query, which is executed first on the connection of the thread
+     * @param hintedQueryStrings
+     *            the original query with each of its hints
+     * @param settings
+     *            the changes of the optimizer settings after each of which the original query is executed again
+     * @param errors
+     *            the errors that are expected when executing the queries
+     *
+     * @throws SQLException
+     *             if a result set cannot be read
+     */
+    public static void assumeEqualResults(SQLGlobalState<?, ?> state, String originalQueryString,
+            List<String> hintedQueryStrings, List<SQLQueryAdapter> settings, ExpectedErrors errors)
+            throws SQLException {
+        Object originalResult;
+        if (state.getOptions().compareAllColumns()) {
+            originalResult = ComparatorHelper.getResultSetRows(originalQueryString, errors, state);
+        } else {
+            originalResult = ComparatorHelper.getMaterializedResultSetDigest(originalQueryString, errors, state);
+        }
+
+        List<Variant> variants = new ArrayList<>(hintedQueryStrings.size() + settings.size());
+        for (String queryString : hintedQueryStrings) {
+            variants.add(new Variant(queryString, 0));
+        }
+        for (int i = 0; i < settings.size(); i++) {
+            variants.add(new Variant(originalQueryString, i + 1));
+        }
+
+        int maxSiblings = state.getOptions().getDQPSiblingConnections();
+        SiblingConnections<?, ?, ?> siblingConnections = state.getSiblingConnections();
+        int nrChunks = siblingConnections == null ? 1 : siblingConnections.getParallelism(maxSiblings);
+        nrChunks = Math.max(1, Math.min(nrChunks, variants.size()));
+        AtomicBoolean aborted = new AtomicBoolean();
+        List<ComparatorHelper.ResultFetcher<Outcome>> chunks = new ArrayList<>(nrChunks);
+        for (int i = 0; i < nrChunks; i++) {
+            int from = variants.size() * i / nrChunks;
+            int to = variants.size() * (i + 1) / nrChunks;
+            chunks.add(s -> executeChunk(s, variants, from, to, settings, originalResult, errors, aborted));
+        }
+        List<Outcome> outcomes = ComparatorHelper.fetchAll(state, chunks, maxSiblings);
+
+        // a mismatch is reported even if another variant failed, for example, due to an expected error
+        for (Outcome outcome : outcomes) {
+            if (outcome.index != -1) {
+                reportMismatch(state, variants.get(outcome.index), outcome.result, settings, originalResult,
+                        originalQueryString);
+            }
+        }
+        for (Outcome outcome : outcomes) {
+            if (outcome.failure instanceof SQLException) {
+                throw (SQLException) outcome.failure;
+            } else if (outcome.failure instanceof RuntimeException) {
+                throw (RuntimeException) outcome.failure;
+            } else if (outcome.failure instanceof Error) {
+                throw (Error) outcome.failure;
+            } else if (outcome.failure != null) {
+                throw new AssertionError(outcome.failure);
+            }
+        }
+    }
+
+    private static Outcome executeChunk(SQLGlobalState<?, ?> state, List<Variant> variants, int from, int to,
+            List<SQLQueryAdapter> settings, Object originalResult, ExpectedErrors errors, AtomicBoolean aborted) {
+        Outcome outcome = new Outcome();
+        int nrAppliedSettings = 0;
+        try {
+            for (int i = from; i < to && !aborted.get(); i++) {
+                Variant variant = variants.get(i);
+                nrAppliedSettings = applySettings(state, settings, nrAppliedSettings, variant.nrSettings);
+                Object mismatch = getMismatchingResult(state, variant.queryString, originalResult, errors);
+                if (mismatch != null) {
+                    outcome.index = i;
+                    outcome.result = mismatch;
+                    aborted.set(true);
+                    return outcome;
+                }
+            }
+            applySettings(state, settings, nrAppliedSettings, settings.size());
+        } catch (Throwable e) {
+            outcome.failure = e;
+            aborted.set(true);
+        }
+        return outcome;
+    }
+
+    private static int applySettings(SQLGlobalState<?, ?> state, List<SQLQueryAdapter> settings, int from, int to)
+            throws SQLException {
+        for (int i = from; i < to; i++) {
+            settings.get(i).execute(state);
+        }
+        return Math.max(from, to);
+    }
+
+    // returns the rows of the query if they do not match the original result, and otherwise null
+    @SuppressWarnings("unchecked")
+    private static Object getMismatchingResult(SQLGlobalState<?, ?> state, String queryString, Object originalResult,
+            ExpectedErrors errors) throws SQLException {
+        if (originalResult instanceof ResultSetDigest) {
+            ResultSetDigest originalDigest = (ResultSetDigest) originalResult;
+            ResultSetDigest digest = ComparatorHelper.getResultSetFirstColumnDigest(queryString, errors, state);
+            if (originalDigest.matches(digest)
+                    || state.getOptions().validateResultSizeOnly() && originalDigest.getCount() == digest.getCount()) {
+                return null;
+            }
+            // unless the digest kept them, the rows are fetched again on this connection, whose session has the
+            // settings of the variant, and are compared like the first columns of other oracles, as the digests can
+            // also differ, for example, by the
+            // number of duplicates or if only one of them consists of fingerprints
+            ResultSetDigest materializedDigest = digest.getRows() != null ? digest
+                    : ComparatorHelper.getMaterializedResultSetDigest(queryString, errors, state);
+            return ComparatorHelper.resultSetsMatch(originalDigest.getRows(), materializedDigest.getRows(), state)
+                    ? null : materializedDigest;
+        }
+        List<ResultRow> rows = ComparatorHelper.getResultSetRows(queryString, errors, state);
+        return ComparatorHelper.resultRowsMatch((List<ResultRow>) originalResult, rows, state) ? null : rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void reportMismatch(SQLGlobalState<?, ?> state, Variant variant, Object result,
+            List<SQLQueryAdapter> settings, Object originalResult, String originalQueryString) throws SQLException {
+        try {
+            if (originalResult instanceof ResultSetDigest) {
+                // both digests keep their rows, so that they are not fetched again
+                ComparatorHelper.assumeResultSetsAreEqual((ResultSetDigest) originalResult, (ResultSetDigest) result,
+                        originalQueryString, List.of(variant.queryString), state);
+            } else {
+                ComparatorHelper.assumeResultRowsAreEqual((List<ResultRow>) originalResult, (List<ResultRow>) result,
+                        originalQueryString, List.of(variant.queryString), state);
+            }
+        } catch (AssertionError e) {
+            if (variant.nrSettings == 0) {
+                throw e;
+            }
+            throw new AssertionError(e.getMessage() + System.lineSeparator() + "The setting: "
+                    + settings.get(variant.nrSettings - 1).getQueryString(), e);
+        }
+    }
+
+}
@@ -46,6 +46,39 @@ public interface DatabaseProvider<G extends GlobalState<O, ?, C>, O extends DBMS
 
     C createDatabase(G globalState) throws Exception;
 
+    /**
+     * Drops the database of the global state, whose connection is closed, if it was only needed temporarily, for
+     * example, by a worker of the {@link StatementReducer}. By default, the database is kept, as it is recreated when a
+     * database with the same name is created next.
+     *
+     * @param globalState
+     *            the state whose database is dropped
+     *
+     * @throws Exception
+     *             if dropping the database fails
+     */
+    default void dropDatabase(G globalState) throws Exception {
+    }
+
+    /**
+     * Creates a provider for a worker that creates its databases concurrently with this provider, for example, a worker
+     * of the {@link StatementReducer}. Providers keep the details of the database that they created last, so each
+     * worker needs its own instance. Providers whose databases are not distinguished by the name of the database alone,
+     * for example, because they are stored in a fixed file, must create them elsewhere for the worker.
+     *
+     * @param workerName
+     *            a name that is unique among the workers, which can be used to distinguish the databases of the worker
+     *
+     * @return the provider of the worker
+     *
+     * @throws Exception
+     *             if the provider cannot be instantiated
+     */
+    @SuppressWarnings("unchecked")
+    default DatabaseProvider<G, O, C> createWorkerProvider(String workerName) throws Exception {
+        return getClass().getDeclaredConstructor().newInstance();
+    }
+
     /**
      * The DBMS name is used to name the log directory and command to test the respective DBMS.
      *
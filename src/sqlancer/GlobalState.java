@@ -4,6 +4,8 @@ import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLancerResultSet;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTable;
+import sqlancer.common.schema.RowCountTracker;
+import sqlancer.common.schema.SchemaDelta;
 
 public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends AbstractSchema<?, ?>, C extends SQLancerDBConnection> {
 
@@ -12,10 +14,13 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
     private MainOptions options;
     private O dbmsSpecificOptions;
     private S schema;
+    private boolean schemaOutdated;
+    private RowCountTracker rowCountTracker;
     private Main.StateLogger logger;
     private StateToReproduce state;
     private Main.QueryManager<C> manager;
     private String databaseName;
+    private SiblingConnections<?, ?, ?> siblingConnections; // null if the queries are executed on a single connection
 
     public void setConnection(C con) {
         this.databaseConnection = con;
@@ -74,6 +79,14 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
         this.manager = manager;
     }
 
+    void setSiblingConnections(SiblingConnections<?, ?, ?> siblingConnections) {
+        this.siblingConnections = siblingConnections;
+    }
+
+    SiblingConnections<?, ?, ?> getSiblingConnections() {
+        return siblingConnections;
+    }
+
     public String getDatabaseName() {
         return databaseName;
     }
@@ -82,6 +95,29 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
         this.databaseName = databaseName;
     }
 
+    /**
+     * Returns the tracker of the number of rows of each table.
+     *
+     * @return the tracker, or null if row counts are not tracked (see --track-row-counts)
+     */
+    public RowCountTracker getRowCountTracker() {
+        if (rowCountTracker == null && getOptions().trackRowCounts()) {
+            rowCountTracker = new RowCountTracker();
+        }
+        return rowCountTracker;
+    }
+
+    protected void trackRowCounts(Query<?> q, boolean success) {
+        RowCountTracker tracker = getRowCountTracker();
+        if (tracker == null) {
+            return;
+        }
+        tracker.statementExecuted(q.getQueryString(), success, q.getUpdateCount(), q.couldAffectSchema(), name -> {
+            AbstractTable<?, ?, ?> table = schema == null ? null : schema.getDatabaseTable(name);
+            return table != null && table.isRowCountTrackable();
+        });
+    }
+
     private ExecutionTimer executePrologue(Query<?> q) throws Exception {
         boolean logExecutionTime = getOptions().logExecutionTime();
         ExecutionTimer timer = null;
@@ -127,11 +163,13 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
     }
 
     public S getSchema() {
-        if (schema == null) {
+        if (schema == null || schemaOutdated) {
             try {
                 updateSchema();
+            } catch (IgnoreMeException e) { // NOPMD
+                throw e;
             } catch (Exception e) {
-                throw new AssertionError(e.getMessage());
+                throw new AssertionError(e.getMessage(), e);
             }
         }
         return schema;
@@ -143,11 +181,59 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
 
     public void updateSchema() throws Exception {
         setSchema(readSchema());
+        schemaOutdated = false;
         for (AbstractTable<?, ?, ?> table : schema.getDatabaseTables()) {
             table.recomputeCount();
         }
     }
 
+    /**
+     * Brings the schema up to date after executing a statement that could affect it. By default, the schema is read
+     * from the database again. With --incremental-schema-updates, the schema is patched with the statement's
+     * {@link Query#getSchemaDelta() schema delta} if it succeeded, and is otherwise read again only when it is next
+     * accessed, so that consecutive statements of which the schema change is unknown cause a single read.
+     *
+     * @param q
+     *            the statement, which could affect the schema
+     * @param success
+     *            whether the statement was executed successfully
+     *
+     * @throws Exception
+     *             if reading the schema fails
+     */
+    protected void updateSchemaAfter(Query<?> q, boolean success) throws Exception {
+        if (!getOptions().incrementalSchemaUpdates()) {
+            updateSchema();
+            return;
+        }
+        SchemaDelta delta = q.getSchemaDelta();
+        if (success && delta != null && schema != null && !schemaOutdated && delta.applyTo(schema)) {
+            if (getOptions().verifySchemaDeltas()) {
+                verifySchemaDelta(q);
+            }
+        } else {
+            schemaOutdated = true;
+        }
+    }
+
+    private void verifySchemaDelta(Query<?> q) throws Exception {
+        String patchedSchema = describeSchema(schema);
+        String actualSchema = describeSchema(readSchema());
+        if (!patchedSchema.equals(actualSchema)) {
+            throw new AssertionError(
+                    String.format("the schema patched after %s differs from the actual schema:%n%s%n%s",
+                            q.getLogString(), patchedSchema, actualSchema));
+        }
+    }
+
+    private static String describeSchema(AbstractSchema<?, ?> schema) {
+        StringBuilder sb = new StringBuilder(schema.toString());
+        for (AbstractTable<?, ?, ?> table : schema.getDatabaseTables()) {
+            sb.append(table.getName()).append(" indexes: ").append(table.getIndexes()).append('\n');
+        }
+        return sb.toString();
+    }
+
     protected abstract S readSchema() throws Exception;
 
 }
@@ -8,6 +8,7 @@ import java.nio.file.Files;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -16,6 +17,7 @@ import java.util.ServiceLoader;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -23,11 +25,17 @@ import java.util.concurrent.atomic.AtomicLong;
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.JCommander.Builder;
 
+import sqlancer.MainOptions.ExecutorKind;
+import sqlancer.MetricsRegistry.Counter;
 import sqlancer.citus.CitusProvider;
 import sqlancer.clickhouse.ClickHouseProvider;
 import sqlancer.cnosdb.CnosDBProvider;
 import sqlancer.cockroachdb.CockroachDBProvider;
+import sqlancer.common.log.AsyncLogWriter;
 import sqlancer.common.log.Loggable;
+import sqlancer.common.log.StatementLogReader;
+import sqlancer.common.log.StatementLogWriter;
+import sqlancer.common.oracle.TestOracle;
 import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLancerResultSet;
 import sqlancer.databend.DatabendProvider;
@@ -52,10 +60,7 @@ import sqlancer.yugabyte.ysql.YSQLProvider;
 public final class Main {
 
     public static final File LOG_DIRECTORY = new File("logs");
-    public static volatile AtomicLong nrQueries = new AtomicLong();
-    public static volatile AtomicLong nrDatabases = new AtomicLong();
-    public static volatile AtomicLong nrSuccessfulActions = new AtomicLong();
-    public static volatile AtomicLong nrUnsuccessfulActions = new AtomicLong();
+    public static final MetricsRegistry METRICS = new MetricsRegistry();
     public static volatile AtomicLong threadsShutdown = new AtomicLong();
     static boolean progressMonitorStarted;
 
@@ -75,14 +80,17 @@ public final class Main {
         private File curFile;
         private File queryPlanFile;
         private File reduceFile;
+        private File statementLogFile;
+        private StatementLogWriter statementLogWriter;
         private FileWriter logFileWriter;
-        public FileWriter currentFileWriter;
-        private FileWriter queryPlanFileWriter;
+        public Writer currentFileWriter;
+        private Writer queryPlanFileWriter;
         private FileWriter reduceFileWriter;
 
         private static final List<String> INITIALIZED_PROVIDER_NAMES = new ArrayList<>();
         private final boolean logEachSelect;
         private final boolean logQueryPlan;
+        private final MainOptions options;
 
         private final boolean useReducer;
         private final DatabaseProvider<?, ?, ?> databaseProvider;
@@ -117,6 +125,9 @@ public final class Main {
             if (logEachSelect) {
                 curFile = new File(dir, databaseName + "-cur.log");
             }
+            if (options.binaryStatementLog()) {
+                statementLogFile = new File(dir, databaseName + StatementLogWriter.FILE_EXTENSION);
+            }
             logQueryPlan = options.logQueryPlan();
             if (logQueryPlan) {
                 queryPlanFile = new File(dir, databaseName + "-plan.log");
@@ -131,6 +142,7 @@ public final class Main {
 
             }
             this.databaseProvider = provider;
+            this.options = options;
         }
 
         private void ensureExistsAndIsEmpty(File dir, DatabaseProvider<?, ?, ?> provider) {
@@ -167,32 +179,114 @@ public final class Main {
             return logFileWriter;
         }
 
-        public FileWriter getCurrentFileWriter() {
+        // the writers are created lazily, also by the additional connections of the thread (see AuxiliaryConnections)
+        public synchronized Writer getCurrentFileWriter() {
             if (!logEachSelect) {
                 throw new UnsupportedOperationException();
             }
             if (currentFileWriter == null) {
-                try {
-                    currentFileWriter = new FileWriter(curFile, false);
-                } catch (IOException e) {
-                    throw new AssertionError(e);
-                }
+                currentFileWriter = createStatementWriter(curFile, false);
             }
             return currentFileWriter;
         }
 
-        public FileWriter getQueryPlanFileWriter() {
+        public synchronized Writer getQueryPlanFileWriter() {
             if (!logQueryPlan) {
                 throw new UnsupportedOperationException();
             }
             if (queryPlanFileWriter == null) {
+                queryPlanFileWriter = createStatementWriter(queryPlanFile, true);
+            }
+            return queryPlanFileWriter;
+        }
+
+        private Writer createStatementWriter(File file, boolean append) {
+            try {
+                FileWriter fileWriter = new FileWriter(file, append);
+                if (options.asyncLogging()) {
+                    return new AsyncLogWriter(fileWriter, options.getAsyncLoggingFlushSize(),
+                            options.getAsyncLoggingFlushInterval());
+                } else {
+                    return fileWriter;
+                }
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        /**
+         * Waits until the statements that have been logged so far are written to the log files. This is necessary only
+         * when --async-logging is enabled, in which case logged statements are buffered.
+         */
+        public void syncStatementWriters() {
+            try {
+                if (currentFileWriter instanceof AsyncLogWriter) {
+                    ((AsyncLogWriter) currentFileWriter).sync();
+                }
+                if (queryPlanFileWriter instanceof AsyncLogWriter) {
+                    ((AsyncLogWriter) queryPlanFileWriter).sync();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        public synchronized void closeQueryPlanFileWriter() {
+            if (queryPlanFileWriter != null) {
+                try {
+                    queryPlanFileWriter.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                queryPlanFileWriter = null;
+            }
+        }
+
+        /**
+         * Closes all writers of the logger that are open, for example, when the logger of a worker of the
+         * {@link StatementReducer} is no longer needed.
+         */
+        public synchronized void close() {
+            closeQueryPlanFileWriter();
+            closeStatementLog();
+            statementLogWriter = null;
+            for (Writer writer : Arrays.asList(currentFileWriter, logFileWriter, reduceFileWriter)) {
+                if (writer == null) {
+                    continue;
+                }
                 try {
-                    queryPlanFileWriter = new FileWriter(queryPlanFile, true);
+                    writer.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            currentFileWriter = null;
+            logFileWriter = null;
+            reduceFileWriter = null;
+        }
+
+        public StatementLogWriter getStatementLogWriter() {
+            if (statementLogFile == null) {
+                throw new UnsupportedOperationException();
+            }
+            if (statementLogWriter == null) {
+                try {
+                    statementLogWriter = new StatementLogWriter(statementLogFile);
                 } catch (IOException e) {
                     throw new AssertionError(e);
                 }
             }
-            return queryPlanFileWriter;
+            return statementLogWriter;
+        }
+
+        public void closeStatementLog() {
+            if (statementLogWriter != null) {
+                try {
+                    statementLogWriter.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
         }
 
         public FileWriter getReduceFileWriter() {
@@ -236,8 +330,9 @@ public final class Main {
             }
             try {
                 getCurrentFileWriter().write(loggable.getLogString());
-
-                currentFileWriter.flush();
+                if (!options.asyncLogging()) {
+                    currentFileWriter.flush();
+                }
             } catch (IOException e) {
                 throw new AssertionError();
             }
@@ -249,7 +344,9 @@ public final class Main {
             }
             try {
                 getQueryPlanFileWriter().append(removeNamesFromQueryPlans(queryPlan));
-                queryPlanFileWriter.flush();
+                if (!options.asyncLogging()) {
+                    queryPlanFileWriter.flush();
+                }
             } catch (IOException e) {
                 throw new AssertionError();
             }
@@ -299,11 +396,17 @@ public final class Main {
         }
 
         public void logException(Throwable reduce, StateToReproduce state) {
+            // make sure that the statements that led to the exception are in the log files before reporting it
+            syncStatementWriters();
             Loggable stackTrace = getStackTrace(reduce);
             FileWriter logFileWriter2 = getLogFileWriter();
             try {
                 logFileWriter2.write(stackTrace.getLogString());
-                printState(logFileWriter2, state);
+                if (statementLogWriter == null) {
+                    printState(logFileWriter2, state);
+                } else {
+                    printStatementLogReference(logFileWriter2, state);
+                }
             } catch (IOException e) {
                 throw new AssertionError(e);
             } finally {
@@ -319,7 +422,7 @@ public final class Main {
             return databaseProvider.getLoggableFactory().convertStacktraceToLoggable(e1);
         }
 
-        private void printState(FileWriter writer, StateToReproduce state) {
+        private void printState(Writer writer, StateToReproduce state) {
             StringBuilder sb = new StringBuilder();
 
             sb.append(databaseProvider.getLoggableFactory()
@@ -335,6 +438,17 @@ public final class Main {
             }
         }
 
+        private void printStatementLogReference(Writer writer, StateToReproduce state) throws IOException {
+            // rendering all statements can take seconds for long runs, so we only refer to the binary log
+            closeStatementLog();
+            writer.write(databaseProvider.getLoggableFactory()
+                    .getInfo(state.getDatabaseName(), state.getDatabaseVersion(), state.getSeedValue()).getLogString());
+            writer.write("-- The " + statementLogWriter.getNrStatements()
+                    + " statements to reproduce the bug are stored in " + statementLogFile.getPath() + "\n");
+            writer.write("-- Convert them to SQL using: java -cp sqlancer.jar " + StatementLogReader.class.getName()
+                    + " " + statementLogFile.getPath() + "\n");
+        }
+
         private String removeNamesFromQueryPlans(String queryPlan) {
             String result = queryPlan;
             result = result.replaceAll("t[0-9]+", "t0"); // Avoid duplicate tables
@@ -355,7 +469,6 @@ public final class Main {
         public boolean execute(Query<C> q, String... fills) throws Exception {
             boolean success;
             success = q.execute(globalState, fills);
-            Main.nrSuccessfulActions.addAndGet(1);
             if (globalState.getOptions().loggerPrintFailed() || success) {
                 globalState.getState().logStatement(q);
             }
@@ -366,20 +479,23 @@ public final class Main {
             globalState.getState().logStatement(q);
             SQLancerResultSet result;
             result = q.executeAndGet(globalState, fills);
-            Main.nrSuccessfulActions.addAndGet(1);
             return result;
         }
 
         public void incrementSelectQueryCount() {
-            Main.nrQueries.addAndGet(1);
+            Main.METRICS.increment(Counter.QUERIES);
+        }
+
+        public void incrementSelectQueryCount(TestOracle<?> oracle) {
+            Main.METRICS.incrementQueries(oracle.getName());
         }
 
         public Long getSelectQueryCount() {
-            return Main.nrQueries.get();
+            return Main.METRICS.get(Counter.QUERIES);
         }
 
         public void incrementCreateDatabase() {
-            Main.nrDatabases.addAndGet(1);
+            Main.METRICS.increment(Counter.DATABASES);
         }
 
     }
@@ -432,6 +548,12 @@ public final class Main {
             stateToRepro.seedValue = r.getSeed();
             state.setState(stateToRepro);
             logger = new StateLogger(databaseName, provider, options);
+            if (options.binaryStatementLog()) {
+                stateToRepro.setStatementLog(logger.getStatementLogWriter());
+            }
+            if (options.getMaxStatementsInMemory() != -1) {
+                stateToRepro.limitStatementsInMemory(options.getMaxStatementsInMemory());
+            }
             state.setRandomly(r);
             state.setDatabaseName(databaseName);
             state.setMainOptions(options);
@@ -443,6 +565,9 @@ public final class Main {
                 } catch (Exception e) {
                     // ignore
                 }
+                if (options.reuseStatements() && con instanceof SQLConnection) {
+                    ((SQLConnection) con).enableStatementCache(options.getPreparedStatementCacheSize());
+                }
                 state.setConnection(con);
                 state.setStateLogger(logger);
                 state.setManager(manager);
@@ -592,12 +717,26 @@ public final class Main {
                     public void run() {
                         System.out.println("Overall execution statistics");
                         System.out.println("============================");
-                        System.out.println(formatInteger(nrQueries.get()) + " queries");
-                        System.out.println(formatInteger(nrDatabases.get()) + " databases");
-                        System.out.println(
-                                formatInteger(nrSuccessfulActions.get()) + " successfully-executed statements");
-                        System.out.println(
-                                formatInteger(nrUnsuccessfulActions.get()) + " unsuccessfuly-executed statements");
+                        System.out.println(formatInteger(METRICS.get(Counter.QUERIES)) + " queries");
+                        System.out.println(formatInteger(METRICS.get(Counter.DATABASES)) + " databases");
+                        System.out.println(formatInteger(METRICS.get(Counter.SUCCESSFUL_ACTIONS))
+                                + " successfully-executed statements");
+                        System.out.println(formatInteger(METRICS.get(Counter.UNSUCCESSFUL_ACTIONS))
+                                + " unsuccessfuly-executed statements");
+                        for (Map.Entry<String, Long> oracle : METRICS.getOracleQueryCounts().entrySet()) {
+                            System.out.println(
+                                    formatInteger(oracle.getValue()) + " queries checked by " + oracle.getKey());
+                        }
+                        for (Map.Entry<String, long[]> action : METRICS.getActionCounts().entrySet()) {
+                            System.out.println(formatInteger(action.getValue()[0]) + " successfully-executed "
+                                    + action.getKey() + " statements (" + action.getValue()[1] + " unsuccessful)");
+                        }
+                        Map<String, Long> threadDatabases = METRICS.getThreadCounts(Counter.DATABASES);
+                        for (Map.Entry<String, Long> thread : METRICS.getThreadCounts(Counter.QUERIES).entrySet()) {
+                            System.out.println(formatInteger(thread.getValue()) + " queries on "
+                                    + threadDatabases.getOrDefault(thread.getKey(), 0L) + " databases by thread "
+                                    + thread.getKey());
+                        }
                     }
 
                     private String formatInteger(long intValue) {
@@ -611,7 +750,17 @@ public final class Main {
             }
         }
 
-        ExecutorService execService = Executors.newFixedThreadPool(options.getNumberConcurrentThreads());
+        ExecutorService execService;
+        try {
+            execService = createExecutorService(options);
+        } catch (UnsupportedOperationException e) {
+            System.err.println(e.getMessage());
+            return options.getErrorExitCode();
+        }
+        // limits the number of databases (and thus connections) that virtual threads test at the same time; the fixed
+        // pool of platform threads already limits them to its size
+        final Semaphore connectionPermits = options.getExecutorKind() == ExecutorKind.VIRTUAL
+                ? new Semaphore(options.getMaxConcurrentConnections()) : null;
         DBMSExecutorFactory<?, ?, ?> executorFactory = nameToProvider.get(jc.getParsedCommand());
 
         if (options.performConnectionTest()) {
@@ -649,7 +798,17 @@ public final class Main {
                         int maxNrDbs = options.getMaxGeneratedDatabases();
                         // run without a limit if maxNrDbs == -1
                         for (int i = 0; i < maxNrDbs || maxNrDbs == -1; i++) {
-                            Boolean continueRunning = run(options, execService, executorFactory, r, databaseName);
+                            Boolean continueRunning;
+                            if (connectionPermits == null) {
+                                continueRunning = run(options, execService, executorFactory, r, databaseName);
+                            } else {
+                                connectionPermits.acquireUninterruptibly();
+                                try {
+                                    continueRunning = run(options, execService, executorFactory, r, databaseName);
+                                } finally {
+                                    connectionPermits.release();
+                                }
+                            }
                             if (!continueRunning) {
                                 someOneFails.set(true);
                                 break;
@@ -678,6 +837,8 @@ public final class Main {
                         executor.getLogger().logException(reduce, executor.getStateToReproduce());
                         return false;
                     } finally {
+                        executor.getLogger().closeStatementLog();
+                        executor.getStateToReproduce().closeStatementHistory();
                         try {
                             if (options.logEachSelect()) {
                                 if (executor.getLogger().currentFileWriter != null) {
@@ -688,6 +849,7 @@ public final class Main {
                         } catch (IOException e) {
                             e.printStackTrace();
                         }
+                        executor.getLogger().closeQueryPlanFileWriter();
                     }
                 }
             });
@@ -705,6 +867,25 @@ public final class Main {
         return someOneFails.get() ? options.getErrorExitCode() : 0;
     }
 
+    private static ExecutorService createExecutorService(MainOptions options) {
+        switch (options.getExecutorKind()) {
+        case PLATFORM:
+            return Executors.newFixedThreadPool(options.getNumberConcurrentThreads());
+        case VIRTUAL:
+            try {
+                // SQLancer targets Java 11, so the virtual-thread executor is only available reflectively
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new UnsupportedOperationException(
+                        "--executor=virtual requires a Java 21+ runtime, but SQLancer is running on Java "
+                                + System.getProperty("java.version"),
+                        e);
+            }
+        default:
+            throw new AssertionError(options.getExecutorKind());
+        }
+    }
+
     /**
      * To register a new provider, it is necessary to implement the DatabaseProvider interface and add an additional
      * configuration file, see https://docs.oracle.com/javase/9/docs/api/java/util/ServiceLoader.html. Currently, we use
@@ -778,14 +959,16 @@ public final class Main {
             @Override
             public void run() {
                 long elapsedTimeMillis = System.currentTimeMillis() - timeMillis;
-                long currentNrQueries = nrQueries.get();
+                long currentNrQueries = METRICS.get(Counter.QUERIES);
                 long nrCurrentQueries = currentNrQueries - lastNrQueries;
                 double throughput = nrCurrentQueries / (elapsedTimeMillis / 1000d);
-                long currentNrDbs = nrDatabases.get();
+                long currentNrDbs = METRICS.get(Counter.DATABASES);
                 long nrCurrentDbs = currentNrDbs - lastNrDbs;
                 double throughputDbs = nrCurrentDbs / (elapsedTimeMillis / 1000d);
-                long successfulStatementsRatio = (long) (100.0 * nrSuccessfulActions.get()
-                        / (nrSuccessfulActions.get() + nrUnsuccessfulActions.get()));
+                long nrSuccessfulActions = METRICS.get(Counter.SUCCESSFUL_ACTIONS);
+                long nrUnsuccessfulActions = METRICS.get(Counter.UNSUCCESSFUL_ACTIONS);
+                long successfulStatementsRatio = (long) (100.0 * nrSuccessfulActions
+                        / (nrSuccessfulActions + nrUnsuccessfulActions));
                 DateFormat dateFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss");
                 Date date = new Date();
                 System.out.println(String.format(
@@ -2,7 +2,9 @@ package sqlancer;
 
 import java.util.Objects;
 
+import com.beust.jcommander.IParameterValidator;
 import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
 import com.beust.jcommander.Parameters;
 
 import sqlancer.Randomly.StringGenerationStrategy;
@@ -20,6 +22,12 @@ public class MainOptions {
             "--num-threads" }, description = "How many threads should run concurrently to test separate databases")
     private int nrConcurrentThreads = 16; // NOPMD
 
+    @Parameter(names = "--executor", description = "The kind of threads used to test databases. PLATFORM uses a fixed pool of --num-threads threads, VIRTUAL runs each database on its own virtual thread (requires a Java 21+ runtime)")
+    private ExecutorKind executorKind = ExecutorKind.PLATFORM; // NOPMD
+
+    @Parameter(names = "--max-concurrent-connections", description = "The maximum number of databases that are tested concurrently when using --executor=virtual (-1 defaults to --num-threads)", validateWith = ConnectionLimitValidator.class)
+    private int maxConcurrentConnections = -1; // NOPMD
+
     @Parameter(names = {
             "--random-seed" }, description = "A seed value != -1 that can be set to make the query and database generation deterministic")
     private long randomSeed = -1; // NOPMD
@@ -48,6 +56,42 @@ public class MainOptions {
     @Parameter(names = "--log-execution-time", description = "Logs the execution time of each statement (requires --log-each-select to be enabled)", arity = 1)
     private boolean logExecutionTime = true; // NOPMD
 
+    @Parameter(names = "--binary-statement-log", description = "Streams the statements executed on each database into a compressed, indexed binary log file (.sqllog), to which the .log file of a failing database refers instead of listing all statements. Use sqlancer.common.log.StatementLogReader to convert it back to SQL", arity = 1)
+    private boolean binaryStatementLog; // NOPMD
+
+    @Parameter(names = "--max-statements-in-memory", description = "The maximum number of executed statements per database that are kept in memory to reproduce a bug. Older statements are spilled to a temporary memory-mapped file (-1 to keep all statements in memory)")
+    private int maxStatementsInMemory = -1; // NOPMD
+
+    @Parameter(names = "--reuse-statements", description = "Reuses the JDBC statements of a connection instead of creating a new statement for each query. Prepared statements are cached by their SQL text, and the cache is cleared after each statement that could affect the schema", arity = 1)
+    private boolean reuseStatements; // NOPMD
+
+    @Parameter(names = "--prepared-statement-cache-size", description = "The maximum number of prepared statements cached per connection (requires --reuse-statements)")
+    private int preparedStatementCacheSize = 32; // NOPMD
+
+    @Parameter(names = "--pool-connections", description = "Keeps the connection to the database of each thread open after a run, and resets the database for the next run instead of recreating it (PostgreSQL, TimescaleDB, and YSQL). A database is recreated instead if the run chose other options for creating it, such as its encoding", arity = 1)
+    private boolean poolConnections; // NOPMD
+
+    @Parameter(names = "--incremental-schema-updates", description = "Patches the in-memory schema after statements that report how they change it (for example, DROP TABLE), and otherwise reads the schema again only when it is next accessed, instead of after each statement that could affect the schema", arity = 1)
+    private boolean incrementalSchemaUpdates; // NOPMD
+
+    @Parameter(names = "--verify-schema-deltas", description = "Reads the schema again after each in-memory schema patch and checks that both match (requires --incremental-schema-updates)", arity = 1)
+    private boolean verifySchemaDeltas; // NOPMD
+
+    @Parameter(names = "--track-row-counts", description = "Tracks the number of rows of each table based on the update counts of the executed statements, and counts the rows with SELECT COUNT(*) only when the tracked number is uncertain", arity = 1)
+    private boolean trackRowCounts; // NOPMD
+
+    @Parameter(names = "--async-logging", description = "Buffers the statements logged by --log-each-select and --qpg-log-query-plan, and writes them to the log files in a background thread", arity = 1)
+    private boolean asyncLogging; // NOPMD
+
+    @Parameter(names = "--async-logging-flush-size", description = "The number of buffered characters after which the logged statements are written (requires --async-logging)")
+    private int asyncLoggingFlushSize = 64 * 1024; // NOPMD
+
+    @Parameter(names = "--async-logging-flush-interval", description = "The maximum time in milliseconds that logged statements are buffered before they are written (requires --async-logging)")
+    private long asyncLoggingFlushInterval = 1000; // NOPMD
+
+    @Parameter(names = "--adaptive-action-selection", description = "Learns which statement-generating actions mostly fail or are slow, and generates the statements of the database with other actions instead (the statistics are shared across threads, so the generated databases are no longer reproducible with --random-seed)", arity = 1)
+    private boolean adaptiveActionSelection; // NOPMD
+
     @Parameter(names = "--print-failed", description = "Logs failed insert, create and other statements without results", arity = 1)
     private boolean loggerPrintFailed = true; // NOPMD
 
@@ -66,6 +110,21 @@ public class MainOptions {
     @Parameter(names = "--qpg-selection-probability", description = "The probability (0-1) of the random selection of mutators. A higher value (>0.5) favors exploration over exploitation. (requires --qpg-enable)")
     private static double qpgProbability = 0.7;
 
+    @Parameter(names = "--qpg-shared-plans", description = "The maximum number of query plan fingerprints that are shared across threads, so that a query plan explored by one thread is not considered new by the others, for example, 1048576 when using several --num-threads; 0 disables sharing (requires --qpg-enable)")
+    private int qpgSharedPlanCapacity; // NOPMD
+
+    @Parameter(names = "--qpg-queries-per-plan", description = "The maximum number of queries that are kept for each query plan, which are explained again after each mutation to check whether the query plan changed (requires --qpg-enable)")
+    private int qpgQueriesPerPlan = 1; // NOPMD
+
+    @Parameter(names = "--qpg-incremental-recheck", description = "After a mutation, explain again only the queries that refer to a table that the mutation refers to (requires --qpg-enable)", arity = 1)
+    private boolean qpgIncrementalRecheck; // NOPMD
+
+    @Parameter(names = "--qpg-explain-batch-size", description = "The maximum number of EXPLAIN statements that are sent to the DBMS at once when checking whether the query plans changed after a mutation, for DBMSs that support it (requires --qpg-enable)")
+    private int qpgExplainBatchSize = 32; // NOPMD
+
+    @Parameter(names = "--qpg-recheck-connections", description = "The number of additional connections to the same database that each thread uses to check in parallel whether the query plans changed after a mutation, for DBMSs that support it; 0 checks them on the thread's own connection (requires --qpg-enable)")
+    private int qpgRecheckConnections; // NOPMD
+
     @Parameter(names = "--username", description = "The user name used to log into the DBMS")
     private String userName = "sqlancer"; // NOPMD
 
@@ -135,6 +194,12 @@ public class MainOptions {
     @Parameter(names = "--statement-reducer-max-time", description = "EXPERIMENTAL Maximum time duration (secs) the AST-based reducer will do")
     private long maxASTReduceTime = NO_REDUCE_LIMIT; // NOPMD
 
+    @Parameter(names = "--statement-reducer-threads", description = "EXPERIMENTAL Number of threads the statement reducer uses to test the candidates of a granularity level concurrently, each on its own database")
+    private int statementReducerThreads = 1; // NOPMD
+
+    @Parameter(names = "--statement-reducer-checkpoints", description = "EXPERIMENTAL Restore the database from checkpoints saved after unchanged prefixes of the statements instead of replaying all statements for each candidate of the statement reducer (only for file-based DBMS)", arity = 1)
+    private boolean statementReducerCheckpoints = false; // NOPMD
+
     @Parameter(names = "--ast-reducer-max-steps", description = "EXPERIMENTAL Maximum steps the AST-based reducer will do")
     private long maxASTReduceSteps = NO_REDUCE_LIMIT; // NOPMD
 
@@ -147,6 +212,21 @@ public class MainOptions {
     @Parameter(names = "--canonicalize-sql-strings", description = "Should canonicalize query string (add ';' at the end", arity = 1)
     private boolean canonicalizeSqlString = true; // NOPMD
 
+    @Parameter(names = "--compare-all-columns", description = "Compare all columns of the result sets of the TLP WHERE and DQP oracles by their typed values, instead of only the first column as strings", arity = 1)
+    private boolean compareAllColumns = false; // NOPMD
+
+    @Parameter(names = "--use-result-digests", description = "Compare the results of the TLP WHERE and DQP oracles by digests that are computed while the rows are streamed, without keeping the rows, which are fetched again only if the digests differ", arity = 1)
+    private boolean useResultDigests = false; // NOPMD
+
+    @Parameter(names = "--use-result-fingerprints", description = "Compare the results of the TLP WHERE and DQP oracles by fingerprints that the DBMS computes, and fetch the rows only if the fingerprints differ, which reduces the traffic to remote servers (PostgreSQL, MySQL, DuckDB, and ClickHouse)", arity = 1)
+    private boolean useResultFingerprints = false; // NOPMD
+
+    @Parameter(names = "--tlp-sibling-connections", description = "The number of additional connections to the same database on which each thread executes the original and partitioning queries of the TLP oracles concurrently, for DBMSs that support it (DuckDB, PostgreSQL, SQLite, TiDB, MySQL, and MariaDB); 0 executes them one after another on the thread's own connection")
+    private int tlpSiblingConnections;
+
+    @Parameter(names = "--dqp-sibling-connections", description = "The number of additional connections to the same database on which each thread executes the hint and optimizer-setting variants of the DQP oracles concurrently, for DBMSs that support it (TiDB, MySQL, and MariaDB); 0 executes them one after another on the thread's own connection")
+    private int dqpSiblingConnections;
+
     public int getMaxExpressionDepth() {
         return maxExpressionDepth;
     }
@@ -159,6 +239,17 @@ public class MainOptions {
         return nrConcurrentThreads;
     }
 
+    public ExecutorKind getExecutorKind() {
+        return executorKind;
+    }
+
+    public int getMaxConcurrentConnections() {
+        if (maxConcurrentConnections == -1) {
+            return nrConcurrentThreads;
+        }
+        return maxConcurrentConnections;
+    }
+
     public boolean logEachSelect() {
         return logEachSelect;
     }
@@ -184,6 +275,54 @@ public class MainOptions {
         return logExecutionTime;
     }
 
+    public boolean binaryStatementLog() {
+        return binaryStatementLog;
+    }
+
+    public int getMaxStatementsInMemory() {
+        return maxStatementsInMemory;
+    }
+
+    public boolean reuseStatements() {
+        return reuseStatements;
+    }
+
+    public int getPreparedStatementCacheSize() {
+        return preparedStatementCacheSize;
+    }
+
+    public boolean poolConnections() {
+        return poolConnections;
+    }
+
+    public boolean incrementalSchemaUpdates() {
+        return incrementalSchemaUpdates;
+    }
+
+    public boolean verifySchemaDeltas() {
+        return verifySchemaDeltas;
+    }
+
+    public boolean trackRowCounts() {
+        return trackRowCounts;
+    }
+
+    public boolean asyncLogging() {
+        return asyncLogging;
+    }
+
+    public int getAsyncLoggingFlushSize() {
+        return asyncLoggingFlushSize;
+    }
+
+    public long getAsyncLoggingFlushInterval() {
+        return asyncLoggingFlushInterval;
+    }
+
+    public boolean useAdaptiveActionSelection() {
+        return adaptiveActionSelection;
+    }
+
     public boolean loggerPrintFailed() {
         return loggerPrintFailed;
     }
@@ -204,6 +343,26 @@ public class MainOptions {
         return qpgk;
     }
 
+    public int getQPGSharedPlanCapacity() {
+        return qpgSharedPlanCapacity;
+    }
+
+    public int getQPGQueriesPerPlan() {
+        return qpgQueriesPerPlan;
+    }
+
+    public boolean useQPGIncrementalRecheck() {
+        return qpgIncrementalRecheck;
+    }
+
+    public int getQPGExplainBatchSize() {
+        return qpgExplainBatchSize;
+    }
+
+    public int getQPGRecheckConnections() {
+        return qpgRecheckConnections;
+    }
+
     public double getQPGProbability() {
         return qpgProbability;
     }
@@ -320,6 +479,14 @@ public class MainOptions {
         return maxStatementReduceTime;
     }
 
+    public int getStatementReducerThreads() {
+        return statementReducerThreads;
+    }
+
+    public boolean useStatementReducerCheckpoints() {
+        return statementReducerCheckpoints;
+    }
+
     public long getMaxASTReduceSteps() {
         return maxASTReduceSteps;
     }
@@ -336,4 +503,44 @@ public class MainOptions {
         return canonicalizeSqlString;
     }
 
+    public boolean compareAllColumns() {
+        return compareAllColumns;
+    }
+
+    public boolean useResultDigests() {
+        return useResultDigests;
+    }
+
+    public boolean useResultFingerprints() {
+        return useResultFingerprints;
+    }
+
+    public int getTLPSiblingConnections() {
+        return tlpSiblingConnections;
+    }
+
+    public int getDQPSiblingConnections() {
+        return dqpSiblingConnections;
+    }
+
+    public enum ExecutorKind {
+        PLATFORM, VIRTUAL
+    }
+
+    // a limit of 0 or less, apart from the default of -1, would block every thread when acquiring a connection
+    public static class ConnectionLimitValidator implements IParameterValidator {
+        @Override
+        public void validate(String name, String value) {
+            int limit;
+            try {
+                limit = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new ParameterException(name + " must be an integer, but was " + value, e);
+            }
+            if (limit < 1 && limit != -1) {
+                throw new ParameterException(name + " must be at least 1 (or -1), but was " + value);
+            }
+        }
+    }
+
 }
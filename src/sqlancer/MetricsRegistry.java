@@ -0,0 +1,129 @@
+package sqlancer;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the progress counters of all testing threads. The counters are backed by {@link LongAdder}s, which stripe
+ * updates across cells, so that threads incrementing them do not contend on a single memory location. Reading a counter
+ * sums up the cells without blocking the threads that update them; the result is thus a (slightly stale) snapshot,
+ * which is sufficient for progress reporting.
+ *
+ * In addition to the global totals, the registry keeps counters per thread, per test oracle, and per action.
+ */
+public final class MetricsRegistry {
+
+    public enum Counter {
+        QUERIES, DATABASES, SUCCESSFUL_ACTIONS, UNSUCCESSFUL_ACTIONS
+    }
+
+    private static final int NR_COUNTERS = Counter.values().length;
+
+    private final LongAdder[] totals = createAdders(NR_COUNTERS);
+    private final ConcurrentMap<String, LongAdder[]> threadCounters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> oracleQueryCounters = new ConcurrentHashMap<>();
+    // index 0 counts successful, index 1 unsuccessful executions of an action's statements
+    private final ConcurrentMap<String, LongAdder[]> actionCounters = new ConcurrentHashMap<>();
+    private final ThreadLocal<ThreadCounters> currentThreadCounters = new ThreadLocal<>();
+
+    private static final class ThreadCounters {
+
+        private final String threadName;
+        private final LongAdder[] counters;
+
+        // the adders are shared with the map of the thread counters, from which they are read
+        ThreadCounters(String threadName, ConcurrentMap<String, LongAdder[]> threadCounters) {
+            this.threadName = threadName;
+            this.counters = threadCounters.computeIfAbsent(threadName, name -> createAdders(NR_COUNTERS));
+        }
+    }
+
+    private static LongAdder[] createAdders(int nr) {
+        LongAdder[] adders = new LongAdder[nr];
+        for (int i = 0; i < nr; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    public void increment(Counter counter) {
+        totals[counter.ordinal()].increment();
+        getCurrentThreadCounters()[counter.ordinal()].increment();
+    }
+
+    /**
+     * Counts a query that was checked by the given test oracle.
+     *
+     * @param oracleName
+     *            the name of the test oracle that checked the query
+     */
+    public void incrementQueries(String oracleName) {
+        increment(Counter.QUERIES);
+        oracleQueryCounters.computeIfAbsent(oracleName, name -> new LongAdder()).increment();
+    }
+
+    /**
+     * Counts the outcome of a statement generated by the given action.
+     *
+     * @param actionName
+     *            the name of the action that generated the statement
+     * @param success
+     *            whether the DBMS successfully executed the statement
+     */
+    public void recordAction(String actionName, boolean success) {
+        actionCounters.computeIfAbsent(actionName, name -> createAdders(2))[success ? 0 : 1].increment();
+    }
+
+    public long get(Counter counter) {
+        return totals[counter.ordinal()].sum();
+    }
+
+    /**
+     * Gets the value of a counter per thread.
+     *
+     * @param counter
+     *            the counter
+     *
+     * @return a map from the thread name, which is the name of the database that the thread tests, to the value
+     */
+    public Map<String, Long> getThreadCounts(Counter counter) {
+        Map<String, Long> counts = new TreeMap<>();
+        threadCounters.forEach((name, counters) -> counts.put(name, counters[counter.ordinal()].sum()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    public Map<String, Long> getOracleQueryCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        oracleQueryCounters.forEach((name, counter) -> counts.put(name, counter.sum()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Gets the number of successful and unsuccessful statements per action.
+     *
+     * @return a map from the action name to a two-element array of the successful and unsuccessful statement counts
+     */
+    public Map<String, long[]> getActionCounts() {
+        Map<String, long[]> counts = new TreeMap<>();
+        actionCounters
+                .forEach((name, counters) -> counts.put(name, new long[] { counters[0].sum(), counters[1].sum() }));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    private LongAdder[] getCurrentThreadCounters() {
+        // threads are named after the database they test (see Main), and pool threads might be reused for another
+        // database, so the cached counters are only valid as long as the thread's name does not change
+        String threadName = Thread.currentThread().getName();
+        ThreadCounters cached = currentThreadCounters.get();
+        if (cached == null || !cached.threadName.equals(threadName)) {
+            cached = new ThreadCounters(threadName, threadCounters);
+            currentThreadCounters.set(cached);
+        }
+        return cached.counters;
+    }
+
+}
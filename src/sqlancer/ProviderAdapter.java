@@ -1,17 +1,26 @@
 package sqlancer;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import sqlancer.StateToReproduce.OracleRunReproductionState;
-import sqlancer.common.DBMSCommon;
 import sqlancer.common.oracle.CompositeTestOracle;
 import sqlancer.common.oracle.TestOracle;
+import sqlancer.common.query.Query;
 import sqlancer.common.schema.AbstractSchema;
+import sqlancer.common.schema.AbstractTable;
+import sqlancer.common.schema.TableIndex;
+import sqlancer.qpg.MutatorRewards;
+import sqlancer.qpg.QueryPlanFingerprints;
+import sqlancer.qpg.QueryPlanStore;
 
 public abstract class ProviderAdapter<G extends GlobalState<O, ? extends AbstractSchema<G, ?>, C>, O extends DBMSSpecificOptions<? extends OracleFactory<G>>, C extends SQLancerDBConnection>
         implements DatabaseProvider<G, O, C> {
@@ -19,9 +28,15 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
     private final Class<G> globalClass;
     private final Class<O> optionClass;
 
-    // Variables for QPG
-    Map<String, String> queryPlanPool = new HashMap<>();
-    static double[] weightedAverageReward; // static variable for sharing across all threads
+    // Variables for QPG (a provider instance is used by a single thread)
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*");
+    QueryPlanStore queryPlanPool;
+    // maps the names of the tables, views, and indexes to the names of their tables, or null if not computed yet
+    Map<String, String> schemaObjects;
+    MutatorRewards weightedAverageReward; // shared across all threads
+    QueryPlanFingerprints sharedQueryPlans; // shared across all threads, or null if disabled
+    QPGRecheckConnections<G, O, C> recheckConnections; // null if the query plans are checked on a single connection
+    // the rewards of the queries since the last mutation, which are published to the shared rewards in one update
     int currentSelectRewards;
     int currentSelectCounts;
     int currentMutationOperator = -1;
@@ -52,6 +67,7 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
             generateDatabase(globalState);
             checkViewsAreValid(globalState);
             globalState.getManager().incrementCreateDatabase();
+            openSiblingConnections(globalState);
 
             TestOracle<G> oracle = getTestOracle(globalState);
             for (int i = 0; i < globalState.getOptions().getNrQueries(); i++) {
@@ -59,7 +75,7 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
                     assert localState != null;
                     try {
                         oracle.check();
-                        globalState.getManager().incrementSelectQueryCount();
+                        globalState.getManager().incrementSelectQueryCount(oracle);
                     } catch (IgnoreMeException ignored) {
                     } catch (AssertionError e) {
                         Reproducer<G> reproducer = oracle.getLastReproducer();
@@ -72,11 +88,34 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
                 }
             }
         } finally {
+            closeSiblingConnections(globalState);
             globalState.getConnection().close();
         }
         return null;
     }
 
+    private void openSiblingConnections(G globalState) throws Exception {
+        // the connections are shared by TLP and DQP, each of which uses at most as many as its option specifies
+        int nrSiblingConnections = Math.max(globalState.getOptions().getTLPSiblingConnections(),
+                globalState.getOptions().getDQPSiblingConnections());
+        if (nrSiblingConnections > 0) {
+            SiblingConnections<G, O, C> siblingConnections = new SiblingConnections<>(this, globalState,
+                    nrSiblingConnections);
+            if (siblingConnections.isSupported()) {
+                globalState.setSiblingConnections(siblingConnections);
+            } else {
+                siblingConnections.close();
+            }
+        }
+    }
+
+    private void closeSiblingConnections(G globalState) {
+        if (globalState.getSiblingConnections() != null) {
+            globalState.getSiblingConnections().close();
+            globalState.setSiblingConnections(null);
+        }
+    }
+
     protected abstract void checkViewsAreValid(G globalState) throws SQLException;
 
     protected TestOracle<G> getTestOracle(G globalState) throws Exception {
@@ -111,13 +150,26 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
     // QPG: entry function
     @Override
     public void generateAndTestDatabaseWithQueryPlanGuidance(G globalState) throws Exception {
-        if (weightedAverageReward == null) {
-            weightedAverageReward = initializeWeightedAverageReward(); // Same length as the list of mutators
+        // Same length as the list of mutators
+        weightedAverageReward = MutatorRewards.getInstance(getClass(), this::initializeWeightedAverageReward);
+        queryPlanPool = new QueryPlanStore(globalState.getOptions().getQPGQueriesPerPlan(), globalState.getRandomly());
+        int sharedQueryPlanCapacity = globalState.getOptions().getQPGSharedPlanCapacity();
+        if (sharedQueryPlanCapacity > 0) {
+            sharedQueryPlans = QueryPlanFingerprints.getInstance(getClass(), sharedQueryPlanCapacity);
         }
         try {
             generateDatabase(globalState);
             checkViewsAreValid(globalState);
             globalState.getManager().incrementCreateDatabase();
+            int nrRecheckConnections = globalState.getOptions().getQPGRecheckConnections();
+            if (nrRecheckConnections > 0) {
+                recheckConnections = new QPGRecheckConnections<>(this, globalState, nrRecheckConnections);
+                if (!recheckConnections.isSupported()) {
+                    recheckConnections.close();
+                    recheckConnections = null;
+                }
+            }
+            openSiblingConnections(globalState);
 
             Long executedQueryCount = 0L;
             while (executedQueryCount < globalState.getOptions().getNrQueries()) {
@@ -135,7 +187,7 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
                             } else {
                                 numOfNoNewQueryPlans++;
                             }
-                            globalState.getManager().incrementSelectQueryCount();
+                            globalState.getManager().incrementSelectQueryCount(oracle);
                         } catch (IgnoreMeException e) {
 
                         }
@@ -149,36 +201,52 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
                 }
             }
         } finally {
+            if (recheckConnections != null) {
+                recheckConnections.close();
+                recheckConnections = null;
+            }
+            closeSiblingConnections(globalState);
             globalState.getConnection().close();
         }
     }
 
     // QPG: mutate tables for a new database state
-    private synchronized boolean mutateTables(G globalState) throws Exception {
+    private boolean mutateTables(G globalState) throws Exception {
         // Update rewards based on a set of newly generated queries in last iteration
-        if (currentMutationOperator != -1) {
-            weightedAverageReward[currentMutationOperator] += ((double) currentSelectRewards
-                    / (double) currentSelectCounts) * globalState.getOptions().getQPGk();
+        if (currentMutationOperator != -1 && currentSelectCounts != 0) {
+            weightedAverageReward.add(currentMutationOperator,
+                    ((double) currentSelectRewards / (double) currentSelectCounts)
+                            * globalState.getOptions().getQPGk());
         }
         currentMutationOperator = -1;
 
         // Choose mutator based on the rewards
         int selectedActionIndex = 0;
         if (Randomly.getPercentage() < globalState.getOptions().getQPGProbability()) {
-            selectedActionIndex = globalState.getRandomly().getInteger(0, weightedAverageReward.length);
+            selectedActionIndex = globalState.getRandomly().getInteger(0, weightedAverageReward.getNrMutators());
         } else {
-            selectedActionIndex = DBMSCommon.getMaxIndexInDoubleArray(weightedAverageReward);
+            selectedActionIndex = weightedAverageReward.getBestMutator();
         }
         int reward = 0;
 
+        boolean incrementalRecheck = globalState.getOptions().useQPGIncrementalRecheck();
+        Map<String, String> schemaObjectsBeforeMutation = incrementalRecheck ? getSchemaObjects(globalState) : null;
+        int nrStatementsBeforeMutation = globalState.getState().getStatements().size();
         try {
             executeMutator(selectedActionIndex, globalState);
             checkViewsAreValid(globalState); // Remove the invalid views
-            reward = checkQueryPlan(globalState);
+            schemaObjects = null;
+            Set<String> changedTables = null;
+            if (incrementalRecheck) {
+                changedTables = getChangedTables(globalState, schemaObjectsBeforeMutation, nrStatementsBeforeMutation);
+            }
+            reward = checkQueryPlan(globalState, changedTables);
         } catch (IgnoreMeException | AssertionError e) {
         } finally {
+            schemaObjects = null;
             // Update rewards based on existing queries associated with the query plan pool
-            updateReward(selectedActionIndex, (double) reward / (double) queryPlanPool.size(), globalState);
+            updateReward(selectedActionIndex,
+                    queryPlanPool.isEmpty() ? 0.0 : (double) reward / (double) queryPlanPool.size(), globalState);
             currentMutationOperator = selectedActionIndex;
         }
 
@@ -197,42 +265,93 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
         }
 
         currentSelectCounts += 1;
-        if (queryPlanPool.containsKey(queryPlan)) {
+        if (queryPlan.isEmpty()) { // Invalid query
+            return false;
+        }
+        Set<String> tables = null;
+        if (globalState.getOptions().useQPGIncrementalRecheck()) {
+            tables = getTablesOfQuery(selectStr, globalState);
+        }
+        QueryPlanStore.Fingerprint fingerprint = queryPlanPool.add(queryPlan, selectStr, tables);
+        if (fingerprint == null || !isNewForAllThreads(fingerprint)) {
             return false;
-        } else {
-            queryPlanPool.put(queryPlan, selectStr);
-            currentSelectRewards += 1;
-            return true;
         }
+        currentSelectRewards += 1;
+        return true;
+    }
+
+    // QPG: returns false if another thread has already explored the query plan
+    private boolean isNewForAllThreads(QueryPlanStore.Fingerprint fingerprint) {
+        return sharedQueryPlans == null || sharedQueryPlans.add(fingerprint.getHigh());
     }
 
     // Obtain the reward of the current action based on the queries associated with the query plan pool
-    private int checkQueryPlan(G globalState) throws Exception {
-        int newQueryPlanFound = 0;
-        HashMap<String, String> modifiedQueryPlan = new HashMap<>();
-        for (Iterator<Map.Entry<String, String>> it = queryPlanPool.entrySet().iterator(); it.hasNext();) {
-            Map.Entry<String, String> item = it.next();
-            String queryPlan = item.getKey();
-            String selectStr = item.getValue();
-            String newQueryPlan = getQueryPlan(selectStr, globalState);
-            if (newQueryPlan.isEmpty()) { // Invalid query
-                it.remove();
-            } else if (!queryPlan.equals(newQueryPlan)) { // A query plan has been changed
-                it.remove();
-                modifiedQueryPlan.put(newQueryPlan, selectStr);
-                if (!queryPlanPool.containsKey(newQueryPlan)) { // A new query plan is found
-                    newQueryPlanFound++;
+    private int checkQueryPlan(G globalState, Set<String> changedTables) throws Exception {
+        QueryPlanStore.QueryPlanSupplier supplier;
+        if (recheckConnections != null && recheckConnections.canBeUsed()) {
+            supplier = recheckConnections.getSupplier();
+        } else {
+            supplier = selectStrs -> getQueryPlans(selectStrs, globalState);
+        }
+        return queryPlanPool.recheck(changedTables, supplier, this::isNewForAllThreads);
+    }
+
+    // QPG: the tables that a query refers to, or null if its query plan might change with any mutation
+    private Set<String> getTablesOfQuery(String selectStr, G globalState) {
+        Set<String> tables = getReferencedTables(selectStr, getSchemaObjects(globalState));
+        for (String table : tables) {
+            if (globalState.getSchema().getDatabaseTable(table).isView()) {
+                // the tables of the view are not known
+                return null;
+            }
+        }
+        return tables;
+    }
+
+    // QPG: the tables that the statements of the last mutation refer to, or null if all queries must be checked
+    private Set<String> getChangedTables(G globalState, Map<String, String> schemaObjectsBeforeMutation,
+            int nrStatementsBeforeMutation) {
+        // a mutation might have removed a table or index from the schema, or added one to it
+        Map<String, String> objects = new HashMap<>(schemaObjectsBeforeMutation);
+        objects.putAll(getSchemaObjects(globalState));
+        Set<String> changedTables = new HashSet<>();
+        List<Query<?>> statements = globalState.getState().getStatements();
+        for (int i = nrStatementsBeforeMutation; i < statements.size(); i++) {
+            changedTables.addAll(getReferencedTables(statements.get(i).getQueryString(), objects));
+        }
+        // for example, a failed statement is not logged, and ANALYZE might refer to no table
+        return changedTables.isEmpty() ? null : changedTables;
+    }
+
+    private Map<String, String> getSchemaObjects(G globalState) {
+        if (schemaObjects == null) {
+            schemaObjects = new HashMap<>();
+            for (AbstractTable<?, ?, ?> table : globalState.getSchema().getDatabaseTables()) {
+                for (TableIndex index : table.getIndexes()) {
+                    schemaObjects.put(index.getIndexName(), table.getName());
                 }
+                schemaObjects.put(table.getName(), table.getName());
+            }
+        }
+        return schemaObjects;
+    }
+
+    private static Set<String> getReferencedTables(String statement, Map<String, String> schemaObjects) {
+        Set<String> tables = new HashSet<>();
+        Matcher matcher = IDENTIFIER.matcher(statement);
+        while (matcher.find()) {
+            String table = schemaObjects.get(matcher.group());
+            if (table != null) {
+                tables.add(table);
             }
         }
-        queryPlanPool.putAll(modifiedQueryPlan);
-        return newQueryPlanFound;
+        return tables;
     }
 
     // QPG: update the reward of current action
     private void updateReward(int actionIndex, double reward, G globalState) {
-        weightedAverageReward[actionIndex] += (reward - weightedAverageReward[actionIndex])
-                * globalState.getOptions().getQPGk();
+        double k = globalState.getOptions().getQPGk();
+        weightedAverageReward.update(actionIndex, current -> current + (reward - current) * k);
     }
 
     // QPG: initialize the weighted average reward of all mutation operators (required implementation in specific DBMS)
@@ -245,6 +364,32 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
         throw new UnsupportedOperationException();
     }
 
+    // QPG: obtain the query plans of several queries (DBMS-specific implementations can fetch them in batches)
+    protected List<String> getQueryPlans(List<String> selectStrs, G globalState) throws Exception {
+        List<String> queryPlans = new ArrayList<>(selectStrs.size());
+        for (String selectStr : selectStrs) {
+            queryPlans.add(getQueryPlan(selectStr, globalState));
+        }
+        return queryPlans;
+    }
+
+    // open another connection to the database of the thread's state to check query plans (QPG) or execute the queries
+    // of TLP and DQP in parallel, or return null if not supported (optional implementation in specific DBMS)
+    protected C createAuxiliaryConnection(G globalState) throws Exception {
+        return null;
+    }
+
+    // whether the other connections see the same database state as the connection of the state, for example,
+    // because no transaction is open
+    protected boolean canUseAuxiliaryConnections(G globalState) throws Exception {
+        return true;
+    }
+
+    // whether the statement changes the state of the connection rather than the database
+    public boolean isConnectionStatement(Query<?> query) {
+        return false;
+    }
+
     // QPG: execute a mutation operator (required implementation in specific DBMS)
     protected void executeMutator(int index, G globalState) throws Exception {
         throw new UnsupportedOperationException();
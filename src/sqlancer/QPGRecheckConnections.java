@@ -0,0 +1,93 @@
+package sqlancer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import sqlancer.common.schema.AbstractSchema;
+import sqlancer.qpg.ParallelQueryPlanSupplier;
+import sqlancer.qpg.QueryPlanStore;
+
+/**
+ * The additional connections to the same database that a QPG thread uses to check in parallel whether the query plans
+ * in its query plan pool changed after a mutation (see {@link AuxiliaryConnections}). A connection might choose a
+ * different but equivalent query plan, for example, when two indexes have the same cost, so the query plans that differ
+ * from the stored ones are confirmed on the thread's connection.
+ *
+ * @param <G>
+ *            the global state type
+ * @param <O>
+ *            the DBMS-specific options type
+ * @param <C>
+ *            the connection type
+ */
+final class QPGRecheckConnections<G extends GlobalState<O, ? extends AbstractSchema<G, ?>, C>, O extends DBMSSpecificOptions<? extends OracleFactory<G>>, C extends SQLancerDBConnection>
+        implements AutoCloseable {
+
+    private final AuxiliaryConnections<G, O, C> connections;
+    private final ExecutorService executor;
+    private final ParallelQueryPlanSupplier supplier;
+
+    /**
+     * Opens the additional connections of a thread.
+     *
+     * @param provider
+     *            the provider of the thread
+     * @param globalState
+     *            the state of the thread
+     * @param nrConnections
+     *            the number of additional connections
+     *
+     * @throws Exception
+     *             if a connection cannot be opened
+     */
+    QPGRecheckConnections(ProviderAdapter<G, O, C> provider, G globalState, int nrConnections) throws Exception {
+        this.connections = new AuxiliaryConnections<>(provider, globalState, nrConnections, "_qpg");
+        List<QueryPlanStore.QueryPlanSupplier> suppliers = new ArrayList<>();
+        suppliers.add(queries -> provider.getQueryPlans(queries, globalState));
+        for (G auxiliaryState : connections.getStates()) {
+            suppliers.add(queries -> provider.getQueryPlans(queries, auxiliaryState));
+        }
+        this.executor = Executors.newFixedThreadPool(suppliers.size());
+        this.supplier = new ParallelQueryPlanSupplier(suppliers,
+                Math.max(1, globalState.getOptions().getQPGExplainBatchSize()), executor);
+    }
+
+    /**
+     * Returns whether the DBMS supports additional connections.
+     *
+     * @return false if no connection could be opened
+     */
+    boolean isSupported() {
+        return connections.isSupported();
+    }
+
+    /**
+     * Returns whether the additional connections currently see the same database state as the thread's connection.
+     *
+     * @return false if, for example, a transaction is open
+     */
+    boolean canBeUsed() {
+        return connections.canBeUsed();
+    }
+
+    /**
+     * Returns a supplier that explains the queries on the thread's connection and the additional connections.
+     *
+     * @return the supplier
+     */
+    QueryPlanStore.QueryPlanSupplier getSupplier() {
+        for (int i = 0; i < connections.getStates().size(); i++) {
+            connections.synchronize(i);
+        }
+        return supplier;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        connections.close();
+    }
+
+}
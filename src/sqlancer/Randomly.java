@@ -510,6 +510,10 @@ public final class Randomly {
         return getThreadRandom().get().nextDouble();
     }
 
+    public double getUniformDouble() {
+        return getThreadRandom().get().nextDouble();
+    }
+
     public String getChar() {
         while (true) {
             String s = getString();
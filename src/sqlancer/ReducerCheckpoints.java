@@ -0,0 +1,140 @@
+package sqlancer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+import sqlancer.common.query.Query;
+
+/**
+ * Manages the checkpoints of the {@link StatementReducer}. A checkpoint at position n contains the database after
+ * executing the first n statements of the statements that are currently known to reproduce the bug. As a candidate
+ * removes a part of these statements, the checkpoints before the removed part can be used for the candidate. The
+ * checkpoints after the removed part become invalid once the candidate is known to reproduce the bug.
+ *
+ * @param <G>
+ *            the global state type
+ * @param <C>
+ *            the connection type
+ */
+final class ReducerCheckpoints<G extends GlobalState<?, ?, C>, C extends SQLancerDBConnection> {
+
+    // bounds the disk space used for the checkpoints
+    private static final int MAX_CHECKPOINTS = 64;
+
+    private final CheckpointingProvider<G, C> provider;
+    private final Path directory;
+    private final int minDistance;
+    private final ConcurrentSkipListMap<Integer, File> checkpoints = new ConcurrentSkipListMap<>();
+
+    ReducerCheckpoints(CheckpointingProvider<G, C> provider, int nrStatements) throws IOException {
+        this.provider = provider;
+        this.directory = Files.createTempDirectory("sqlancer-reducer");
+        this.minDistance = Math.max(1, nrStatements / MAX_CHECKPOINTS);
+    }
+
+    /**
+     * Returns the latest checkpoint that can be used for a candidate whose first statements are unchanged.
+     *
+     * @param unchangedPrefix
+     *            the number of statements at the beginning of the candidate that are unchanged
+     *
+     * @return the checkpoint, or null if there is none
+     */
+    Map.Entry<Integer, File> getCheckpoint(int unchangedPrefix) {
+        return checkpoints.floorEntry(unchangedPrefix);
+    }
+
+    /**
+     * Restores a checkpoint.
+     *
+     * @param databaseProvider
+     *            the provider that creates the database of the global state, which differs from the provider of the
+     *            reducer for its workers
+     * @param globalState
+     *            the global state
+     * @param checkpoint
+     *            the checkpoint
+     *
+     * @return the connection to the restored database, or null if the checkpoint could not be restored
+     */
+    C restore(CheckpointingProvider<G, C> databaseProvider, G globalState, File checkpoint) {
+        try {
+            return databaseProvider.restoreCheckpoint(globalState, checkpoint);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    boolean isConnectionStatement(Query<?> query) {
+        return provider.isConnectionStatement(query);
+    }
+
+    /**
+     * Saves a checkpoint of the database of the global state, unless there is a checkpoint shortly before the position.
+     *
+     * @param databaseProvider
+     *            the provider that created the database of the global state
+     * @param globalState
+     *            the global state, whose database contains the first statements up to the position
+     * @param position
+     *            the number of statements that were executed
+     */
+    void save(CheckpointingProvider<G, C> databaseProvider, G globalState, int position) {
+        Integer previous = checkpoints.floorKey(position);
+        if (position - (previous == null ? 0 : previous) < minDistance) {
+            return;
+        }
+        // the database name is unique for each worker of the reducer
+        File checkpoint = directory.resolve(globalState.getDatabaseName() + "-" + position).toFile();
+        try {
+            if (!databaseProvider.saveCheckpoint(globalState, checkpoint)) {
+                delete(checkpoint);
+                return;
+            }
+        } catch (Exception e) {
+            delete(checkpoint);
+            return;
+        }
+        if (checkpoints.putIfAbsent(position, checkpoint) != null) {
+            delete(checkpoint);
+        }
+    }
+
+    /**
+     * Discards the checkpoints after the given position, as the statements after it changed.
+     *
+     * @param position
+     *            the number of statements that are unchanged
+     */
+    void invalidateAfter(int position) {
+        ConcurrentNavigableMap<Integer, File> invalidCheckpoints = checkpoints.tailMap(position, false);
+        for (File checkpoint : invalidCheckpoints.values()) {
+            delete(checkpoint);
+        }
+        invalidCheckpoints.clear();
+    }
+
+    void close() {
+        checkpoints.clear();
+        delete(directory.toFile());
+    }
+
+    private static void delete(File file) {
+        if (!file.exists()) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(file.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            // the checkpoint is only a temporary file
+        }
+    }
+
+}
@@ -0,0 +1,312 @@
+package sqlancer;
+
+import java.math.BigDecimal;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import sqlancer.common.query.SQLancerResultSet;
+
+/**
+ * A row of a result set whose values were read with the native JDBC getters of their column types. Integer and
+ * floating-point values are stored in a primitive array, and only the other values (strings, decimals, and binary
+ * strings) are stored as objects, so that reading a row does not box its numbers.
+ *
+ * Rows are compared column by column: integers and decimals exactly by their numeric value (so that, for example,
+ * {@code 1.0} and {@code 1} are equal), floating-point values with the tolerance of
+ * {@link ComparatorHelper#equals(double, double)}, binary strings by their bytes, and all other values as strings.
+ */
+public final class ResultRow {
+
+    /**
+     * Orders rows by their values, so that two sorted lists of rows can be compared pairwise.
+     */
+    public static final Comparator<ResultRow> ORDER = ResultRow::compare;
+
+    private static final Object NULL = new Object();
+
+    private enum Kind {
+        INTEGER, FLOATING, DECIMAL, BINARY, STRING
+    }
+
+    private final Kind[] kinds;
+    private final long[] primitives;
+    // the values of the columns that are not stored as primitives, or NULL
+    private final Object[] references;
+
+    private ResultRow(Kind[] kinds, long[] primitives, Object... references) {
+        this.kinds = kinds;
+        this.primitives = primitives;
+        this.references = references;
+    }
+
+    /**
+     * Reads the rows of a result set, using the getters that correspond to the types of its columns.
+     */
+    public static final class Codec {
+
+        private Kind[] kinds;
+        private boolean hasReferences;
+
+        private void initialize(SQLancerResultSet result) throws SQLException {
+            ResultSetMetaData metaData = result.getMetaData();
+            kinds = new Kind[metaData.getColumnCount()];
+            for (int i = 0; i < kinds.length; i++) {
+                kinds[i] = getKind(metaData.getColumnType(i + 1), metaData.isSigned(i + 1));
+                hasReferences |= kinds[i] != Kind.INTEGER && kinds[i] != Kind.FLOATING;
+            }
+        }
+
+        private static Kind getKind(int type, boolean signed) {
+            switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return Kind.INTEGER;
+            case Types.BIGINT:
+                // unsigned 64-bit integers do not fit into a long
+                return signed ? Kind.INTEGER : Kind.DECIMAL;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return Kind.FLOATING;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return Kind.DECIMAL;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return Kind.BINARY;
+            default:
+                return Kind.STRING;
+            }
+        }
+
+        /**
+         * Reads the current row of the result set.
+         *
+         * @param result
+         *            the result set, which must be the same for all rows that are read by this codec
+         *
+         * @return the row
+         *
+         * @throws SQLException
+         *             if a value cannot be read
+         */
+        public ResultRow read(SQLancerResultSet result) throws SQLException {
+            if (kinds == null) {
+                initialize(result);
+            }
+            long[] primitives = new long[kinds.length];
+            Object[] references = hasReferences ? new Object[kinds.length] : null;
+            for (int i = 0; i < kinds.length; i++) {
+                int column = i + 1;
+                try {
+                    switch (kinds[i]) {
+                    case INTEGER:
+                        primitives[i] = result.getLong(column);
+                        break;
+                    case FLOATING:
+                        primitives[i] = Double.doubleToLongBits(result.getDouble(column));
+                        break;
+                    case DECIMAL:
+                        references = set(references, i, result.getBigDecimal(column));
+                        break;
+                    case BINARY:
+                        references = set(references, i, result.getBytes(column));
+                        break;
+                    default:
+                        references = set(references, i, result.getString(column));
+                        break;
+                    }
+                    if (result.wasNull()) {
+                        references = set(references, i, NULL);
+                    }
+                } catch (SQLException e) {
+                    // for example, a NaN or infinite decimal or an integer that is out of range
+                    references = set(references, i, result.getString(column));
+                }
+            }
+            return new ResultRow(kinds, primitives, references);
+        }
+
+        private Object[] set(Object[] references, int i, Object value) {
+            Object[] result = references == null ? new Object[kinds.length] : references;
+            result[i] = value == null ? NULL : value;
+            return result;
+        }
+
+    }
+
+    public int getColumnCount() {
+        return kinds.length;
+    }
+
+    // the value of a column as Long, Double, BigDecimal, byte[], String, or NULL
+    private Object getValue(int i) {
+        if (references != null && references[i] != null) {
+            return references[i];
+        }
+        if (kinds[i] == Kind.FLOATING) {
+            return Double.longBitsToDouble(primitives[i]);
+        }
+        return primitives[i];
+    }
+
+    private boolean isNumber(int i) {
+        return references == null || references[i] == null || references[i] instanceof BigDecimal;
+    }
+
+    private double getDouble(int i) {
+        if (references != null && references[i] instanceof BigDecimal) {
+            return ((BigDecimal) references[i]).doubleValue();
+        }
+        return kinds[i] == Kind.FLOATING ? Double.longBitsToDouble(primitives[i]) : primitives[i];
+    }
+
+    private BigDecimal getBigDecimal(int i) {
+        if (references != null && references[i] instanceof BigDecimal) {
+            return (BigDecimal) references[i];
+        }
+        return BigDecimal.valueOf(primitives[i]);
+    }
+
+    private boolean isFloating(int i) {
+        return kinds[i] == Kind.FLOATING && (references == null || references[i] == null);
+    }
+
+    /**
+     * Checks whether two rows have the same values, allowing for small differences between floating-point values.
+     *
+     * @param other
+     *            the other row
+     *
+     * @return whether the rows match
+     */
+    public boolean matches(ResultRow other) {
+        if (kinds.length != other.kinds.length) {
+            return false;
+        }
+        for (int i = 0; i < kinds.length; i++) {
+            if (isNumber(i) && other.isNumber(i) && (isFloating(i) || other.isFloating(i))) {
+                double a = getDouble(i);
+                double b = other.getDouble(i);
+                if (Double.doubleToLongBits(a) != Double.doubleToLongBits(b) && !ComparatorHelper.equals(a, b)) {
+                    return false;
+                }
+            } else if (compareColumn(other, i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a column of the row holds a floating-point value, which {@link #matches(ResultRow)} compares with
+     * a tolerance.
+     *
+     * @param i
+     *            the index of the column
+     *
+     * @return false if the row has no such column
+     */
+    boolean isApproximate(int i) {
+        return i < kinds.length && isFloating(i);
+    }
+
+    /**
+     * Orders rows by their values like {@link #ORDER}, but regards all numbers in the given columns as equal. If the
+     * columns are those in which any of the compared rows is approximate (see {@link #isApproximate(int)}), rows that
+     * match are equal in this order, while rows that are equal in this order need not match.
+     *
+     * @param approximateColumns
+     *            whether the numbers in each column are regarded as equal
+     *
+     * @return the order
+     */
+    static Comparator<ResultRow> orderIgnoringNumbers(boolean... approximateColumns) {
+        return (first, second) -> {
+            int length = Math.min(first.kinds.length, second.kinds.length);
+            for (int i = 0; i < length; i++) {
+                boolean ignored = i < approximateColumns.length && approximateColumns[i] && first.isNumber(i)
+                        && second.isNumber(i);
+                int result = ignored ? 0 : first.compareColumn(second, i);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return Integer.compare(first.kinds.length, second.kinds.length);
+        };
+    }
+
+    private static int compare(ResultRow first, ResultRow second) {
+        int length = Math.min(first.kinds.length, second.kinds.length);
+        for (int i = 0; i < length; i++) {
+            int result = first.compareColumn(second, i);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(first.kinds.length, second.kinds.length);
+    }
+
+    private int compareColumn(ResultRow other, int i) {
+        if (isNumber(i) && other.isNumber(i)) {
+            if (isFloating(i) || other.isFloating(i)) {
+                return Double.compare(getDouble(i), other.getDouble(i));
+            } else if ((references == null || references[i] == null)
+                    && (other.references == null || other.references[i] == null)) {
+                return Long.compare(primitives[i], other.primitives[i]);
+            }
+            return getBigDecimal(i).compareTo(other.getBigDecimal(i));
+        }
+        Object a = isNumber(i) ? null : references[i];
+        Object b = other.isNumber(i) ? null : other.references[i];
+        int rank = Integer.compare(getRank(a), getRank(b));
+        if (rank != 0 || a == NULL) {
+            return rank;
+        } else if (a instanceof byte[]) {
+            return Arrays.compare((byte[]) a, (byte[]) b);
+        } else {
+            return ((String) a).compareTo((String) b);
+        }
+    }
+
+    // numbers are represented by null
+    private static int getRank(Object value) {
+        if (value == NULL) {
+            return 0;
+        } else if (value == null) {
+            return 1;
+        } else if (value instanceof String) {
+            return 2;
+        } else {
+            return 3;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("(");
+        for (int i = 0; i < kinds.length; i++) {
+            if (i != 0) {
+                sb.append(", ");
+            }
+            Object value = getValue(i);
+            if (value == NULL) {
+                sb.append("NULL");
+            } else if (value instanceof byte[]) {
+                sb.append(Arrays.toString((byte[]) value));
+            } else if (value instanceof BigDecimal) {
+                sb.append(((BigDecimal) value).toPlainString());
+            } else {
+                sb.append(value);
+            }
+        }
+        return sb.append(')').toString();
+    }
+
+}
@@ -0,0 +1,124 @@
+package sqlancer;
+
+import java.util.Collections;
+import java.util.List;
+
+import sqlancer.common.DBMSCommon;
+import sqlancer.common.query.ExpectedErrors;
+
+/**
+ * An order-insensitive digest of the multiset of values in the first column of one or more result sets. Two digests
+ * match if they contain the same number of rows and the same two commutative sums of independent 64-bit row hashes, so
+ * that result sets can be compared while they are streamed, without materializing them.
+ *
+ * Alternatively, a digest can consist of fingerprints that the DBMS computed (see
+ * {@link SQLGlobalState#getResultFingerprintQuery(String)}), so that the rows do not even have to be fetched. Such a
+ * digest only matches other fingerprints.
+ *
+ * A digest remembers how it was computed, so that {@link ComparatorHelper} can fetch the rows again to report the
+ * difference of two result sets whose digests do not match. Note that the rows that are fetched again need not be those
+ * from which the digest was computed: if a query returns nondeterministic results, the rows fetched again can match, so
+ * that the mismatch of the digests is not reported. Digests that keep their rows (see {@link #fromRows(List)}) are not
+ * affected.
+ */
+public final class ResultSetDigest {
+
+    private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+
+    private final List<String> queries;
+    private final ExpectedErrors errors;
+    private final List<String> rows;
+    private final boolean fingerprint;
+    private long count;
+    private long firstSum;
+    private long secondSum;
+
+    ResultSetDigest(List<String> queries, ExpectedErrors errors) {
+        this(queries, errors, null, false);
+    }
+
+    ResultSetDigest(List<String> queries, ExpectedErrors errors, List<String> rows, boolean fingerprint) {
+        this.queries = queries;
+        this.errors = errors;
+        this.rows = rows;
+        this.fingerprint = fingerprint;
+    }
+
+    private ResultSetDigest(List<String> rows) {
+        this(Collections.emptyList(), null, rows, false);
+        for (String row : rows) {
+            add(row);
+        }
+    }
+
+    /**
+     * Computes the digest of an already materialized result set, for example, of a result that is compared with the
+     * results of several other queries.
+     *
+     * @param rows
+     *            the values of the first column
+     *
+     * @return the digest, which keeps a reference to the rows
+     */
+    public static ResultSetDigest fromRows(List<String> rows) {
+        return new ResultSetDigest(rows);
+    }
+
+    void add(String value) {
+        count++;
+        if (value == null) {
+            firstSum += NULL_HASH;
+            secondSum += DBMSCommon.mixHash(NULL_HASH);
+            return;
+        }
+        long fnv = 0xCBF29CE484222325L;
+        long polynomial = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            fnv = (fnv ^ c) * 0x100000001B3L;
+            polynomial = polynomial * 0x5851F42D4C957F2DL + c;
+        }
+        firstSum += DBMSCommon.mixHash(fnv);
+        secondSum += DBMSCommon.mixHash(polynomial ^ 0xC2B2AE3D27D4EB4FL);
+    }
+
+    void addFingerprint(long nrRows, long first, long second) {
+        count += nrRows;
+        firstSum += first;
+        secondSum += second;
+    }
+
+    void add(ResultSetDigest other) {
+        addFingerprint(other.count, other.firstSum, other.secondSum);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Checks whether both digests were (with a high probability) computed from the same multiset of values.
+     *
+     * @param other
+     *            the other digest
+     *
+     * @return whether the digests match
+     */
+    public boolean matches(ResultSetDigest other) {
+        return fingerprint == other.fingerprint && count == other.count && firstSum == other.firstSum
+                && secondSum == other.secondSum;
+    }
+
+    List<String> getQueries() {
+        return queries;
+    }
+
+    ExpectedErrors getErrors() {
+        return errors;
+    }
+
+    List<String> getRows() {
+        return rows;
+    }
+
+}
@@ -2,12 +2,32 @@ package sqlancer;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class SQLConnection implements SQLancerDBConnection {
 
-    private final Connection connection;
+    private static final int MAX_IDLE_STATEMENTS = 4;
+
+    private Connection connection;
+
+    private Consumer<SQLConnection> recycler;
+    private boolean recycled;
+
+    private boolean statementCacheEnabled;
+    private int preparedStatementCacheSize;
+    private final Deque<Statement> idleStatements = new ArrayDeque<>();
+    // idle prepared statements by their SQL text, in least-recently-used order
+    private final Map<String, PreparedStatement> idlePreparedStatements = new LinkedHashMap<>(16, 0.75f, true);
 
     public SQLConnection(Connection connection) {
         this.connection = connection;
@@ -19,9 +39,87 @@ public class SQLConnection implements SQLancerDBConnection {
         return meta.getDatabaseProductVersion();
     }
 
+    /**
+     * Hands the connection to the given recycler when it is closed, instead of closing it. Closing the connection
+     * again, before {@link #reuse()} is called, has no effect.
+     *
+     * @param recycler
+     *            the recycler, for example, a connection pool, or null to close the connection when it is closed
+     */
+    public void setRecycler(Consumer<SQLConnection> recycler) {
+        this.recycler = recycler;
+    }
+
+    /**
+     * Marks a recycled connection as being in use again.
+     */
+    public void reuse() {
+        recycled = false;
+    }
+
     @Override
     public void close() throws SQLException {
-        connection.close();
+        if (recycler != null) {
+            if (!recycled) {
+                recycled = true;
+                invalidateStatementCache();
+                recycler.accept(this);
+            }
+            return;
+        }
+        disconnect();
+    }
+
+    /**
+     * Closes the JDBC connection and its cached statements, but keeps the settings of this connection, such as its
+     * recycler and whether statements are cached, so that it can continue with another JDBC connection using
+     * {@link #reconnect(Connection)}. For example, a PostgreSQL database can be copied only while no connection to it
+     * is open.
+     *
+     * @throws SQLException
+     *             if the JDBC connection cannot be closed
+     */
+    public void disconnect() throws SQLException {
+        try {
+            invalidateStatementCache();
+            List<Statement> statements = new ArrayList<>(idleStatements);
+            idleStatements.clear();
+            closeAll(statements);
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Continues with another JDBC connection after {@link #disconnect()}.
+     *
+     * @param connection
+     *            the new JDBC connection
+     */
+    public void reconnect(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Returns the JDBC connection as an instance of a driver-specific class, for example, to open another connection to
+     * the same in-process database. Unlike {@link Connection#unwrap(Class)}, this also works for drivers that do not
+     * implement it.
+     *
+     * @param <T>
+     *            the driver-specific class
+     * @param iface
+     *            the driver-specific class
+     *
+     * @return the JDBC connection, which must not be closed
+     *
+     * @throws SQLException
+     *             if the connection is not an instance of the class and cannot be unwrapped
+     */
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(connection)) {
+            return iface.cast(connection);
+        }
+        return connection.unwrap(iface);
     }
 
     public Statement prepareStatement(String arg) throws SQLException {
@@ -31,4 +129,132 @@ public class SQLConnection implements SQLancerDBConnection {
     public Statement createStatement() throws SQLException {
         return connection.createStatement();
     }
+
+    /**
+     * Enables reusing released statements instead of closing them. Plain statements are reused for any query, while
+     * prepared statements are cached by their SQL text, evicting the least-recently-used one when the cache is full.
+     *
+     * @param preparedStatementCacheSize
+     *            the maximum number of prepared statements that are cached
+     */
+    public void enableStatementCache(int preparedStatementCacheSize) {
+        this.statementCacheEnabled = true;
+        this.preparedStatementCacheSize = preparedStatementCacheSize;
+    }
+
+    /**
+     * Returns a statement that is exclusively used by the caller until it passes it to
+     * {@link #releaseStatement(Statement)}.
+     *
+     * @return an idle statement if the statement cache is enabled and contains one, or a new statement otherwise
+     *
+     * @throws SQLException
+     *             if creating the statement fails
+     */
+    public Statement acquireStatement() throws SQLException {
+        Statement s = idleStatements.pollFirst();
+        if (s == null) {
+            return connection.createStatement();
+        }
+        return s;
+    }
+
+    /**
+     * Releases a statement obtained by {@link #acquireStatement()}. If the statement cache is disabled, the statement
+     * is closed.
+     *
+     * @param s
+     *            the statement, of which no result set must be used anymore
+     *
+     * @throws SQLException
+     *             if closing the statement fails
+     */
+    public void releaseStatement(Statement s) throws SQLException {
+        if (statementCacheEnabled && idleStatements.size() < MAX_IDLE_STATEMENTS && !s.isClosed()) {
+            idleStatements.addFirst(s);
+        } else {
+            s.close();
+        }
+    }
+
+    /**
+     * Returns a prepared statement for the given SQL text that is exclusively used by the caller until it passes it to
+     * {@link #releasePreparedStatement(String, PreparedStatement)}.
+     *
+     * @param sql
+     *            the SQL text of the statement
+     *
+     * @return a cached prepared statement if the statement cache is enabled and contains one, or a new prepared
+     *         statement otherwise
+     *
+     * @throws SQLException
+     *             if preparing the statement fails
+     */
+    public PreparedStatement acquirePreparedStatement(String sql) throws SQLException {
+        PreparedStatement s = idlePreparedStatements.remove(sql);
+        if (s == null) {
+            return connection.prepareStatement(sql);
+        }
+        s.clearParameters();
+        return s;
+    }
+
+    /**
+     * Releases a prepared statement obtained by {@link #acquirePreparedStatement(String)}. If the statement cache is
+     * disabled, the statement is closed.
+     *
+     * @param sql
+     *            the SQL text of the statement
+     * @param s
+     *            the statement, of which no result set must be used anymore
+     *
+     * @throws SQLException
+     *             if closing a statement fails
+     */
+    public void releasePreparedStatement(String sql, PreparedStatement s) throws SQLException {
+        if (!statementCacheEnabled || preparedStatementCacheSize <= 0 || s.isClosed()) {
+            s.close();
+            return;
+        }
+        PreparedStatement replaced = idlePreparedStatements.put(sql, s);
+        if (replaced != null) {
+            replaced.close();
+        }
+        Iterator<PreparedStatement> it = idlePreparedStatements.values().iterator();
+        while (idlePreparedStatements.size() > preparedStatementCacheSize) {
+            PreparedStatement eldest = it.next();
+            it.remove();
+            eldest.close();
+        }
+    }
+
+    /**
+     * Closes all cached prepared statements. This must be called after executing a statement that could change the
+     * schema, as some DBMSs fail to execute prepared statements whose referenced tables were changed.
+     *
+     * @throws SQLException
+     *             if closing a statement fails
+     */
+    public void invalidateStatementCache() throws SQLException {
+        if (idlePreparedStatements.isEmpty()) {
+            return;
+        }
+        List<Statement> statements = new ArrayList<>(idlePreparedStatements.values());
+        idlePreparedStatements.clear();
+        closeAll(statements);
+    }
+
+    private static void closeAll(List<Statement> statements) throws SQLException {
+        SQLException exception = null;
+        for (Statement s : statements) {
+            try {
+                s.close();
+            } catch (SQLException e) {
+                exception = e;
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package sqlancer;
 
+import java.sql.SQLException;
+
 import sqlancer.common.query.Query;
 import sqlancer.common.schema.AbstractSchema;
 
@@ -23,8 +25,28 @@ public abstract class SQLGlobalState<O extends DBMSSpecificOptions<?>, S extends
         if (logExecutionTime) {
             getLogger().writeCurrent(" -- " + timer.end().asString());
         }
+        trackRowCounts(q, success);
         if (q.couldAffectSchema()) {
-            updateSchema();
+            updateSchemaAfter(q, success);
         }
     }
+
+    /**
+     * Returns a query that computes an order-insensitive fingerprint of the result set of the given query on the DBMS,
+     * so that the results of two queries can be compared without fetching their rows (see {@link ResultSetDigest}). The
+     * fingerprint query must return a single row with the number of rows in its first column, and at most two integers,
+     * such as sums of row hashes, in the following columns. Integers of several fingerprints are added, so that the
+     * fingerprints of the queries of a partition can be combined.
+     *
+     * @param queryString
+     *            the query, without a terminating semicolon
+     *
+     * @return the fingerprint query, or null if the DBMS does not support fingerprints
+     *
+     * @throws SQLException
+     *             if the DBMS cannot be queried to build the fingerprint query
+     */
+    public String getResultFingerprintQuery(String queryString) throws SQLException {
+        return null;
+    }
 }
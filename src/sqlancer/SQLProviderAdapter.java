@@ -1,19 +1,234 @@
 package sqlancer;
 
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import sqlancer.common.log.LoggableFactory;
 import sqlancer.common.log.SQLLoggableFactory;
 import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.common.query.SQLancerResultSet;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTable;
 
 public abstract class SQLProviderAdapter<G extends SQLGlobalState<O, ? extends AbstractSchema<G, ?>>, O extends DBMSSpecificOptions<? extends OracleFactory<G>>>
         extends ProviderAdapter<G, O, SQLConnection> {
+
+    // Variables for connection pooling (see MainOptions#poolConnections), shared across all threads
+    private static final Map<String, SQLConnection> CONNECTION_POOL = new ConcurrentHashMap<>();
+
     protected SQLProviderAdapter(Class<G> globalClass, Class<O> optionClass) {
         super(globalClass, optionClass);
     }
 
+    /**
+     * Takes the connection that a previous run on the same database returned to the connection pool, and resets the
+     * database using {@link #resetPooledDatabase(SQLGlobalState, SQLConnection)}.
+     *
+     * @param globalState
+     *            the state of the current run
+     *
+     * @return the connection to the reset database, or null if connection pooling is disabled or unsupported, there is
+     *         no pooled connection, or the database cannot be reused
+     */
+    protected SQLConnection takePooledConnection(G globalState) {
+        if (!isConnectionPoolingEnabled(globalState)) {
+            return null;
+        }
+        SQLConnection con = CONNECTION_POOL.remove(getPoolKey(globalState));
+        if (con == null) {
+            return null;
+        }
+        con.reuse();
+        try {
+            if (resetPooledDatabase(globalState, con)) {
+                return con;
+            }
+        } catch (SQLException e) {
+            // for example, the server was restarted
+        }
+        // a new database is created instead
+        closePooledConnection(con);
+        return null;
+    }
+
+    /**
+     * Closes the connection to the database of the global state that was returned to the connection pool, if any, for
+     * example, before the database is dropped.
+     *
+     * @param globalState
+     *            the state whose database is no longer needed
+     */
+    protected void closePooledConnection(G globalState) {
+        SQLConnection con = CONNECTION_POOL.remove(getPoolKey(globalState));
+        if (con != null) {
+            closePooledConnection(con);
+        }
+    }
+
+    private static void closePooledConnection(SQLConnection con) {
+        con.setRecycler(null);
+        try {
+            con.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /**
+     * Returns the connection to the connection pool when it is closed, if connection pooling is enabled.
+     *
+     * @param globalState
+     *            the state of the current run
+     * @param con
+     *            a connection to a newly-created database
+     *
+     * @return the connection
+     */
+    protected SQLConnection makePoolable(G globalState, SQLConnection con) {
+        if (isConnectionPoolingEnabled(globalState)) {
+            String key = getPoolKey(globalState);
+            con.setRecycler(c -> {
+                SQLConnection previous = CONNECTION_POOL.put(key, c);
+                if (previous != null && previous != c) {
+                    // for example, a connection created by the reducer
+                    closePooledConnection(previous);
+                }
+            });
+        }
+        return con;
+    }
+
+    private String getPoolKey(G globalState) {
+        return getDBMSName() + "/" + globalState.getDatabaseName();
+    }
+
+    private boolean isConnectionPoolingEnabled(G globalState) {
+        return globalState.getOptions().poolConnections() && supportsConnectionPooling();
+    }
+
+    /**
+     * Returns whether the provider can reset its databases using
+     * {@link #resetPooledDatabase(SQLGlobalState, SQLConnection)}, so that their connections can be returned to the
+     * connection pool (see {@link MainOptions#poolConnections()}). Providers that return true must override
+     * {@link #resetPooledDatabase(SQLGlobalState, SQLConnection)}.
+     *
+     * @return whether connection pooling is supported
+     */
+    protected boolean supportsConnectionPooling() {
+        return false;
+    }
+
+    /**
+     * Resets a database whose connection was taken from the connection pool to a state that is equivalent to a newly
+     * created database, and logs statements that create such a database. Only called if
+     * {@link #supportsConnectionPooling()} holds.
+     *
+     * @param globalState
+     *            the state of the current run
+     * @param con
+     *            the pooled connection
+     *
+     * @return false if the database cannot be reused, for example, because the current run chose other options for
+     *         creating it, in which case it is created anew
+     *
+     * @throws SQLException
+     *             if the database cannot be reset
+     */
+    protected boolean resetPooledDatabase(G globalState, SQLConnection con) throws SQLException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Obtains the query plan of a query from the result of its EXPLAIN statement (see
+     * {@link #getQueryPlansInBatches(List, SQLGlobalState, String, QueryPlanParser)}).
+     */
+    @FunctionalInterface
+    protected interface QueryPlanParser {
+        String parse(SQLancerResultSet rs) throws Exception;
+    }
+
+    /**
+     * Obtains the query plans of several queries with fewer round trips than {@link #getQueryPlan}. The EXPLAIN
+     * statements of up to {@link MainOptions#getQPGExplainBatchSize()} queries are sent to the DBMS as a single
+     * multi-statement string, which the JDBC driver must support. If a batch fails, for example, because one of its
+     * queries is invalid, the query plans of its queries are obtained one at a time using {@link #getQueryPlan}.
+     *
+     * @param selectStrs
+     *            the queries
+     * @param globalState
+     *            the state of the current run
+     * @param explainPrefix
+     *            the prefix that turns a query into its EXPLAIN statement
+     * @param parser
+     *            obtains the query plan from the result of an EXPLAIN statement, like {@link #getQueryPlan}
+     *
+     * @return the query plans, in the same order as the queries
+     *
+     * @throws Exception
+     *             if {@link #getQueryPlan} fails
+     */
+    protected List<String> getQueryPlansInBatches(List<String> selectStrs, G globalState, String explainPrefix,
+            QueryPlanParser parser) throws Exception {
+        int batchSize = Math.max(1, globalState.getOptions().getQPGExplainBatchSize());
+        List<String> queryPlans = new ArrayList<>(selectStrs.size());
+        for (int start = 0; start < selectStrs.size(); start += batchSize) {
+            List<String> batch = selectStrs.subList(start, Math.min(start + batchSize, selectStrs.size()));
+            List<String> batchQueryPlans = null;
+            if (batch.size() > 1) {
+                batchQueryPlans = explainBatch(batch, globalState, explainPrefix, parser);
+            }
+            if (batchQueryPlans == null) {
+                for (String selectStr : batch) {
+                    queryPlans.add(getQueryPlan(selectStr, globalState));
+                }
+            } else {
+                queryPlans.addAll(batchQueryPlans);
+            }
+        }
+        return queryPlans;
+    }
+
+    private static List<String> explainBatch(List<String> batch, SQLGlobalState<?, ?> globalState, String explainPrefix,
+            QueryPlanParser parser) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (String selectStr : batch) {
+            String explainQuery = explainPrefix + selectStr.trim().replaceAll(";+$", "");
+            if (globalState.getOptions().logEachSelect()) {
+                globalState.getLogger().writeCurrent(explainQuery);
+            }
+            sb.append(explainQuery).append(";\n");
+        }
+        if (globalState.getOptions().logEachSelect()) {
+            try {
+                globalState.getLogger().getCurrentFileWriter().flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        List<String> queryPlans = new ArrayList<>(batch.size());
+        try (Statement s = globalState.getConnection().createStatement()) {
+            boolean isResultSet = s.execute(sb.toString());
+            for (int i = 0; i < batch.size(); i++) {
+                if (!isResultSet) {
+                    return null;
+                }
+                // the statement is closed after all result sets were read
+                try (SQLancerResultSet rs = new SQLancerResultSet(s.getResultSet(), () -> {
+                })) {
+                    queryPlans.add(parser.parse(rs));
+                }
+                isResultSet = s.getMoreResults();
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+        return queryPlans;
+    }
+
     @Override
     public LoggableFactory getLoggableFactory() {
         return new SQLLoggableFactory();
@@ -0,0 +1,180 @@
+package sqlancer;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import sqlancer.common.schema.AbstractSchema;
+
+/**
+ * The additional connections to the same database on which a thread executes the queries of a test oracle concurrently,
+ * for example, the original and partitioning queries of TLP (see {@link ComparatorHelper#fetchConcurrently}) or the
+ * query variants of DQP (see {@link DQPExecutor}), so that the latency of a check drops to roughly that of its slowest
+ * query. The connections see only the committed state of the database (see {@link AuxiliaryConnections}), so the
+ * queries are executed on the thread's connection while, for example, a transaction is open. The connections need not
+ * be read-only, but only queries and changes of session settings (see {@link DQPExecutor}) are executed on them.
+ *
+ * @param <G>
+ *            the global state type
+ * @param <O>
+ *            the DBMS-specific options type
+ * @param <C>
+ *            the connection type
+ */
+final class SiblingConnections<G extends GlobalState<O, ? extends AbstractSchema<G, ?>, C>, O extends DBMSSpecificOptions<? extends OracleFactory<G>>, C extends SQLancerDBConnection>
+        implements AutoCloseable {
+
+    private final AuxiliaryConnections<G, O, C> connections;
+    private final G globalState;
+    private final ExecutorService executor;
+    // the indexes of the connections that are not used by a query
+    private final ConcurrentLinkedQueue<Integer> idleConnections = new ConcurrentLinkedQueue<>();
+    // whether the connections can be used, computed after the given number of statements of the thread
+    private int nrCheckedStatements = -1;
+    private boolean canBeUsed;
+
+    /**
+     * Opens the sibling connections of a thread.
+     *
+     * @param provider
+     *            the provider of the thread
+     * @param globalState
+     *            the state of the thread
+     * @param nrConnections
+     *            the number of sibling connections
+     *
+     * @throws Exception
+     *             if a connection cannot be opened
+     */
+    SiblingConnections(ProviderAdapter<G, O, C> provider, G globalState, int nrConnections) throws Exception {
+        this.connections = new AuxiliaryConnections<>(provider, globalState, nrConnections, "_sibling");
+        this.globalState = globalState;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, connections.getStates().size()));
+        for (int i = 0; i < connections.getStates().size(); i++) {
+            idleConnections.add(i);
+        }
+    }
+
+    /**
+     * Returns whether the DBMS supports sibling connections.
+     *
+     * @return false if no connection could be opened
+     */
+    boolean isSupported() {
+        return connections.isSupported();
+    }
+
+    /**
+     * Returns the number of results that {@link #fetchAll(List, int)} would currently fetch concurrently.
+     *
+     * @param maxSiblings
+     *            the maximum number of sibling connections that are used
+     *
+     * @return the number of idle sibling connections up to the maximum plus one for the connection of the thread, or 1
+     *         if the sibling connections cannot be used
+     */
+    int getParallelism(int maxSiblings) {
+        return canBeUsed() ? Math.min(idleConnections.size(), maxSiblings) + 1 : 1;
+    }
+
+    private boolean canBeUsed() {
+        int nrStatements = globalState.getState().getStatements().size();
+        if (nrStatements != nrCheckedStatements) {
+            canBeUsed = connections.canBeUsed();
+            nrCheckedStatements = nrStatements;
+        }
+        return canBeUsed;
+    }
+
+    /**
+     * Fetches several results, each on an idle sibling connection if there is one, and otherwise on the connection of
+     * the thread. The last result is always fetched on the connection of the thread, which is meanwhile idle.
+     *
+     * @param <T>
+     *            the type of the results
+     * @param fetchers
+     *            fetch the results from a given state
+     * @param maxSiblings
+     *            the maximum number of sibling connections that are used, for example, that of the option of the test
+     *            oracle
+     *
+     * @return the results, in the same order as the fetchers
+     *
+     * @throws SQLException
+     *             the first exception in the order of the fetchers
+     */
+    <T> List<T> fetchAll(List<ComparatorHelper.ResultFetcher<T>> fetchers, int maxSiblings) throws SQLException {
+        boolean useSiblings = canBeUsed();
+        int nrUsedSiblings = 0;
+        List<Future<T>> futures = new ArrayList<>(fetchers.size());
+        for (int i = 0; i < fetchers.size(); i++) {
+            ComparatorHelper.ResultFetcher<T> fetcher = fetchers.get(i);
+            Integer index = useSiblings && i != fetchers.size() - 1 && nrUsedSiblings < maxSiblings
+                    ? idleConnections.poll() : null;
+            if (index == null) {
+                FutureTask<T> task = new FutureTask<>(() -> fetcher.fetch((SQLGlobalState<?, ?>) globalState));
+                task.run();
+                futures.add(task);
+            } else {
+                nrUsedSiblings++;
+                connections.synchronize(index);
+                SQLGlobalState<?, ?> siblingState = (SQLGlobalState<?, ?>) connections.getStates().get(index);
+                futures.add(executor.submit(() -> {
+                    try {
+                        return fetcher.fetch(siblingState);
+                    } finally {
+                        idleConnections.add(index);
+                    }
+                }));
+            }
+        }
+        return join(futures);
+    }
+
+    private static <T> List<T> join(List<Future<T>> futures) throws SQLException {
+        List<T> results = new ArrayList<>(futures.size());
+        Throwable failure = null;
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IgnoreMeException();
+            }
+        }
+        if (failure instanceof SQLException) {
+            throw (SQLException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new AssertionError(failure);
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            // a query of a check that was interrupted might still be executed on a connection
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        connections.close();
+    }
+
+}
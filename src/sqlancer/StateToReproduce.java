@@ -1,10 +1,12 @@
 package sqlancer;
 
 import java.io.Closeable;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import sqlancer.common.log.StatementLogWriter;
 import sqlancer.common.query.Query;
 
 public class StateToReproduce {
@@ -23,6 +25,8 @@ public class StateToReproduce {
 
     public OracleRunReproductionState localState;
 
+    private StatementLogWriter statementLog;
+
     public StateToReproduce(String databaseName, DatabaseProvider<?, ?, ?> databaseProvider) {
         this.databaseName = databaseName;
         this.databaseProvider = databaseProvider;
@@ -64,6 +68,28 @@ public class StateToReproduce {
             throw new IllegalArgumentException();
         }
         statements.add(query);
+        writeToStatementLog(query);
+    }
+
+    /**
+     * Sets a binary log into which all subsequently logged statements are streamed.
+     *
+     * @param statementLog
+     *            the binary log, or null to stop streaming statements
+     */
+    public void setStatementLog(StatementLogWriter statementLog) {
+        this.statementLog = statementLog;
+    }
+
+    private void writeToStatementLog(Query<?> query) {
+        if (statementLog != null) {
+            try {
+                statementLog.write(databaseProvider.getLoggableFactory()
+                        .createLoggableWithNoLinebreak(query.getLogString()).getLogString());
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
     }
 
     public List<Query<?>> getStatements() {
@@ -121,6 +147,9 @@ public class StateToReproduce {
         public void close() {
             if (!success) {
                 StateToReproduce.this.statements.addAll(statements);
+                for (Query<?> query : statements) {
+                    writeToStatementLog(query);
+                }
             }
 
         }
@@ -132,7 +161,37 @@ public class StateToReproduce {
     }
 
     public void setStatements(List<Query<?>> statements) {
+        closeStatementHistory();
         this.statements = statements;
     }
 
+    /**
+     * Keeps only the given number of the most recent statements in memory, and spills older statements to a temporary
+     * file.
+     *
+     * @param maxStatementsInMemory
+     *            the maximum number of statements that are kept in memory
+     *
+     * @see StatementHistory
+     */
+    public void limitStatementsInMemory(int maxStatementsInMemory) {
+        StatementHistory history = new StatementHistory(databaseProvider.getLoggableFactory(), maxStatementsInMemory);
+        history.addAll(statements);
+        setStatements(history);
+    }
+
+    /**
+     * Deletes the temporary file to which statements might have been spilled (see
+     * {@link #limitStatementsInMemory(int)}). This must be called once the statements are no longer needed.
+     */
+    public void closeStatementHistory() {
+        if (statements instanceof StatementHistory) {
+            try {
+                ((StatementHistory) statements).close();
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
+    }
+
 }
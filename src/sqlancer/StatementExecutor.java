@@ -12,6 +12,9 @@ public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends Abstrac
     private final ActionMapper<G, A> mapping;
     private final AfterQueryAction queryConsumer;
 
+    // the factor by which the adaptive selection can increase the number of statements of an action
+    private static final int MAX_BOOST = 2;
+
     @FunctionalInterface
     public interface AfterQueryAction {
         void notify(Query<?> q) throws Exception;
@@ -29,8 +32,11 @@ public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends Abstrac
         this.queryConsumer = queryConsumer;
     }
 
-    @SuppressWarnings("unchecked")
     public void executeStatements() throws Exception {
+        if (globalState.getOptions().useAdaptiveActionSelection()) {
+            executeStatementsAdaptively();
+            return;
+        }
         Randomly r = globalState.getRandomly();
         int[] nrRemaining = new int[actions.length];
         List<A> availableActions = new ArrayList<>();
@@ -60,24 +66,87 @@ public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends Abstrac
             assert nextAction != null;
             assert nrRemaining[i] > 0;
             nrRemaining[i]--;
-            @SuppressWarnings("rawtypes")
-            Query query = null;
-            try {
-                boolean success;
-                int nrTries = 0;
-                do {
-                    query = nextAction.getQuery(globalState);
-                    success = globalState.executeStatement(query);
-                } while (nextAction.canBeRetried() && !success
-                        && nrTries++ < globalState.getOptions().getNrStatementRetryCount());
-            } catch (IgnoreMeException ignored) {
+            execute(nextAction, null, null);
+            total--;
+        }
+    }
+
+    /*
+     * Executes as many statements as the mapping determines, but chooses each action with a probability that is
+     * proportional to its number of statements and its weight (see ActionStatistics), so that the statements of actions
+     * that mostly fail are replaced by statements of other actions. An action is executed at most MAX_BOOST times as
+     * often as the mapping determines.
+     */
+    private void executeStatementsAdaptively() throws Exception {
+        Randomly r = globalState.getRandomly();
+        ActionStatistics statistics = ActionStatistics.getInstance(actions.getClass().getComponentType());
+        ActionStatistics.Arm[] arms = new ActionStatistics.Arm[actions.length];
+        int[] nrPlanned = new int[actions.length];
+        int[] nrRemaining = new int[actions.length];
+        int total = 0;
+        for (int i = 0; i < actions.length; i++) {
+            arms[i] = statistics.getArm(actions[i].toString());
+            nrPlanned[i] = mapping.map(globalState, actions[i]);
+            nrRemaining[i] = nrPlanned[i] * MAX_BOOST;
+            total += nrPlanned[i];
+        }
+        double[] weights = new double[actions.length];
+        for (; total != 0; total--) {
+            double totalWeight = 0;
+            for (int i = 0; i < actions.length; i++) {
+                double weight = nrRemaining[i] == 0 ? 0 : nrPlanned[i] * statistics.getWeight(arms[i]);
+                weights[i] = weight;
+                totalWeight += weight;
+            }
+            if (totalWeight == 0) {
+                break;
+            }
+            double selection = r.getUniformDouble() * totalWeight;
+            int nextAction = -1;
+            for (int i = 0; i < actions.length; i++) {
+                if (weights[i] != 0) {
+                    nextAction = i;
+                    if (selection < weights[i]) {
+                        break;
+                    }
+                    selection -= weights[i];
+                }
+            }
+            nrRemaining[nextAction]--;
+            execute(actions[nextAction], statistics, arms[nextAction]);
+        }
+    }
 
+    @SuppressWarnings("unchecked")
+    private void execute(A action, ActionStatistics statistics, ActionStatistics.Arm arm) throws Exception {
+        @SuppressWarnings("rawtypes")
+        Query query = null;
+        long start = 0;
+        try {
+            boolean success;
+            int nrTries = 0;
+            do {
+                start = System.nanoTime();
+                query = action.getQuery(globalState);
+                success = globalState.executeStatement(query);
+                Main.METRICS.recordAction(action.toString(), success);
+                if (statistics != null) {
+                    statistics.record(arm, success, System.nanoTime() - start);
+                }
+            } while (action.canBeRetried() && !success
+                    && nrTries++ < globalState.getOptions().getNrStatementRetryCount());
+        } catch (IgnoreMeException ignored) {
+            if (statistics != null) {
+                statistics.record(arm, false, System.nanoTime() - start);
             }
             if (query != null && query.couldAffectSchema()) {
-                globalState.updateSchema();
-                queryConsumer.notify(query);
+                // the schema was not updated after the ignored query, so it is read again or, with
+                // --incremental-schema-updates, marked as outdated
+                globalState.updateSchemaAfter(query, false);
             }
-            total--;
+        }
+        if (query != null && query.couldAffectSchema()) {
+            queryConsumer.notify(query);
         }
     }
 }
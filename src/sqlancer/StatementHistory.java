@@ -0,0 +1,235 @@
+package sqlancer;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+
+import sqlancer.common.log.LoggableFactory;
+import sqlancer.common.query.Query;
+
+/**
+ * A list of the statements executed on a database that keeps only the most recent statements in memory. When the
+ * in-memory window is full, the oldest statement is spilled to a memory-mapped temporary file, so that the heap usage
+ * stays constant however many statements are executed. Spilled statements are transparently read back when they are
+ * accessed, which allows the reducers and the logger to process the full sequence.
+ *
+ * A spilled statement is stored as its query string together with whether it could affect the schema, and is read back
+ * as the query created by {@link LoggableFactory#getQueryForStateToReproduce(String, boolean)}. Its expected errors are
+ * not preserved, as they are not needed to reproduce a bug.
+ */
+public class StatementHistory extends AbstractList<Query<?>> implements Closeable {
+
+    private static final int MAPPED_REGION_SIZE = 16 * 1024 * 1024;
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + 1;
+
+    private final LoggableFactory loggableFactory;
+
+    // the most recent statements, in a circular buffer
+    private final Query<?>[] window;
+    private int windowStart;
+    private int windowSize;
+
+    private int nrSpilledStatements;
+    private MappedFile spilledData;
+    // the offset of each spilled statement in spilledData
+    private MappedFile spilledIndex;
+
+    public StatementHistory(LoggableFactory loggableFactory, int maxStatementsInMemory) {
+        if (maxStatementsInMemory <= 0) {
+            throw new IllegalArgumentException(String.valueOf(maxStatementsInMemory));
+        }
+        this.loggableFactory = loggableFactory;
+        this.window = new Query<?>[maxStatementsInMemory];
+    }
+
+    @Override
+    public int size() {
+        return nrSpilledStatements + windowSize;
+    }
+
+    public int getNrSpilledStatements() {
+        return nrSpilledStatements;
+    }
+
+    @Override
+    public boolean add(Query<?> query) {
+        if (windowSize == window.length) {
+            spill(window[windowStart]);
+            window[windowStart] = query;
+            windowStart = (windowStart + 1) % window.length;
+        } else {
+            window[(windowStart + windowSize) % window.length] = query;
+            windowSize++;
+        }
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public Query<?> get(int index) {
+        checkIndex(index);
+        if (index < nrSpilledStatements) {
+            try {
+                return readSpilled(index);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
+        return window[windowIndex(index)];
+    }
+
+    @Override
+    public Query<?> set(int index, Query<?> query) {
+        Query<?> previous = get(index);
+        if (index < nrSpilledStatements) {
+            try {
+                long offset = writeSpilledData(query);
+                spilledIndex.writeLong((long) index * Long.BYTES, offset);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        } else {
+            window[windowIndex(index)] = query;
+        }
+        return previous;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+    private int windowIndex(int index) {
+        return (windowStart + index - nrSpilledStatements) % window.length;
+    }
+
+    private void spill(Query<?> query) {
+        try {
+            if (spilledData == null) {
+                spilledData = new MappedFile();
+                spilledIndex = new MappedFile();
+            }
+            long offset = writeSpilledData(query);
+            ByteBuffer entry = ByteBuffer.allocate(Long.BYTES).putLong(0, offset);
+            spilledIndex.append(entry);
+            nrSpilledStatements++;
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private long writeSpilledData(Query<?> query) throws IOException {
+        byte[] queryString = query.getQueryString().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + queryString.length);
+        record.putInt(queryString.length);
+        record.put((byte) (query.couldAffectSchema() ? 1 : 0));
+        record.put(queryString);
+        record.flip();
+        return spilledData.append(record);
+    }
+
+    private Query<?> readSpilled(int index) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(Long.BYTES);
+        spilledIndex.read((long) index * Long.BYTES, entry);
+        long offset = entry.getLong(0);
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        spilledData.read(offset, header);
+        int length = header.getInt(0);
+        boolean couldAffectSchema = header.get(Integer.BYTES) != 0;
+        ByteBuffer queryString = ByteBuffer.allocate(length);
+        spilledData.read(offset + RECORD_HEADER_SIZE, queryString);
+        return loggableFactory.getQueryForStateToReproduce(new String(queryString.array(), StandardCharsets.UTF_8),
+                couldAffectSchema);
+    }
+
+    /**
+     * Deletes the file to which statements have been spilled. The statements can no longer be accessed afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (spilledData != null) {
+                spilledData.close();
+            }
+        } finally {
+            if (spilledIndex != null) {
+                spilledIndex.close();
+            }
+        }
+    }
+
+    /**
+     * A temporary file that is appended to through a memory-mapped region, which is remapped when it is full. Reads go
+     * through the file channel, which shares the page cache with the mapping.
+     */
+    private static final class MappedFile implements Closeable {
+
+        private final FileChannel channel;
+        private MappedByteBuffer region;
+        private long regionStart;
+        private long size;
+
+        MappedFile() throws IOException {
+            Path path = Files.createTempFile("sqlancer-statements", ".tmp");
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        long append(ByteBuffer data) throws IOException {
+            long offset = size;
+            if (region == null || region.remaining() < data.remaining()) {
+                regionStart = size;
+                region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart,
+                        Math.max(MAPPED_REGION_SIZE, data.remaining()));
+            }
+            size += data.remaining();
+            region.put(data);
+            return offset;
+        }
+
+        void writeLong(long position, long value) throws IOException {
+            ByteBuffer data = ByteBuffer.allocate(Long.BYTES).putLong(0, value);
+            if (position >= regionStart) {
+                ByteBuffer target = region.duplicate();
+                target.position((int) (position - regionStart));
+                target.put(data);
+            } else {
+                while (data.hasRemaining()) {
+                    channel.write(data, position + data.position());
+                }
+            }
+        }
+
+        void read(long position, ByteBuffer target) throws IOException {
+            if (position >= regionStart && region != null) {
+                ByteBuffer source = region.duplicate();
+                source.position((int) (position - regionStart));
+                source.limit(source.position() + target.remaining());
+                target.put(source);
+            } else {
+                while (target.hasRemaining()) {
+                    if (channel.read(target, position + target.position()) < 0) {
+                        throw new EOFException();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            region = null;
+            channel.close();
+        }
+
+    }
+
+}
@@ -1,9 +1,19 @@
 package sqlancer;
 
+import java.io.File;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import sqlancer.common.query.Query;
 
@@ -21,6 +31,26 @@ public class StatementReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpec
 
     Instant timeOfReductionBegins;
 
+    // only used when the candidates are tested concurrently, each worker using its own database
+    private ExecutorService executor;
+    private List<Worker<G, O, C>> workers;
+    private BlockingQueue<Worker<G, O, C>> idleWorkers;
+    // only used when the databases can be restored from checkpoints
+    private ReducerCheckpoints<G, C> checkpoints;
+
+    // the state and the provider of a worker, as providers keep the details of the database that they created last
+    private static final class Worker<G extends GlobalState<O, ?, C>, O extends DBMSSpecificOptions<?>, C extends SQLancerDBConnection> {
+
+        private final G state;
+        private final DatabaseProvider<G, O, C> provider;
+
+        Worker(G state, DatabaseProvider<G, O, C> provider) {
+            this.state = state;
+            this.provider = provider;
+        }
+
+    }
+
     public StatementReducer(DatabaseProvider<G, O, C> provider) {
         this.provider = provider;
     }
@@ -58,19 +88,50 @@ public class StatementReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpec
         currentReduceTime = 0;
         partitionNum = 2;
 
-        while (knownToReproduceBugStatements.size() >= 2 && hasNotReachedLimit(currentReduceSteps, maxReduceSteps)
-                && hasNotReachedLimit(currentReduceTime, maxReduceTime)) {
-            observedChange = false;
+        if (state.getOptions().useStatementReducerCheckpoints() && provider instanceof CheckpointingProvider
+                && ((CheckpointingProvider<G, C>) provider).supportsCheckpoints(newGlobalState)) {
+            checkpoints = new ReducerCheckpoints<>((CheckpointingProvider<G, C>) provider,
+                    knownToReproduceBugStatements.size());
+        }
+        int nrThreads = state.getOptions().getStatementReducerThreads();
+        if (nrThreads > 1) {
+            executor = Executors.newFixedThreadPool(nrThreads);
+            workers = new ArrayList<>();
+            idleWorkers = new LinkedBlockingQueue<>();
+            for (int i = 0; i < nrThreads; i++) {
+                Worker<G, O, C> worker = createWorker(newGlobalState, i);
+                workers.add(worker);
+                idleWorkers.add(worker);
+            }
+        }
+        try {
+            while (knownToReproduceBugStatements.size() >= 2 && hasNotReachedLimit(currentReduceSteps, maxReduceSteps)
+                    && hasNotReachedLimit(currentReduceTime, maxReduceTime)) {
+                observedChange = false;
 
-            knownToReproduceBugStatements = tryReduction(state, reproducer, newGlobalState,
-                    knownToReproduceBugStatements);
+                if (executor == null) {
+                    knownToReproduceBugStatements = tryReduction(state, reproducer, newGlobalState,
+                            knownToReproduceBugStatements);
+                } else {
+                    knownToReproduceBugStatements = tryReductionConcurrently(reproducer, newGlobalState,
+                            knownToReproduceBugStatements);
+                }
 
-            if (!observedChange) {
-                if (partitionNum == knownToReproduceBugStatements.size()) {
-                    break;
+                if (!observedChange) {
+                    if (partitionNum == knownToReproduceBugStatements.size()) {
+                        break;
+                    }
+                    // increase the search granularity
+                    partitionNum = Math.min(partitionNum * 2, knownToReproduceBugStatements.size());
                 }
-                // increase the search granularity
-                partitionNum = Math.min(partitionNum * 2, knownToReproduceBugStatements.size());
+            }
+        } finally {
+            if (executor != null) {
+                closeWorkers();
+            }
+            if (checkpoints != null) {
+                checkpoints.close();
+                checkpoints = null;
             }
         }
 
@@ -91,35 +152,19 @@ public class StatementReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpec
         while (start < statements.size()) {
             // newStatements = candidate[:start] + candidate[start+subLength:]
             // in other word, remove [start, start+subLength) from candidates
-            try (C con2 = provider.createDatabase(newGlobalState)) {
-                newGlobalState.setConnection(con2);
-                List<Query<C>> candidateStatements = new ArrayList<>(statements);
-                int endPoint = Math.min(start + subLength, candidateStatements.size());
-                candidateStatements.subList(start, endPoint).clear();
-                newGlobalState.getState().setStatements(new ArrayList<>(candidateStatements));
-
-                for (Query<C> s : candidateStatements) {
-                    try {
-                        s.execute(newGlobalState);
-                    } catch (Throwable ignoredException) {
-                        // ignore
-                    }
+            List<Query<C>> candidateStatements = new ArrayList<>(statements);
+            int endPoint = Math.min(start + subLength, candidateStatements.size());
+            candidateStatements.subList(start, endPoint).clear();
+            if (bugStillTriggers(reproducer, provider, newGlobalState, candidateStatements, start)) {
+                observedChange = true;
+                statements = candidateStatements;
+                if (checkpoints != null) {
+                    checkpoints.invalidateAfter(start);
                 }
-                try {
-                    if (reproducer.bugStillTriggers(newGlobalState)) {
-                        observedChange = true;
-                        statements = candidateStatements;
-                        partitionNum = Math.max(partitionNum - 1, 2);
-                        // reproducer.outputHook((SQLite3GlobalState) newGlobalState);
-                        newGlobalState.getLogger().logReduced(newGlobalState.getState());
-                        break;
-
-                    }
-                } catch (Throwable ignoredException) {
-
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
+                partitionNum = Math.max(partitionNum - 1, 2);
+                // reproducer.outputHook((SQLite3GlobalState) newGlobalState);
+                newGlobalState.getLogger().logReduced(newGlobalState.getState());
+                break;
             }
 
             currentReduceSteps++;
@@ -135,6 +180,226 @@ public class StatementReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpec
         return statements;
     }
 
+    /**
+     * Tests the candidates of the current granularity level concurrently, each on the database of a worker. The
+     * candidate that is committed is the first one (in the order of {@link #tryReduction}) that still triggers the bug,
+     * so that the result does not depend on the scheduling of the workers. Candidates after a candidate that is known
+     * to trigger the bug are not tested anymore.
+     *
+     * @param reproducer
+     *            checks whether a candidate still triggers the bug
+     * @param newGlobalState
+     *            the state of the reducer, whose log is updated when a candidate is committed
+     * @param statements
+     *            the statements that are known to trigger the bug
+     *
+     * @return the committed candidate, or the given statements if no candidate triggers the bug
+     *
+     * @throws Exception
+     *             if a worker fails unexpectedly
+     */
+    private List<Query<C>> tryReductionConcurrently(Reproducer<G> reproducer, G newGlobalState,
+            List<Query<C>> statements) throws Exception {
+        int subLength = statements.size() / partitionNum;
+        List<List<Query<C>>> candidates = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        for (int start = 0; start < statements.size(); start += subLength) {
+            starts.add(start);
+            List<Query<C>> candidateStatements = new ArrayList<>(statements);
+            candidateStatements.subList(start, Math.min(start + subLength, candidateStatements.size())).clear();
+            candidates.add(candidateStatements);
+        }
+
+        AtomicInteger firstTriggeringCandidate = new AtomicInteger(candidates.size());
+        AtomicLong reduceSteps = new AtomicLong(currentReduceSteps);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            int candidateIndex = i;
+            results.add(executor.submit(() -> {
+                if (candidateIndex > firstTriggeringCandidate.get() || hasReachedLimit(reduceSteps.get())) {
+                    return null;
+                }
+                Worker<G, O, C> worker = idleWorkers.take();
+                try {
+                    boolean triggers = bugStillTriggers(reproducer, worker.provider, worker.state,
+                            candidates.get(candidateIndex), starts.get(candidateIndex));
+                    if (triggers) {
+                        firstTriggeringCandidate.accumulateAndGet(candidateIndex, Math::min);
+                    }
+                    return triggers;
+                } finally {
+                    reduceSteps.incrementAndGet();
+                    idleWorkers.put(worker);
+                }
+            }));
+        }
+
+        // wait for all candidates before committing one, as the workers must be idle before they can be reused, and
+        // a candidate that is still running might save a checkpoint that the commit invalidates
+        List<Boolean> triggered = new ArrayList<>();
+        for (Future<Boolean> result : results) {
+            triggered.add(result.get());
+        }
+        List<Query<C>> reducedStatements = statements;
+        for (int i = 0; i < triggered.size(); i++) {
+            Boolean triggers = triggered.get(i);
+            if (triggers == null) {
+                // a limit was reached before the candidate was tested
+                break;
+            } else if (triggers) {
+                observedChange = true;
+                reducedStatements = candidates.get(i);
+                if (checkpoints != null) {
+                    checkpoints.invalidateAfter(starts.get(i));
+                }
+                partitionNum = Math.max(partitionNum - 1, 2);
+                newGlobalState.getState().setStatements(new ArrayList<>(reducedStatements));
+                newGlobalState.getLogger().logReduced(newGlobalState.getState());
+                break;
+            }
+        }
+        currentReduceSteps = reduceSteps.get();
+        currentReduceTime = Duration.between(timeOfReductionBegins, Instant.now()).getSeconds();
+        return reducedStatements;
+    }
+
+    private boolean hasReachedLimit(long reduceSteps) {
+        long reduceTime = Duration.between(timeOfReductionBegins, Instant.now()).getSeconds();
+        return !hasNotReachedLimit(reduceSteps, maxReduceSteps) || !hasNotReachedLimit(reduceTime, maxReduceTime);
+    }
+
+    private boolean bugStillTriggers(Reproducer<G> reproducer, DatabaseProvider<G, O, C> databaseProvider,
+            G globalState, List<Query<C>> candidateStatements, int unchangedPrefix) {
+        try (C con2 = replay(databaseProvider, globalState, candidateStatements, unchangedPrefix)) {
+            try {
+                return reproducer.bugStillTriggers(globalState);
+            } catch (Throwable ignoredException) {
+
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Creates the database of the global state and executes the candidate statements on it. If checkpoints are used,
+     * the latest checkpoint within the unchanged prefix of the candidate is restored instead, and only the statements
+     * after it are executed. A checkpoint is then saved after the unchanged prefix, where the next candidate of the
+     * same granularity level starts to differ.
+     *
+     * @param databaseProvider
+     *            the provider that creates the database, which is that of the worker if candidates are tested
+     *            concurrently
+     * @param globalState
+     *            the state whose database is created
+     * @param candidateStatements
+     *            the statements of the candidate
+     * @param unchangedPrefix
+     *            the number of statements that the candidate has in common with the statements known to trigger the bug
+     *
+     * @return the connection to the database, which the caller must close
+     *
+     * @throws Exception
+     *             if the database cannot be created
+     */
+    @SuppressWarnings("unchecked")
+    private C replay(DatabaseProvider<G, O, C> databaseProvider, G globalState, List<Query<C>> candidateStatements,
+            int unchangedPrefix) throws Exception {
+        globalState.getState().setStatements(new ArrayList<>(candidateStatements));
+        C con = null;
+        int firstStatement = 0;
+        if (checkpoints != null) {
+            Map.Entry<Integer, File> checkpoint = checkpoints.getCheckpoint(unchangedPrefix);
+            if (checkpoint != null) {
+                con = checkpoints.restore((CheckpointingProvider<G, C>) databaseProvider, globalState,
+                        checkpoint.getValue());
+                if (con != null) {
+                    firstStatement = checkpoint.getKey();
+                }
+            }
+        }
+        if (con == null) {
+            con = databaseProvider.createDatabase(globalState);
+        }
+        globalState.setConnection(con);
+        for (int i = 0; i < firstStatement; i++) {
+            if (checkpoints.isConnectionStatement(candidateStatements.get(i))) {
+                execute(globalState, candidateStatements.get(i));
+            }
+        }
+        for (int i = firstStatement; i < candidateStatements.size(); i++) {
+            if (checkpoints != null && i == unchangedPrefix) {
+                checkpoints.save((CheckpointingProvider<G, C>) databaseProvider, globalState, i);
+            }
+            execute(globalState, candidateStatements.get(i));
+        }
+        return con;
+    }
+
+    private void execute(G globalState, Query<C> s) {
+        try {
+            s.execute(globalState);
+        } catch (Throwable ignoredException) {
+            // ignore
+        }
+    }
+
+    /**
+     * Creates a worker that tests candidates concurrently. Each worker uses its own provider and database, whose name
+     * is derived from the name of the database of the reducer.
+     *
+     * @param newGlobalState
+     *            the state of the reducer
+     * @param workerIndex
+     *            the index of the worker
+     *
+     * @return the worker
+     */
+    private Worker<G, O, C> createWorker(G newGlobalState, int workerIndex) {
+        G workerState;
+        DatabaseProvider<G, O, C> workerProvider;
+        String workerName = "reduce" + workerIndex;
+        try {
+            workerState = provider.getGlobalStateClass().getDeclaredConstructor().newInstance();
+            workerProvider = provider.createWorkerProvider(workerName);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+        String databaseName = newGlobalState.getDatabaseName() + "_" + workerName;
+        workerState.setState(provider.getStateToReproduce(databaseName));
+        // replaying the statements and checking the bug does not generate random values
+        workerState.setRandomly(newGlobalState.getRandomly());
+        workerState.setDatabaseName(databaseName);
+        workerState.setMainOptions(newGlobalState.getOptions());
+        workerState.setDbmsSpecificOptions(newGlobalState.getDbmsSpecificOptions());
+        workerState.setStateLogger(new Main.StateLogger(databaseName, workerProvider, newGlobalState.getOptions()));
+        workerState.setManager(new Main.QueryManager<>(workerState));
+        return new Worker<>(workerState, workerProvider);
+    }
+
+    // waits for the workers to become idle, as a worker might still test a candidate if a worker failed, and then
+    // closes their logs and drops their databases
+    private void closeWorkers() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Worker<G, O, C> worker : workers) {
+            worker.state.getLogger().close();
+            try {
+                worker.provider.dropDatabase(worker.state);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        executor = null;
+        workers = null;
+        idleWorkers = null;
+    }
+
     @SuppressWarnings("unused")
     private void printQueries(List<Query<C>> statements) {
         System.out.println("===============================");
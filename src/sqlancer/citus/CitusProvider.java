@@ -408,7 +408,7 @@ public class CitusProvider extends PostgresProvider {
     public SQLConnection createDatabase(PostgresGlobalState globalState) throws SQLException {
         synchronized (CitusProvider.class) {
             // returns connection to coordinator node, test database
-            SQLConnection con = super.createDatabase(globalState);
+            SQLConnection con = super.createFreshDatabase(globalState);
             String entryDatabaseName = entryPath.substring(1);
             int databaseIndex = entryURL.indexOf(entryPath) + 1;
             // add citus extension to coordinator node, test database
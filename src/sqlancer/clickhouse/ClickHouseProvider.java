@@ -83,6 +83,13 @@ public class ClickHouseProvider extends SQLProviderAdapter<ClickHouseGlobalState
         protected ClickHouseSchema readSchema() throws SQLException {
             return ClickHouseSchema.fromConnection(getConnection(), getDatabaseName());
         }
+
+        @Override
+        public String getResultFingerprintQuery(String queryString) {
+            // hashes the whole rows, as the columns of a subquery cannot be renamed; the string of the tuple is
+            // not NULL even if a value is NULL, and the sum wraps around
+            return "SELECT count(), sum(cityHash64(toString(tuple(*)))) FROM (" + queryString + ")";
+        }
     }
 
     @Override
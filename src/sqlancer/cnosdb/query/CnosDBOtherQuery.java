@@ -2,6 +2,8 @@ package sqlancer.cnosdb.query;
 
 import sqlancer.GlobalState;
 import sqlancer.IgnoreMeException;
+import sqlancer.Main;
+import sqlancer.MetricsRegistry.Counter;
 import sqlancer.cnosdb.client.CnosDBConnection;
 import sqlancer.common.query.ExpectedErrors;
 
@@ -20,7 +22,9 @@ public class CnosDBOtherQuery extends CnosDBQueryAdapter {
             throws Exception {
         try {
             globalState.getConnection().getClient().execute(query);
+            Main.METRICS.increment(Counter.SUCCESSFUL_ACTIONS);
         } catch (Exception e) {
+            Main.METRICS.increment(Counter.UNSUCCESSFUL_ACTIONS);
             if (this.errors.errorIsExpected(e.getMessage())) {
                 throw new IgnoreMeException();
             }
@@ -45,6 +45,8 @@ import sqlancer.common.query.SQLancerResultSet;
 @AutoService(DatabaseProvider.class)
 public class CockroachDBProvider extends SQLProviderAdapter<CockroachDBGlobalState, CockroachDBOptions> {
 
+    private static final String EXPLAIN = "EXPLAIN (OPT) ";
+
     public CockroachDBProvider() {
         super(CockroachDBGlobalState.class, CockroachDBOptions.class);
     }
@@ -302,7 +304,7 @@ public class CockroachDBProvider extends SQLProviderAdapter<CockroachDBGlobalSta
     @Override
     public String getQueryPlan(String selectStr, CockroachDBGlobalState globalState) throws Exception {
         String queryPlan = "";
-        String explainQuery = "EXPLAIN (OPT) " + selectStr;
+        String explainQuery = EXPLAIN + selectStr;
         if (globalState.getOptions().logEachSelect()) {
             globalState.getLogger().writeCurrent(explainQuery);
             try {
@@ -312,27 +314,9 @@ public class CockroachDBProvider extends SQLProviderAdapter<CockroachDBGlobalSta
             }
         }
         SQLQueryAdapter q = new SQLQueryAdapter(explainQuery);
-        boolean afterProjection = false; // Remove the concrete expression after each Projection operator
         try (SQLancerResultSet rs = q.executeAndGet(globalState)) {
             if (rs != null) {
-                while (rs.next()) {
-                    String targetQueryPlan = rs.getString(1).replace("└──", "").replace("├──", "").replace("│", "")
-                            .trim() + ";"; // Unify format
-                    if (afterProjection) {
-                        afterProjection = false;
-                        continue;
-                    }
-                    if (targetQueryPlan.startsWith("projections")) {
-                        afterProjection = true;
-                    }
-                    // Remove all concrete expressions by keywords
-                    if (targetQueryPlan.contains(">") || targetQueryPlan.contains("<") || targetQueryPlan.contains("=")
-                            || targetQueryPlan.contains("*") || targetQueryPlan.contains("+")
-                            || targetQueryPlan.contains("'")) {
-                        continue;
-                    }
-                    queryPlan += targetQueryPlan;
-                }
+                queryPlan = parseQueryPlan(rs);
             }
         } catch (AssertionError e) {
             throw new AssertionError("Explain failed: " + explainQuery);
@@ -341,6 +325,35 @@ public class CockroachDBProvider extends SQLProviderAdapter<CockroachDBGlobalSta
         return queryPlan;
     }
 
+    @Override
+    protected List<String> getQueryPlans(List<String> selectStrs, CockroachDBGlobalState globalState) throws Exception {
+        return getQueryPlansInBatches(selectStrs, globalState, EXPLAIN, CockroachDBProvider::parseQueryPlan);
+    }
+
+    private static String parseQueryPlan(SQLancerResultSet rs) throws SQLException {
+        String queryPlan = "";
+        boolean afterProjection = false; // Remove the concrete expression after each Projection operator
+        while (rs.next()) {
+            String targetQueryPlan = rs.getString(1).replace("└──", "").replace("├──", "").replace("│", "").trim()
+                    + ";"; // Unify format
+            if (afterProjection) {
+                afterProjection = false;
+                continue;
+            }
+            if (targetQueryPlan.startsWith("projections")) {
+                afterProjection = true;
+            }
+            // Remove all concrete expressions by keywords
+            if (targetQueryPlan.contains(">") || targetQueryPlan.contains("<") || targetQueryPlan.contains("=")
+                    || targetQueryPlan.contains("*") || targetQueryPlan.contains("+")
+                    || targetQueryPlan.contains("'")) {
+                continue;
+            }
+            queryPlan += targetQueryPlan;
+        }
+        return queryPlan;
+    }
+
     @Override
     protected double[] initializeWeightedAverageReward() {
         return new double[Action.values().length];
@@ -62,6 +62,25 @@ public final class DBMSCommon {
         return dp[list1.size()][list2.size()];
     }
 
+    /**
+     * Applies the finalization step of MurmurHash3 to a hash, so that all bits of the result depend on all bits of the
+     * hash, and sums or XORs of similar hashes do not cancel each other out.
+     *
+     * @param hash
+     *            the hash
+     *
+     * @return the mixed hash
+     */
+    public static long mixHash(long hash) {
+        long result = hash;
+        result ^= result >>> 33;
+        result *= 0xff51afd7ed558ccdL;
+        result ^= result >>> 33;
+        result *= 0xc4ceb9fe1a85ec53L;
+        result ^= result >>> 33;
+        return result;
+    }
+
     private static int costOfSubstitution(String string, String string2) {
         return string.equals(string2) ? 0 : 1;
     }
@@ -0,0 +1,252 @@
+package sqlancer.common.log;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link Writer} that buffers the log output of a single testing thread and leaves the file I/O to a single
+ * background thread that is shared by all writers. The buffered output is handed off to the background thread when it
+ * exceeds a size threshold, when it has been buffered for longer than the flush interval, and when {@link #flush()} is
+ * called. Handed-off chunks are kept in a bounded queue per writer; if the background thread falls behind, the writing
+ * thread blocks until there is space again.
+ *
+ * Unlike {@link #flush()}, {@link #sync()} waits until all output has reached the underlying writer. It must be called
+ * before logging information that must not get lost, for example, before an exception is logged.
+ */
+public final class AsyncLogWriter extends Writer {
+
+    private static final int MAX_PENDING_CHUNKS = 64;
+    private static final long FLUSHER_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long SHUTDOWN_SYNC_TIMEOUT_MILLIS = 5000;
+
+    private static final Set<AsyncLogWriter> OPEN_WRITERS = ConcurrentHashMap.newKeySet();
+    private static Thread flusherThread;
+
+    private final Writer out;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+
+    // all of the following fields are guarded by this writer's lock
+    private final StringBuilder buffer = new StringBuilder();
+    private long bufferStartNanos;
+    private final ArrayDeque<String> pendingChunks = new ArrayDeque<>();
+    private long nrHandedOffChunks;
+    private long nrWrittenChunks;
+    private boolean closed;
+
+    /**
+     * Creates a new asynchronous writer.
+     *
+     * @param out
+     *            the writer to which the background thread writes the buffered output
+     * @param flushSize
+     *            the number of buffered characters after which the output is handed off to the background thread
+     * @param flushIntervalMillis
+     *            the maximum time in milliseconds that output is buffered before it is handed off
+     */
+    public AsyncLogWriter(Writer out, int flushSize, long flushIntervalMillis) {
+        this.out = out;
+        this.flushSize = flushSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        startFlusherThread();
+        OPEN_WRITERS.add(this);
+    }
+
+    private static synchronized void startFlusherThread() {
+        if (flusherThread != null) {
+            return;
+        }
+        flusherThread = new Thread(AsyncLogWriter::runFlusher, "sqlancer-log-flusher");
+        flusherThread.setDaemon(true);
+        flusherThread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(AsyncLogWriter::syncAll));
+    }
+
+    private static void runFlusher() {
+        while (true) {
+            LockSupport.parkNanos(FLUSHER_TICK_NANOS);
+            long now = System.nanoTime();
+            for (AsyncLogWriter writer : OPEN_WRITERS) {
+                writer.writePendingChunks(now);
+            }
+        }
+    }
+
+    /**
+     * Hands off the output of all open writers and waits (for a bounded time) until it has been written. This is called
+     * when the JVM shuts down, so that, for example, a timeout does not discard the statements executed last.
+     */
+    private static void syncAll() {
+        for (AsyncLogWriter writer : OPEN_WRITERS) {
+            synchronized (writer) {
+                if (!writer.closed && writer.buffer.length() != 0) {
+                    writer.moveBufferToPendingChunks();
+                }
+            }
+        }
+        LockSupport.unpark(flusherThread);
+        long deadline = System.currentTimeMillis() + SHUTDOWN_SYNC_TIMEOUT_MILLIS;
+        for (AsyncLogWriter writer : OPEN_WRITERS) {
+            synchronized (writer) {
+                long remaining;
+                while (writer.nrWrittenChunks < writer.nrHandedOffChunks
+                        && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                    try {
+                        writer.wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void write(char[] cbuf, int off, int len) throws IOException {
+        ensureOpen();
+        startBufferIfEmpty();
+        buffer.append(cbuf, off, len);
+        handOffIfFull();
+    }
+
+    @Override
+    public synchronized void write(String str, int off, int len) throws IOException {
+        ensureOpen();
+        startBufferIfEmpty();
+        buffer.append(str, off, off + len);
+        handOffIfFull();
+    }
+
+    @Override
+    public synchronized Writer append(CharSequence csq) throws IOException {
+        ensureOpen();
+        startBufferIfEmpty();
+        buffer.append(csq);
+        handOffIfFull();
+        return this;
+    }
+
+    /**
+     * Hands off the buffered output to the background thread without waiting for it to be written.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        if (buffer.length() != 0) {
+            handOff();
+        }
+    }
+
+    /**
+     * Hands off the buffered output to the background thread and waits until it has been written.
+     *
+     * @throws IOException
+     *             if the writer has been closed, or the waiting thread is interrupted
+     */
+    public synchronized void sync() throws IOException {
+        flush();
+        long target = nrHandedOffChunks;
+        while (nrWrittenChunks < target) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            sync();
+            closed = true;
+        }
+        OPEN_WRITERS.remove(this);
+        out.close();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void startBufferIfEmpty() {
+        if (buffer.length() == 0) {
+            bufferStartNanos = System.nanoTime();
+        }
+    }
+
+    private void handOffIfFull() throws IOException {
+        if (buffer.length() >= flushSize) {
+            handOff();
+        }
+    }
+
+    private void handOff() throws IOException {
+        while (pendingChunks.size() >= MAX_PENDING_CHUNKS) {
+            LockSupport.unpark(flusherThread);
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        moveBufferToPendingChunks();
+        LockSupport.unpark(flusherThread);
+    }
+
+    private void moveBufferToPendingChunks() {
+        pendingChunks.add(buffer.toString());
+        buffer.setLength(0);
+        nrHandedOffChunks++;
+    }
+
+    // called only by the background thread, which is thus the only thread that writes to the underlying writer
+    private void writePendingChunks(long now) {
+        List<String> chunks;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (buffer.length() != 0 && now - bufferStartNanos >= flushIntervalNanos
+                    && pendingChunks.size() < MAX_PENDING_CHUNKS) {
+                moveBufferToPendingChunks();
+            }
+            if (pendingChunks.isEmpty()) {
+                return;
+            }
+            chunks = new ArrayList<>(pendingChunks);
+            pendingChunks.clear();
+            notifyAll();
+        }
+        try {
+            for (String chunk : chunks) {
+                out.write(chunk);
+            }
+            out.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            synchronized (this) {
+                nrWrittenChunks += chunks.size();
+                notifyAll();
+            }
+        }
+    }
+
+}
@@ -20,6 +20,10 @@ public abstract class LoggableFactory {
 
     public abstract Query<?> getQueryForStateToReproduce(String queryString);
 
+    public Query<?> getQueryForStateToReproduce(String queryString, boolean couldAffectSchema) {
+        return getQueryForStateToReproduce(queryString);
+    }
+
     @Deprecated
     public abstract Query<?> commentOutQuery(Query<?> query);
 
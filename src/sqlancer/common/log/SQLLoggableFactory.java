@@ -3,6 +3,7 @@ package sqlancer.common.log;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 
+import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLQueryAdapter;
 
@@ -27,6 +28,11 @@ public class SQLLoggableFactory extends LoggableFactory {
         return new SQLQueryAdapter(queryString);
     }
 
+    @Override
+    public SQLQueryAdapter getQueryForStateToReproduce(String queryString, boolean couldAffectSchema) {
+        return new SQLQueryAdapter(queryString, new ExpectedErrors(), couldAffectSchema, false);
+    }
+
     @Override
     public SQLQueryAdapter commentOutQuery(Query<?> query) {
         String queryString = query.getLogString();
@@ -0,0 +1,206 @@
+package sqlancer.common.log;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the statements of a binary log file written by {@link StatementLogWriter}. The block index is used to decode
+ * only the blocks that contain the requested statements. If the file has no index, because the process that wrote it
+ * terminated abruptly, the index is reconstructed by scanning the completely-written blocks.
+ *
+ * The class can also be used from the command line to convert a binary log back to SQL:
+ *
+ * <pre>
+ * java -cp sqlancer.jar sqlancer.common.log.StatementLogReader database0.sqllog [--last N]
+ * </pre>
+ */
+public class StatementLogReader implements Closeable {
+
+    private final RandomAccessFile file;
+    private final List<long[]> index = new ArrayList<>();
+    private long nrStatements;
+
+    public StatementLogReader(File file) throws IOException {
+        this.file = new RandomAccessFile(file, "r");
+        try {
+            byte[] magic = new byte[StatementLogWriter.HEADER_MAGIC.length];
+            this.file.readFully(magic);
+            if (!Arrays.equals(magic, StatementLogWriter.HEADER_MAGIC)) {
+                throw new IOException(file + " is not a SQLancer statement log");
+            }
+            int version = this.file.readInt();
+            if (version != StatementLogWriter.VERSION) {
+                throw new IOException("unsupported statement log version " + version);
+            }
+            if (!readIndex()) {
+                scanBlocks();
+            }
+        } catch (IOException e) {
+            this.file.close();
+            throw e;
+        }
+    }
+
+    private boolean readIndex() throws IOException {
+        long length = file.length();
+        if (length < StatementLogWriter.HEADER_SIZE + StatementLogWriter.TRAILER_SIZE) {
+            return false;
+        }
+        file.seek(length - StatementLogWriter.TRAILER_SIZE);
+        long indexOffset = file.readLong();
+        byte[] magic = new byte[StatementLogWriter.TRAILER_MAGIC.length];
+        file.readFully(magic);
+        if (!Arrays.equals(magic, StatementLogWriter.TRAILER_MAGIC) || indexOffset < StatementLogWriter.HEADER_SIZE
+                || indexOffset >= length) {
+            return false;
+        }
+        file.seek(indexOffset);
+        int nrBlocks = file.readInt();
+        for (int i = 0; i < nrBlocks; i++) {
+            index.add(new long[] { file.readLong(), file.readLong() });
+        }
+        if (nrBlocks == 0) {
+            nrStatements = 0;
+        } else {
+            long[] lastBlock = index.get(nrBlocks - 1);
+            file.seek(lastBlock[0]);
+            nrStatements = lastBlock[1] + file.readInt();
+        }
+        return true;
+    }
+
+    private void scanBlocks() throws IOException {
+        long length = file.length();
+        long offset = StatementLogWriter.HEADER_SIZE;
+        while (offset + 3 * Integer.BYTES <= length) {
+            file.seek(offset);
+            int nrBlockStatements = file.readInt();
+            file.readInt();
+            int compressedSize = file.readInt();
+            long nextOffset = offset + 3 * Integer.BYTES + compressedSize;
+            if (nrBlockStatements <= 0 || compressedSize < 0 || nextOffset > length) {
+                break; // the block was not completely written
+            }
+            index.add(new long[] { offset, nrStatements });
+            nrStatements += nrBlockStatements;
+            offset = nextOffset;
+        }
+    }
+
+    public long getNrStatements() {
+        return nrStatements;
+    }
+
+    /**
+     * Passes the statements with an index in the range [from, to) to the given consumer.
+     *
+     * @param from
+     *            the index of the first statement (inclusive)
+     * @param to
+     *            the index of the last statement (exclusive)
+     * @param consumer
+     *            the consumer of the statements
+     *
+     * @throws IOException
+     *             if reading the file fails
+     */
+    public void readStatements(long from, long to, Consumer<String> consumer) throws IOException {
+        for (int i = findBlock(from); i < index.size(); i++) {
+            long firstStatement = index.get(i)[1];
+            if (firstStatement >= to) {
+                break;
+            }
+            List<String> statements = readBlock(i);
+            for (int j = 0; j < statements.size(); j++) {
+                long statementIndex = firstStatement + j;
+                if (statementIndex >= from && statementIndex < to) {
+                    consumer.accept(statements.get(j));
+                }
+            }
+        }
+    }
+
+    public void readAllStatements(Consumer<String> consumer) throws IOException {
+        readStatements(0, nrStatements, consumer);
+    }
+
+    // binary search for the last block whose first statement is <= statementIndex
+    private int findBlock(long statementIndex) {
+        int low = 0;
+        int high = index.size() - 1;
+        int result = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (index.get(mid)[1] <= statementIndex) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    private List<String> readBlock(int blockIndex) throws IOException {
+        file.seek(index.get(blockIndex)[0]);
+        int nrBlockStatements = file.readInt();
+        int uncompressedSize = file.readInt();
+        int compressedSize = file.readInt();
+        byte[] compressed = new byte[compressedSize];
+        file.readFully(compressed);
+        byte[] uncompressed = new byte[uncompressedSize];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int size = 0;
+            while (size < uncompressedSize && !inflater.finished()) {
+                size += inflater.inflate(uncompressed, size, uncompressedSize - size);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(uncompressed);
+        List<String> statements = new ArrayList<>(nrBlockStatements);
+        for (int i = 0; i < nrBlockStatements; i++) {
+            int length = buffer.getInt();
+            statements.add(new String(uncompressed, buffer.position(), length, StandardCharsets.UTF_8));
+            buffer.position(buffer.position() + length);
+        }
+        return statements;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1 && !(args.length == 3 && args[1].equals("--last"))) {
+            System.err.println("Usage: StatementLogReader <file" + StatementLogWriter.FILE_EXTENSION + "> [--last N]");
+            System.exit(1);
+        }
+        PrintStream out = System.out;
+        try (StatementLogReader reader = new StatementLogReader(new File(args[0]))) {
+            long from = 0;
+            if (args.length == 3) {
+                from = Math.max(0, reader.getNrStatements() - Long.parseLong(args[2]));
+            }
+            reader.readStatements(from, reader.getNrStatements(), out::println);
+        }
+        out.flush();
+    }
+
+}
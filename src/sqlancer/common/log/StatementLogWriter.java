@@ -0,0 +1,152 @@
+package sqlancer.common.log;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Streams executed statements into a compact binary log file, as an alternative to rendering all statements as text
+ * when a bug is found. The statements are grouped into blocks, and each block is compressed individually. The file has
+ * the following layout (all numbers are big-endian):
+ *
+ * <pre>
+ * header:  magic (8 bytes "SQLNCLOG"), version (int)
+ * block*:  number of statements (int), uncompressed size (int), compressed size (int), deflated data
+ *          (the uncompressed data is a sequence of UTF-8 statements, each prefixed by its length as an int)
+ * index:   number of blocks (int), and for each block: file offset (long), index of its first statement (long)
+ * trailer: file offset of the index (long), magic (4 bytes "SQLX")
+ * </pre>
+ *
+ * The index and trailer are written by {@link #close()}. If the process terminates before, {@link StatementLogReader}
+ * can still recover all completely-written blocks by scanning the file.
+ */
+public class StatementLogWriter implements Closeable {
+
+    public static final String FILE_EXTENSION = ".sqllog";
+
+    static final byte[] HEADER_MAGIC = "SQLNCLOG".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] TRAILER_MAGIC = "SQLX".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = HEADER_MAGIC.length + Integer.BYTES;
+    static final int TRAILER_SIZE = Long.BYTES + TRAILER_MAGIC.length;
+
+    private static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+    private final int blockSize;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final ByteArrayOutputStream currentBlock = new ByteArrayOutputStream();
+    private final DataOutputStream currentBlockData = new DataOutputStream(currentBlock);
+    private byte[] compressionBuffer = new byte[0];
+    private int nrStatementsInCurrentBlock;
+    private long nrStatements;
+    private long offset;
+    private final List<long[]> index = new ArrayList<>();
+    private boolean closed;
+
+    public StatementLogWriter(File file) throws IOException {
+        this(file, DEFAULT_BLOCK_SIZE);
+    }
+
+    public StatementLogWriter(File file, int blockSize) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        this.blockSize = blockSize;
+        out.write(HEADER_MAGIC);
+        out.writeInt(VERSION);
+        out.flush();
+        offset = HEADER_SIZE;
+    }
+
+    public synchronized void write(String statement) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        byte[] bytes = statement.getBytes(StandardCharsets.UTF_8);
+        currentBlockData.writeInt(bytes.length);
+        currentBlockData.write(bytes);
+        nrStatementsInCurrentBlock++;
+        nrStatements++;
+        if (currentBlock.size() >= blockSize) {
+            writeCurrentBlock();
+        }
+    }
+
+    /**
+     * Compresses the statements that have not been written yet into a block, and writes it to the file.
+     *
+     * @throws IOException
+     *             if writing fails
+     */
+    public synchronized void flush() throws IOException {
+        if (nrStatementsInCurrentBlock != 0) {
+            writeCurrentBlock();
+        }
+    }
+
+    public synchronized long getNrStatements() {
+        return nrStatements;
+    }
+
+    private void writeCurrentBlock() throws IOException {
+        byte[] uncompressed = currentBlock.toByteArray();
+        deflater.reset();
+        deflater.setInput(uncompressed);
+        deflater.finish();
+        if (compressionBuffer.length < uncompressed.length + 64) {
+            compressionBuffer = new byte[uncompressed.length + 64];
+        }
+        int compressedSize = 0;
+        while (!deflater.finished()) {
+            if (compressedSize == compressionBuffer.length) {
+                byte[] larger = new byte[compressionBuffer.length * 2];
+                System.arraycopy(compressionBuffer, 0, larger, 0, compressedSize);
+                compressionBuffer = larger;
+            }
+            compressedSize += deflater.deflate(compressionBuffer, compressedSize,
+                    compressionBuffer.length - compressedSize);
+        }
+        index.add(new long[] { offset, nrStatements - nrStatementsInCurrentBlock });
+        out.writeInt(nrStatementsInCurrentBlock);
+        out.writeInt(uncompressed.length);
+        out.writeInt(compressedSize);
+        out.write(compressionBuffer, 0, compressedSize);
+        offset += 3 * Integer.BYTES + compressedSize;
+        currentBlock.reset();
+        nrStatementsInCurrentBlock = 0;
+        // make the completed block recoverable even if the process is killed
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (nrStatementsInCurrentBlock != 0) {
+                writeCurrentBlock();
+            }
+            long indexOffset = offset;
+            out.writeInt(index.size());
+            for (long[] entry : index) {
+                out.writeLong(entry[0]);
+                out.writeLong(entry[1]);
+            }
+            out.writeLong(indexOffset);
+            out.write(TRAILER_MAGIC);
+        } finally {
+            closed = true;
+            deflater.end();
+            out.close();
+        }
+    }
+
+}
@@ -7,24 +7,24 @@ import sqlancer.GlobalState;
 public class CompositeTestOracle<G extends GlobalState<?, ?, ?>> implements TestOracle<G> {
 
     private final List<TestOracle<G>> oracles;
-    private final G globalState;
     private int i;
     private int iLast;
 
-    public CompositeTestOracle(List<TestOracle<G>> oracles, G globalState) {
-        this.globalState = globalState;
+    public CompositeTestOracle(List<TestOracle<G>> oracles) {
         this.oracles = oracles;
     }
 
+    // the state is no longer needed, as the caller counts the checked queries
+    public CompositeTestOracle(List<TestOracle<G>> oracles, G globalState) { // NOPMD
+        this(oracles);
+    }
+
     @Override
     public void check() throws Exception {
+        // the caller counts the checked query, attributing it to the oracle returned by getName()
         try {
             oracles.get(i).check();
             iLast = i;
-            boolean lastOracleIndex = i == oracles.size() - 1;
-            if (!lastOracleIndex) {
-                globalState.getManager().incrementSelectQueryCount();
-            }
         } finally {
             i = (i + 1) % oracles.size();
         }
@@ -34,4 +34,9 @@ public class CompositeTestOracle<G extends GlobalState<?, ?, ?>> implements Test
     public String getLastQueryString() {
         return oracles.get(iLast).getLastQueryString();
     }
+
+    @Override
+    public String getName() {
+        return oracles.get(iLast).getName();
+    }
 }
@@ -14,4 +14,13 @@ public interface TestOracle<G extends GlobalState<?, ?, ?>> {
     default String getLastQueryString() {
         throw new AssertionError("Not supported!");
     }
+
+    /**
+     * Gets the name under which the queries checked by this oracle are counted in the execution statistics.
+     *
+     * @return the name of the test oracle
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
 }
@@ -3,6 +3,7 @@ package sqlancer.common.query;
 import sqlancer.GlobalState;
 import sqlancer.SQLancerDBConnection;
 import sqlancer.common.log.Loggable;
+import sqlancer.common.schema.SchemaDelta;
 
 public abstract class Query<C extends SQLancerDBConnection> implements Loggable {
 
@@ -27,6 +28,24 @@ public abstract class Query<C extends SQLancerDBConnection> implements Loggable
      */
     public abstract boolean couldAffectSchema();
 
+    /**
+     * Gets how the query changes the schema, if it could affect the schema and the change is known.
+     *
+     * @return the schema change, or null if the schema must be read from the database again after executing the query
+     */
+    public SchemaDelta getSchemaDelta() {
+        return null;
+    }
+
+    /**
+     * Gets the number of rows that were changed by the last execution of the query, as reported by the DBMS.
+     *
+     * @return the update count, or -1 if it is unknown
+     */
+    public long getUpdateCount() {
+        return -1;
+    }
+
     public abstract <G extends GlobalState<?, ?, C>> boolean execute(G globalState, String... fills) throws Exception;
 
     public abstract ExpectedErrors getExpectedErrors();
@@ -7,13 +7,17 @@ import java.sql.Statement;
 
 import sqlancer.GlobalState;
 import sqlancer.Main;
+import sqlancer.MetricsRegistry.Counter;
 import sqlancer.SQLConnection;
+import sqlancer.common.schema.SchemaDelta;
 
 public class SQLQueryAdapter extends Query<SQLConnection> {
 
     private final String query;
     private final ExpectedErrors expectedErrors;
     private final boolean couldAffectSchema;
+    private SchemaDelta schemaDelta;
+    private long updateCount = -1;
 
     public SQLQueryAdapter(String query) {
         this(query, new ExpectedErrors());
@@ -47,6 +51,22 @@ public class SQLQueryAdapter extends Query<SQLConnection> {
         checkQueryString();
     }
 
+    /**
+     * Sets how the query changes the schema when it is executed successfully.
+     *
+     * @param schemaDelta
+     *            the schema change
+     *
+     * @return this query
+     */
+    public SQLQueryAdapter withSchemaDelta(SchemaDelta schemaDelta) {
+        if (!couldAffectSchema) {
+            throw new AssertionError("queries with a schema delta should set couldAffectSchema to true");
+        }
+        this.schemaDelta = schemaDelta;
+        return this;
+    }
+
     private String canonicalizeString(String s) {
         if (s.endsWith(";")) {
             return s;
@@ -84,29 +104,65 @@ public class SQLQueryAdapter extends Query<SQLConnection> {
     @Override
     public <G extends GlobalState<?, ?, SQLConnection>> boolean execute(G globalState, String... fills)
             throws SQLException {
-        Statement s;
-        if (fills.length > 0) {
-            s = globalState.getConnection().prepareStatement(fills[0]);
-            for (int i = 1; i < fills.length; i++) {
-                ((PreparedStatement) s).setString(i, fills[i]);
-            }
-        } else {
-            s = globalState.getConnection().createStatement();
-        }
+        SQLConnection con = globalState.getConnection();
+        Statement s = acquireStatement(con, fills);
         try {
+            updateCount = -1;
+            boolean hasResultSet;
             if (fills.length > 0) {
-                ((PreparedStatement) s).execute();
+                hasResultSet = ((PreparedStatement) s).execute();
+            } else {
+                hasResultSet = s.execute(query);
+            }
+            if (!hasResultSet) {
+                updateCount = s.getUpdateCount();
             } else {
-                s.execute(query);
+                // the statement can be reused, and a pending result set might delay the commit of later statements
+                ResultSet rs = s.getResultSet();
+                if (rs != null) {
+                    rs.close();
+                }
             }
-            Main.nrSuccessfulActions.addAndGet(1);
+            Main.METRICS.increment(Counter.SUCCESSFUL_ACTIONS);
             return true;
         } catch (Exception e) {
-            Main.nrUnsuccessfulActions.addAndGet(1);
+            Main.METRICS.increment(Counter.UNSUCCESSFUL_ACTIONS);
             checkException(e);
             return false;
         } finally {
+            release(con, s, fills);
+        }
+    }
+
+    // the cached prepared statements might refer to tables that the statement changed
+    private void release(SQLConnection con, Statement s, String... fills) throws SQLException {
+        releaseStatement(con, s, fills);
+        if (couldAffectSchema) {
+            con.invalidateStatementCache();
+        }
+    }
+
+    private static Statement acquireStatement(SQLConnection con, String... fills) throws SQLException {
+        if (fills.length == 0) {
+            return con.acquireStatement();
+        }
+        PreparedStatement s = con.acquirePreparedStatement(fills[0]);
+        try {
+            for (int i = 1; i < fills.length; i++) {
+                s.setString(i, fills[i]);
+            }
+        } catch (SQLException e) {
             s.close();
+            throw e;
+        }
+        return s;
+    }
+
+    private static void releaseStatement(SQLConnection con, Statement s, String... fills) throws SQLException {
+        if (fills.length == 0) {
+            con.releaseStatement(s);
+        } else {
+            con.releasePreparedStatement(fills[0], (PreparedStatement) s);
         }
     }
 
@@ -127,15 +183,8 @@ public class SQLQueryAdapter extends Query<SQLConnection> {
     @Override
     public <G extends GlobalState<?, ?, SQLConnection>> SQLancerResultSet executeAndGet(G globalState, String... fills)
             throws SQLException {
-        Statement s;
-        if (fills.length > 0) {
-            s = globalState.getConnection().prepareStatement(fills[0]);
-            for (int i = 1; i < fills.length; i++) {
-                ((PreparedStatement) s).setString(i, fills[i]);
-            }
-        } else {
-            s = globalState.getConnection().createStatement();
-        }
+        SQLConnection con = globalState.getConnection();
+        Statement s = acquireStatement(con, fills);
         ResultSet result;
         try {
             if (fills.length > 0) {
@@ -143,19 +192,30 @@ public class SQLQueryAdapter extends Query<SQLConnection> {
             } else {
                 result = s.executeQuery(query);
             }
-            Main.nrSuccessfulActions.addAndGet(1);
+            Main.METRICS.increment(Counter.SUCCESSFUL_ACTIONS);
             if (result == null) {
+                release(con, s, fills);
                 return null;
             }
-            return new SQLancerResultSet(result);
+            return new SQLancerResultSet(result, () -> release(con, s, fills));
         } catch (Exception e) {
-            s.close();
-            Main.nrUnsuccessfulActions.addAndGet(1);
+            release(con, s, fills);
+            Main.METRICS.increment(Counter.UNSUCCESSFUL_ACTIONS);
             checkException(e);
         }
         return null;
     }
 
+    @Override
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    @Override
+    public SchemaDelta getSchemaDelta() {
+        return schemaDelta;
+    }
+
     @Override
     public boolean couldAffectSchema() {
         return couldAffectSchema;
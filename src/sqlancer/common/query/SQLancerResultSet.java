@@ -1,16 +1,43 @@
 package sqlancer.common.query;
 
 import java.io.Closeable;
+import java.math.BigDecimal;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 public class SQLancerResultSet implements Closeable {
 
     ResultSet rs;
     private Runnable runnableEpilogue;
+    private final StatementReleaser statementReleaser;
+
+    /**
+     * Returns the statement of a result set to its connection once the result set is closed.
+     */
+    @FunctionalInterface
+    public interface StatementReleaser {
+        void release() throws SQLException;
+    }
 
     public SQLancerResultSet(ResultSet rs) {
+        this(rs, getStatementCloser(rs));
+    }
+
+    public SQLancerResultSet(ResultSet rs, StatementReleaser statementReleaser) {
         this.rs = rs;
+        this.statementReleaser = statementReleaser;
+    }
+
+    // the statement is obtained before the result set is closed, as some drivers do not return it afterwards
+    private static StatementReleaser getStatementCloser(ResultSet rs) {
+        try {
+            Statement statement = rs.getStatement();
+            return statement::close;
+        } catch (SQLException e) {
+            throw new AssertionError(e);
+        }
     }
 
     @Override
@@ -19,8 +46,8 @@ public class SQLancerResultSet implements Closeable {
             if (runnableEpilogue != null) {
                 runnableEpilogue.run();
             }
-            rs.getStatement().close();
             rs.close();
+            statementReleaser.release();
         } catch (SQLException e) {
             throw new AssertionError(e);
         }
@@ -50,6 +77,26 @@ public class SQLancerResultSet implements Closeable {
         return rs.getLong(i);
     }
 
+    public double getDouble(int i) throws SQLException {
+        return rs.getDouble(i);
+    }
+
+    public BigDecimal getBigDecimal(int i) throws SQLException {
+        return rs.getBigDecimal(i);
+    }
+
+    public byte[] getBytes(int i) throws SQLException {
+        return rs.getBytes(i);
+    }
+
+    public boolean wasNull() throws SQLException {
+        return rs.wasNull();
+    }
+
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return rs.getMetaData();
+    }
+
     public String getType(int i) throws SQLException {
         return rs.getMetaData().getColumnTypeName(i);
     }
@@ -12,7 +12,7 @@ import sqlancer.Randomly;
 
 public class AbstractSchema<G extends GlobalState<?, ?, ?>, A extends AbstractTable<?, ?, G>> {
 
-    private final List<A> databaseTables;
+    private List<A> databaseTables;
 
     public AbstractSchema(List<A> databaseTables) {
         this.databaseTables = Collections.unmodifiableList(databaseTables);
@@ -139,6 +139,38 @@ public class AbstractSchema<G extends GlobalState<?, ?, ?>, A extends AbstractTa
         } while (true);
     }
 
+    /**
+     * Removes the table with the given name after it was dropped. Lists of tables that were obtained before are not
+     * changed.
+     *
+     * @param name
+     *            the name of the table
+     *
+     * @return true if the schema reflects the removal, false if it must be read from the database again
+     */
+    public boolean removeTable(String name) {
+        databaseTables = Collections.unmodifiableList(
+                databaseTables.stream().filter(t -> !t.getName().equals(name)).collect(Collectors.toList()));
+        return true;
+    }
+
+    /**
+     * Removes the index with the given name after it was dropped.
+     *
+     * @param indexName
+     *            the name of the index
+     *
+     * @return true if the schema reflects the removal, false if it must be read from the database again
+     */
+    public boolean removeIndex(String indexName) {
+        for (A table : databaseTables) {
+            if (table.removeIndex(indexName)) {
+                break;
+            }
+        }
+        return true;
+    }
+
     public boolean containsTableWithZeroRows(G globalState) {
         return databaseTables.stream().anyMatch(t -> t.getNrRows(globalState) == 0);
     }
@@ -15,7 +15,7 @@ public abstract class AbstractTable<C extends AbstractTableColumn<?, ?>, I exten
     protected static final int NO_ROW_COUNT_AVAILABLE = -1;
     protected final String name;
     private final List<C> columns;
-    private final List<I> indexes;
+    private List<I> indexes;
     private final boolean isView;
     protected long rowCount = NO_ROW_COUNT_AVAILABLE;
 
@@ -91,6 +91,16 @@ public abstract class AbstractTable<C extends AbstractTableColumn<?, ?>, I exten
         return isView;
     }
 
+    /**
+     * Returns whether the number of rows of the table can be derived from the update counts of the statements that
+     * modify it (see {@link RowCountTracker}).
+     *
+     * @return true if the rows of the table are tracked, false if they must always be counted
+     */
+    public boolean isRowCountTrackable() {
+        return !isView;
+    }
+
     public String getFreeColumnName() {
         int i = 0;
         if (Randomly.getBooleanWithRatherLowProbability()) {
@@ -105,6 +115,28 @@ public abstract class AbstractTable<C extends AbstractTableColumn<?, ?>, I exten
 
     }
 
+    /**
+     * Removes the index with the given name after it was dropped. Lists of indexes that were obtained before are not
+     * changed.
+     *
+     * @param indexName
+     *            the name of the index
+     *
+     * @return true if the table had the index, false otherwise
+     */
+    public boolean removeIndex(String indexName) {
+        if (indexes == null) {
+            return false;
+        }
+        List<I> remainingIndexes = indexes.stream().filter(i -> !i.getIndexName().equals(indexName))
+                .collect(Collectors.toList());
+        if (remainingIndexes.size() == indexes.size()) {
+            return false;
+        }
+        indexes = remainingIndexes;
+        return true;
+    }
+
     public void recomputeCount() {
         rowCount = NO_ROW_COUNT_AVAILABLE;
     }
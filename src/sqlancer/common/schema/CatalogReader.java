@@ -0,0 +1,153 @@
+package sqlancer.common.schema;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import sqlancer.SQLConnection;
+
+/**
+ * Reads the columns, indexes, and other per-table objects of all tables with a single catalog query each, and groups
+ * them by table in memory. This replaces querying the catalog once per table, which makes loading the schema take a
+ * number of round trips that grows with the number of tables.
+ *
+ * The queries are shared by the PostgreSQL-compatible DBMSs, whose catalogs provide the information_schema and
+ * pg_catalog views.
+ */
+public final class CatalogReader {
+
+    /**
+     * Selects the tables in the public and temporary schemas, ordered by their name.
+     */
+    public static final String POSTGRES_TABLES_QUERY = "SELECT table_name, table_schema, table_type, is_insertable_into FROM information_schema.tables WHERE table_schema='public' OR table_schema LIKE 'pg_temp_%' ORDER BY table_name;";
+
+    /**
+     * Selects the columns of all tables in the public and temporary schemas, ordered by their name.
+     */
+    public static final String POSTGRES_COLUMNS_QUERY = "SELECT table_schema, table_name, column_name, data_type FROM information_schema.columns WHERE table_schema='public' OR table_schema LIKE 'pg_temp_%' ORDER BY column_name;";
+
+    /**
+     * Selects the indexes of all tables in the public and temporary schemas, ordered by their name.
+     */
+    public static final String POSTGRES_INDEXES_QUERY = "SELECT schemaname AS table_schema, tablename AS table_name, indexname FROM pg_indexes WHERE schemaname='public' OR schemaname LIKE 'pg_temp_%' ORDER BY indexname;";
+
+    /**
+     * Selects the extended statistics objects, ordered by their name.
+     */
+    public static final String POSTGRES_STATISTICS_QUERY = "SELECT stxname FROM pg_statistic_ext ORDER BY stxname;";
+
+    private CatalogReader() {
+    }
+
+    @FunctionalInterface
+    public interface RowMapper<T> {
+
+        /**
+         * Maps the current row of a catalog query.
+         *
+         * @param rs
+         *            the result set, positioned on the row
+         *
+         * @return the mapped object, or null to skip the row
+         *
+         * @throws SQLException
+         *             if reading the row fails
+         */
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Executes a catalog query, and groups the mapped rows by the table given by their table_schema and table_name
+     * columns. The rows of each table keep the order of the query.
+     *
+     * @param <T>
+     *            the type of the mapped rows
+     * @param con
+     *            the connection
+     * @param query
+     *            the catalog query, which must select a table_schema and a table_name column
+     * @param mapper
+     *            maps each row
+     *
+     * @return the mapped rows by table, keyed by {@link #getTableKey(String, String)}
+     *
+     * @throws SQLException
+     *             if executing the query fails
+     */
+    public static <T> Map<String, List<T>> readByTable(SQLConnection con, String query, RowMapper<T> mapper)
+            throws SQLException {
+        Map<String, List<T>> rowsByTable = new HashMap<>();
+        try (Statement s = con.createStatement()) {
+            try (ResultSet rs = s.executeQuery(query)) {
+                while (rs.next()) {
+                    String key = getTableKey(rs.getString("table_schema"), rs.getString("table_name"));
+                    T row = mapper.map(rs);
+                    if (row != null) {
+                        rowsByTable.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+                    }
+                }
+            }
+        }
+        return rowsByTable;
+    }
+
+    /**
+     * Executes a catalog query that is not specific to a table.
+     *
+     * @param <T>
+     *            the type of the mapped rows
+     * @param con
+     *            the connection
+     * @param query
+     *            the catalog query
+     * @param mapper
+     *            maps each row
+     *
+     * @return the mapped rows, in the order of the query
+     *
+     * @throws SQLException
+     *             if executing the query fails
+     */
+    public static <T> List<T> read(SQLConnection con, String query, RowMapper<T> mapper) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        try (Statement s = con.createStatement()) {
+            try (ResultSet rs = s.executeQuery(query)) {
+                while (rs.next()) {
+                    T row = mapper.map(rs);
+                    if (row != null) {
+                        rows.add(row);
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    public static String getTableKey(String tableSchema, String tableName) {
+        return tableSchema + "." + tableName;
+    }
+
+    /**
+     * Returns the rows of the given table that were read by {@link #readByTable(SQLConnection, String, RowMapper)}.
+     *
+     * @param <T>
+     *            the type of the rows
+     * @param rowsByTable
+     *            the rows by table
+     * @param tableSchema
+     *            the schema of the table
+     * @param tableName
+     *            the name of the table
+     *
+     * @return the rows of the table, or a new empty list if there are none
+     */
+    public static <T> List<T> getRows(Map<String, List<T>> rowsByTable, String tableSchema, String tableName) {
+        List<T> rows = rowsByTable.get(getTableKey(tableSchema, tableName));
+        return rows == null ? new ArrayList<>() : rows;
+    }
+
+}
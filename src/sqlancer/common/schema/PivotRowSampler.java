@@ -0,0 +1,86 @@
+package sqlancer.common.schema;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import sqlancer.IgnoreMeException;
+import sqlancer.SQLGlobalState;
+
+/**
+ * Selects the pivot row of the Pivoted Query Synthesis oracles, a random row of the cross join of the pivot tables,
+ * without sorting the join by a random value (i.e., ORDER BY RANDOM() LIMIT 1). Instead, each table is replaced by a
+ * derived table that contains only its row at a random offset, which is drawn based on the number of rows of the table.
+ * As the rows of the tables are picked independently and uniformly, the resulting row is a uniformly random row of the
+ * join. The numbers of rows are obtained by {@link AbstractTable#getNrRows(sqlancer.GlobalState)}, which caches them
+ * per table (see also {@link RowCountTracker}).
+ */
+public final class PivotRowSampler {
+
+    private PivotRowSampler() {
+    }
+
+    /**
+     * Returns a FROM clause, without the FROM keyword, that contains a single random row of the cross join of the given
+     * tables. Each derived table has the name of its table and the columns of its table.
+     *
+     * @param <G>
+     *            the global state type
+     * @param <T>
+     *            the table type
+     * @param globalState
+     *            the global state
+     * @param tables
+     *            the tables, which must be non-empty
+     *
+     * @return the FROM clause
+     */
+    public static <G extends SQLGlobalState<?, ?>, T extends AbstractTable<?, ?, G>> String getRandomRowFromClause(
+            G globalState, List<T> tables) {
+        StringBuilder sb = new StringBuilder();
+        for (T table : tables) {
+            long nrRows = table.getNrRows(globalState);
+            if (nrRows <= 0) {
+                throw new IgnoreMeException();
+            }
+            if (sb.length() != 0) {
+                sb.append(", ");
+            }
+            sb.append("(SELECT ");
+            sb.append(table.getColumns().stream().map(c -> c.getName()).collect(Collectors.joining(", ")));
+            sb.append(" FROM ");
+            sb.append(table.getName());
+            sb.append(" LIMIT 1 OFFSET ");
+            sb.append(globalState.getRandomly().getLong(0, nrRows));
+            sb.append(") AS ");
+            sb.append(table.getName());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Handles that a FROM clause obtained by {@link #getRandomRowFromClause(SQLGlobalState, List)} contained no row,
+     * which means that the number of rows of a table was outdated. The numbers of rows of the tables are counted again
+     * when they are next needed.
+     *
+     * @param <G>
+     *            the global state type
+     * @param globalState
+     *            the global state
+     * @param tables
+     *            the tables
+     *
+     * @return an exception to be thrown, as the pivot row cannot be selected
+     */
+    public static <G extends SQLGlobalState<?, ?>> IgnoreMeException rowNotFound(G globalState,
+            List<? extends AbstractTable<?, ?, G>> tables) {
+        RowCountTracker tracker = globalState.getRowCountTracker();
+        for (AbstractTable<?, ?, G> table : tables) {
+            table.recomputeCount();
+            if (tracker != null) {
+                tracker.invalidate(table.getName());
+            }
+        }
+        return new IgnoreMeException();
+    }
+
+}
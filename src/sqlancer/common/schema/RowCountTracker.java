@@ -0,0 +1,294 @@
+package sqlancer.common.schema;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tracks the number of rows of each table across the executed statements, so that they need not be counted with a
+ * SELECT COUNT(*) query each time they are needed. A count obtained by such a query is exact. It is then maintained
+ * based on the update counts of the INSERT and DELETE statements, and becomes an estimate, since the update count is
+ * only reported by the DBMS and not verified. Whenever the effect of a statement on a table is uncertain, the count of
+ * the table is discarded, so that it is counted again when it is next needed. This is the case, for example, for
+ * upserts, for failed statements, for rolled-back transactions, and for any modification once triggers, rules, foreign
+ * keys, or table inheritance might exist.
+ */
+public class RowCountTracker {
+
+    public static final long UNKNOWN = -1;
+
+    private static final String TABLE_NAME = "[\\w.\"`\\[\\]]+";
+    private static final Pattern INSERT = Pattern.compile(
+            "(INSERT|REPLACE)\\b(.*?)\\bINTO\\s+(?:ONLY\\s+)?(" + TABLE_NAME + ")(\\s*,)?",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern DELETE = Pattern.compile(
+            "DELETE\\s+((?:(?:LOW_PRIORITY|QUICK|IGNORE)\\s+)*)FROM\\s+(?:ONLY\\s+)?(" + TABLE_NAME + ")(\\s*,)?",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern UPDATE = Pattern.compile(
+            "UPDATE\\s+(OR\\s+\\w+\\s+)?(?:(?:LOW_PRIORITY|IGNORE)\\s+)*(?:ONLY\\s+)?(" + TABLE_NAME + ")",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern OR_REPLACE = Pattern.compile("\\bOR\\s+REPLACE\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ROLLBACK_TO_SAVEPOINT = Pattern
+            .compile("ROLLBACK\\s+(WORK\\s+|TRANSACTION\\s+)?TO\\b.*", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern DEPENDENCY = Pattern
+            .compile("\\b(TRIGGER|RULE|REFERENCES|INHERITS|PARTITION\\s+OF)\\b", Pattern.CASE_INSENSITIVE);
+    private static final String[] NO_ROW_CHANGES = { "SELECT", "EXPLAIN", "SHOW", "DESCRIBE", "DESC", "SET", "RESET",
+            "PRAGMA", "ANALYZE", "VACUUM", "REINDEX", "CHECKPOINT", "DISCARD", "COMMENT", "CLUSTER", "OPTIMIZE",
+            "CHECK", "GRANT", "REVOKE", "USE", "VALUES" };
+
+    private final Map<String, RowCount> rowCounts = new HashMap<>();
+    private boolean inTransaction;
+    // whether changing a table could also change other tables, for example, through triggers
+    private boolean dependentChanges;
+
+    private static final class RowCount {
+        private long count;
+        private boolean exact;
+
+        RowCount(long count, boolean exact) {
+            this.count = count;
+            this.exact = exact;
+        }
+    }
+
+    /**
+     * Returns the tracked number of rows of the given table.
+     *
+     * @param tableName
+     *            the name of the table
+     *
+     * @return the number of rows, or {@link #UNKNOWN} if the rows must be counted
+     */
+    public long getRowCount(String tableName) {
+        RowCount rowCount = rowCounts.get(normalize(tableName));
+        return rowCount == null ? UNKNOWN : rowCount.count;
+    }
+
+    /**
+     * Returns whether the tracked number of rows of the given table was counted, rather than derived from update
+     * counts.
+     *
+     * @param tableName
+     *            the name of the table
+     *
+     * @return true if the number of rows is known and exact, false otherwise
+     */
+    public boolean isExact(String tableName) {
+        RowCount rowCount = rowCounts.get(normalize(tableName));
+        return rowCount != null && rowCount.exact;
+    }
+
+    /**
+     * Returns whether the tracked number of rows of the given table was derived from update counts, rather than
+     * counted.
+     *
+     * @param tableName
+     *            the name of the table
+     *
+     * @return true if the number of rows is known but is an estimate, false otherwise
+     */
+    public boolean isEstimated(String tableName) {
+        RowCount rowCount = rowCounts.get(normalize(tableName));
+        return rowCount != null && !rowCount.exact;
+    }
+
+    public void setExactRowCount(String tableName, long count) {
+        rowCounts.put(normalize(tableName), new RowCount(count, true));
+    }
+
+    public void invalidate(String tableName) {
+        rowCounts.remove(normalize(tableName));
+    }
+
+    public void invalidateAll() {
+        rowCounts.clear();
+    }
+
+    /**
+     * Updates the tracked row counts after executing a statement.
+     *
+     * @param query
+     *            the statement
+     * @param success
+     *            whether the statement was executed successfully
+     * @param updateCount
+     *            the update count reported for the statement, or -1 if it is unknown
+     * @param couldAffectSchema
+     *            whether the statement could affect the schema
+     * @param isTable
+     *            tests whether a name refers to a known table whose rows are tracked
+     */
+    public void statementExecuted(String query, boolean success, long updateCount, boolean couldAffectSchema,
+            Predicate<String> isTable) {
+        String statement = query.trim();
+        String keyword = getFirstKeyword(statement);
+        switch (keyword) {
+        case "BEGIN":
+        case "START":
+            inTransaction = true;
+            return;
+        case "SAVEPOINT":
+        case "RELEASE":
+            return;
+        case "COMMIT":
+        case "END":
+            inTransaction = false;
+            return;
+        case "ROLLBACK":
+        case "ABORT":
+            if (!ROLLBACK_TO_SAVEPOINT.matcher(statement).matches()) {
+                inTransaction = false;
+            }
+            invalidateAll();
+            return;
+        default:
+            break;
+        }
+        if (!success) {
+            // a failed statement might abort the transaction, or might have partially changed a table
+            if (inTransaction) {
+                invalidateAll();
+            } else {
+                invalidateTarget(statement, keyword, isTable);
+            }
+            return;
+        }
+        if (couldAffectSchema || keyword.equals("CREATE") || keyword.equals("ALTER") || keyword.equals("DROP")
+                || keyword.equals("RENAME")) {
+            schemaChanged(statement);
+            return;
+        }
+        switch (keyword) {
+        case "INSERT":
+        case "REPLACE":
+        case "DELETE":
+            rowsChanged(statement, keyword, updateCount, isTable);
+            break;
+        case "UPDATE":
+            Matcher m = UPDATE.matcher(statement);
+            if (dependentChanges || !m.lookingAt()) {
+                invalidateAll();
+            } else if (m.group(1) != null) {
+                // for example, UPDATE OR REPLACE can delete rows
+                invalidate(m.group(2), isTable);
+            }
+            break;
+        default:
+            for (String noRowChange : NO_ROW_CHANGES) {
+                if (keyword.equals(noRowChange)) {
+                    return;
+                }
+            }
+            invalidateAll();
+            break;
+        }
+    }
+
+    private void rowsChanged(String statement, String keyword, long updateCount, Predicate<String> isTable) {
+        boolean isDelete = keyword.equals("DELETE");
+        Matcher m = (isDelete ? DELETE : INSERT).matcher(statement);
+        if (dependentChanges || !m.lookingAt()) {
+            invalidateAll();
+            return;
+        }
+        String tableName = m.group(isDelete ? 2 : 3);
+        boolean multipleTables = m.group(isDelete ? 3 : 4) != null;
+        if (multipleTables || !isTable.test(unquote(tableName))) {
+            // inserting into a view changes its base tables
+            invalidateAll();
+            return;
+        }
+        String upperCaseStatement = statement.toUpperCase(Locale.ROOT);
+        boolean isUpsert = !isDelete && (keyword.equals("REPLACE") || OR_REPLACE.matcher(m.group(2)).find()
+                || upperCaseStatement.contains("ON CONFLICT") || upperCaseStatement.contains("ON DUPLICATE KEY"));
+        RowCount rowCount = rowCounts.get(normalize(tableName));
+        if (rowCount == null) {
+            return;
+        }
+        if (isUpsert || updateCount < 0) {
+            invalidate(tableName);
+            return;
+        }
+        long count = rowCount.count + (isDelete ? -updateCount : updateCount);
+        if (count < 0) {
+            invalidate(tableName);
+        } else {
+            rowCount.count = count;
+            rowCount.exact = false;
+        }
+    }
+
+    private void invalidateTarget(String statement, String keyword, Predicate<String> isTable) {
+        Matcher m;
+        int group;
+        switch (keyword) {
+        case "INSERT":
+        case "REPLACE":
+            m = INSERT.matcher(statement);
+            group = 3;
+            break;
+        case "DELETE":
+            m = DELETE.matcher(statement);
+            group = 2;
+            break;
+        case "UPDATE":
+            m = UPDATE.matcher(statement);
+            group = 2;
+            break;
+        default:
+            return;
+        }
+        if (dependentChanges || !m.lookingAt()) {
+            invalidateAll();
+        } else {
+            invalidate(m.group(group), isTable);
+        }
+    }
+
+    private void invalidate(String tableName, Predicate<String> isTable) {
+        if (isTable.test(unquote(tableName))) {
+            invalidate(tableName);
+        } else {
+            invalidateAll();
+        }
+    }
+
+    private void schemaChanged(String statement) {
+        if (DEPENDENCY.matcher(statement).find()) {
+            dependentChanges = true;
+            invalidateAll();
+            return;
+        }
+        // the statement could drop and recreate, or fill, the tables it refers to
+        Iterator<String> it = rowCounts.keySet().iterator();
+        while (it.hasNext()) {
+            String tableName = it.next();
+            if (Pattern.compile("\\b" + Pattern.quote(tableName) + "\\b", Pattern.CASE_INSENSITIVE).matcher(statement)
+                    .find()) {
+                it.remove();
+            }
+        }
+    }
+
+    private static String getFirstKeyword(String statement) {
+        int end = 0;
+        while (end < statement.length() && Character.isLetter(statement.charAt(end))) {
+            end++;
+        }
+        return statement.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+
+    private static String unquote(String tableName) {
+        String name = tableName.replaceAll("[\"`\\[\\]]", "");
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    private static String normalize(String tableName) {
+        return unquote(tableName).toLowerCase(Locale.ROOT);
+    }
+
+}
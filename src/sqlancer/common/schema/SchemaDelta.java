@@ -0,0 +1,28 @@
+package sqlancer.common.schema;
+
+/**
+ * Describes how a statement changed the schema, so that the in-memory schema can be patched instead of being read from
+ * the database again (see {@link sqlancer.common.query.Query#getSchemaDelta()}).
+ */
+@FunctionalInterface
+public interface SchemaDelta {
+
+    /**
+     * Patches the schema after the statement was executed successfully.
+     *
+     * @param schema
+     *            the schema, which is modified in place
+     *
+     * @return true if the schema reflects the change, false if it must be read from the database again
+     */
+    boolean applyTo(AbstractSchema<?, ?> schema);
+
+    static SchemaDelta dropTable(String tableName) {
+        return schema -> schema.removeTable(tableName);
+    }
+
+    static SchemaDelta dropIndex(String indexName) {
+        return schema -> schema.removeIndex(indexName);
+    }
+
+}
@@ -20,6 +20,7 @@ import sqlancer.common.schema.AbstractRowValue;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
+import sqlancer.common.schema.PivotRowSampler;
 import sqlancer.common.schema.TableIndex;
 import sqlancer.databend.DatabendProvider.DatabendGlobalState;
 import sqlancer.databend.DatabendSchema.DatabendTable;
@@ -165,16 +166,15 @@ public class DatabendSchema extends AbstractSchema<DatabendGlobalState, Databend
             super(tables);
         }
 
-        public DatabendRowValue getRandomRowValue(SQLConnection con) throws SQLException {
-            String rowValueQuery = String.format("SELECT %s FROM %s ORDER BY 1 LIMIT 1", columnNamesAsString(
+        public DatabendRowValue getRandomRowValue(DatabendGlobalState globalState) throws SQLException {
+            String rowValueQuery = String.format("SELECT %s FROM %s", columnNamesAsString(
                     c -> c.getTable().getName() + "." + c.getName() + " AS " + c.getTable().getName() + c.getName()),
-                    tableNamesAsString());
+                    PivotRowSampler.getRandomRowFromClause(globalState, getTables()));
             Map<DatabendColumn, DatabendConstant> values = new HashMap<>();
-            try (Statement s = con.createStatement()) {
+            try (Statement s = globalState.getConnection().createStatement()) {
                 ResultSet rs = s.executeQuery(rowValueQuery);
                 if (!rs.next()) {
-                    throw new IgnoreMeException();
-                    // throw new AssertionError("could not find random row " + rowValueQuery + "\n");
+                    throw PivotRowSampler.rowNotFound(globalState, getTables());
                 }
                 for (int i = 0; i < getColumns().size(); i++) {
                     DatabendColumn column = getColumns().get(i);
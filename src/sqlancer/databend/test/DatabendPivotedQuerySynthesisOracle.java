@@ -47,7 +47,7 @@ public class DatabendPivotedQuerySynthesisOracle
         DatabendSelect selectStatement = new DatabendSelect();
         boolean isDistinct = Randomly.getBoolean();
         selectStatement.setDistinct(isDistinct);
-        pivotRow = randomTables.getRandomRowValue(globalState.getConnection());
+        pivotRow = randomTables.getRandomRowValue(globalState);
         fetchColumns = columns;
         selectStatement.setFetchColumns(fetchColumns.stream()
                 .map(c -> new DatabendColumnValue(getFetchValueAliasedColumn(c), pivotRow.getValues().get(c)))
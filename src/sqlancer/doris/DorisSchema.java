@@ -20,6 +20,7 @@ import sqlancer.common.schema.AbstractRowValue;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
+import sqlancer.common.schema.PivotRowSampler;
 import sqlancer.common.schema.TableIndex;
 import sqlancer.doris.DorisProvider.DorisGlobalState;
 import sqlancer.doris.DorisSchema.DorisTable;
@@ -330,16 +331,15 @@ public class DorisSchema extends AbstractSchema<DorisGlobalState, DorisTable> {
             super(tables);
         }
 
-        public DorisRowValue getRandomRowValue(SQLConnection con) throws SQLException {
-            String rowValueQuery = String.format("SELECT %s FROM %s ORDER BY 1 LIMIT 1", columnNamesAsString(
+        public DorisRowValue getRandomRowValue(DorisGlobalState globalState) throws SQLException {
+            String rowValueQuery = String.format("SELECT %s FROM %s", columnNamesAsString(
                     c -> c.getTable().getName() + "." + c.getName() + " AS " + c.getTable().getName() + c.getName()),
-                    tableNamesAsString());
+                    PivotRowSampler.getRandomRowFromClause(globalState, getTables()));
             Map<DorisColumn, DorisConstant> values = new HashMap<>();
-            try (Statement s = con.createStatement()) {
+            try (Statement s = globalState.getConnection().createStatement()) {
                 ResultSet rs = s.executeQuery(rowValueQuery);
                 if (!rs.next()) {
-                    throw new IgnoreMeException();
-                    // throw new AssertionError("could not find random row " + rowValueQuery + "\n");
+                    throw PivotRowSampler.rowNotFound(globalState, getTables());
                 }
                 for (int i = 0; i < getColumns().size(); i++) {
                     DorisColumn column = getColumns().get(i);
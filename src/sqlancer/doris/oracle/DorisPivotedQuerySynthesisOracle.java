@@ -48,7 +48,7 @@ public class DorisPivotedQuerySynthesisOracle
         DorisSelect selectStatement = new DorisSelect();
         boolean isDistinct = Randomly.getBoolean();
         selectStatement.setDistinct(isDistinct);
-        pivotRow = randomTables.getRandomRowValue(globalState.getConnection());
+        pivotRow = randomTables.getRandomRowValue(globalState);
         fetchColumns = columns;
         selectStatement.setFetchColumns(fetchColumns.stream()
                 .map(c -> new DorisColumnValue(getFetchValueAliasedColumn(c), pivotRow.getValues().get(c)))
@@ -1,14 +1,19 @@
 package sqlancer.duckdb;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 
+import org.duckdb.DuckDBConnection;
+
 import com.google.auto.service.AutoService;
 
 import sqlancer.AbstractAction;
+import sqlancer.CheckpointingProvider;
 import sqlancer.DatabaseProvider;
 import sqlancer.IgnoreMeException;
 import sqlancer.MainOptions;
@@ -30,7 +35,11 @@ import sqlancer.duckdb.gen.DuckDBUpdateGenerator;
 import sqlancer.duckdb.gen.DuckDBViewGenerator;
 
 @AutoService(DatabaseProvider.class)
-public class DuckDBProvider extends SQLProviderAdapter<DuckDBGlobalState, DuckDBOptions> {
+public class DuckDBProvider extends SQLProviderAdapter<DuckDBGlobalState, DuckDBOptions>
+        implements CheckpointingProvider<DuckDBGlobalState, SQLConnection> {
+
+    // the file of the database, which is in memory if empty or ":memory:"
+    private String databaseFile = System.getProperty("duckdb.database.file", "");
 
     public DuckDBProvider() {
         super(DuckDBGlobalState.class, DuckDBOptions.class);
@@ -99,6 +108,14 @@ public class DuckDBProvider extends SQLProviderAdapter<DuckDBGlobalState, DuckDB
             return DuckDBSchema.fromConnection(getConnection(), getDatabaseName());
         }
 
+        @Override
+        public String getResultFingerprintQuery(String queryString) {
+            // the column list renames only the first column, whose values are compared; the modulo keeps the sum of
+            // the 128-bit hashes from overflowing
+            return "SELECT COUNT(*), COUNT(sqlancer_value), SUM(md5_number(CAST(sqlancer_value AS VARCHAR)) % "
+                    + "1000000000000000003) FROM (" + queryString + ") AS sqlancer_fingerprint(sqlancer_value)";
+        }
+
     }
 
     @Override
@@ -140,10 +157,32 @@ public class DuckDBProvider extends SQLProviderAdapter<DuckDBGlobalState, DuckDB
 
     @Override
     public SQLConnection createDatabase(DuckDBGlobalState globalState) throws SQLException {
-        String databaseFile = System.getProperty("duckdb.database.file", "");
-        String url = "jdbc:duckdb:" + databaseFile;
+        String databaseFile = getDatabaseFile();
         tryDeleteDatabase(databaseFile);
+        return connect(globalState, databaseFile);
+    }
+
+    @Override
+    public void dropDatabase(DuckDBGlobalState globalState) {
+        tryDeleteDatabase(getDatabaseFile());
+    }
+
+    @Override
+    public DuckDBProvider createWorkerProvider(String workerName) {
+        DuckDBProvider workerProvider = new DuckDBProvider();
+        String file = getDatabaseFile();
+        if (!file.equals("") && !file.equals(":memory:")) {
+            workerProvider.databaseFile = file + "_" + workerName;
+        }
+        return workerProvider;
+    }
+
+    private String getDatabaseFile() {
+        return databaseFile;
+    }
 
+    private static SQLConnection connect(DuckDBGlobalState globalState, String databaseFile) throws SQLException {
+        String url = "jdbc:duckdb:" + databaseFile;
         MainOptions options = globalState.getOptions();
         if (!(options.isDefaultUsername() && options.isDefaultPassword())) {
             throw new AssertionError("DuckDB doesn't support credentials (username/password)");
@@ -156,6 +195,39 @@ public class DuckDBProvider extends SQLProviderAdapter<DuckDBGlobalState, DuckDB
         return new SQLConnection(conn);
     }
 
+    @Override
+    protected SQLConnection createAuxiliaryConnection(DuckDBGlobalState globalState) throws SQLException {
+        // a connection to the same in-process database instance, which also works for in-memory databases; it is not
+        // read-only, as DuckDB sets the access mode per database instance, so only queries and settings are executed on
+        // it (see SiblingConnections)
+        return new SQLConnection(globalState.getConnection().unwrap(DuckDBConnection.class).duplicate());
+    }
+
+    @Override
+    public boolean supportsCheckpoints(DuckDBGlobalState globalState) {
+        String databaseFile = getDatabaseFile();
+        return !databaseFile.equals("") && !databaseFile.equals(":memory:");
+    }
+
+    @Override
+    public boolean saveCheckpoint(DuckDBGlobalState globalState, File checkpoint) throws SQLException, IOException {
+        try (Statement s = globalState.getConnection().createStatement()) {
+            // writes the WAL to the database file
+            s.execute("CHECKPOINT");
+        }
+        Files.copy(new File(getDatabaseFile()).toPath(), checkpoint.toPath());
+        return true;
+    }
+
+    @Override
+    public SQLConnection restoreCheckpoint(DuckDBGlobalState globalState, File checkpoint)
+            throws SQLException, IOException {
+        String databaseFile = getDatabaseFile();
+        tryDeleteDatabase(databaseFile);
+        Files.copy(checkpoint.toPath(), new File(databaseFile).toPath());
+        return connect(globalState, databaseFile);
+    }
+
     @Override
     public String getDBMSName() {
         return "duckdb";
@@ -8,6 +8,7 @@ import java.util.List;
 import sqlancer.ComparatorHelper;
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
+import sqlancer.SQLGlobalState;
 import sqlancer.common.ast.newast.NewAliasNode;
 import sqlancer.common.ast.newast.NewBinaryOperatorNode;
 import sqlancer.common.ast.newast.NewFunctionNode;
@@ -61,9 +62,11 @@ public class DuckDBQueryPartitioningAggregateTester extends DuckDBQueryPartition
             select.setOrderByClauses(gen.generateOrderBys());
         }
         originalQuery = DuckDBToStringVisitor.asString(select);
-        firstResult = getAggregateResult(originalQuery);
         metamorphicQuery = createMetamorphicUnionQuery(select, aggregate, select.getFromList());
-        secondResult = getAggregateResult(metamorphicQuery);
+        List<String> results = ComparatorHelper.fetchConcurrently(state, s -> getAggregateResult(originalQuery, s),
+                s -> getAggregateResult(metamorphicQuery, s));
+        firstResult = results.get(0);
+        secondResult = results.get(1);
 
         state.getState().getLocalState().log(
                 "--" + originalQuery + ";\n--" + metamorphicQuery + "\n-- " + firstResult + "\n-- " + secondResult);
@@ -98,10 +101,10 @@ public class DuckDBQueryPartitioningAggregateTester extends DuckDBQueryPartition
         return metamorphicQuery;
     }
 
-    private String getAggregateResult(String queryString) throws SQLException {
+    private String getAggregateResult(String queryString, SQLGlobalState<?, ?> globalState) throws SQLException {
         String resultString;
         SQLQueryAdapter q = new SQLQueryAdapter(queryString, errors);
-        try (SQLancerResultSet result = q.executeAndGet(state)) {
+        try (SQLancerResultSet result = q.executeAndGet(globalState)) {
             if (result == null) {
                 throw new IgnoreMeException();
             }
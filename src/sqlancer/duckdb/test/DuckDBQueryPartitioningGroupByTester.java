@@ -29,8 +29,6 @@ public class DuckDBQueryPartitioningGroupByTester extends DuckDBQueryPartitionin
         select.setWhereClause(null);
         String originalQueryString = DuckDBToStringVisitor.asString(select);
 
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
-
         select.setWhereClause(predicate);
         String firstQueryString = DuckDBToStringVisitor.asString(select);
         select.setWhereClause(negatedPredicate);
@@ -38,10 +36,12 @@ public class DuckDBQueryPartitioningGroupByTester extends DuckDBQueryPartitionin
         select.setWhereClause(isNullPredicate);
         String thirdQueryString = DuckDBToStringVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSetNoDuplicates(firstQueryString,
-                secondQueryString, thirdQueryString, combinedString, true, state, errors);
-        ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
-                state, ComparatorHelper::canonicalizeResultValue);
+        List<List<String>> resultSets = ComparatorHelper.fetchConcurrently(state,
+                s -> ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, s),
+                s -> ComparatorHelper.getCombinedResultSetNoDuplicates(firstQueryString, secondQueryString,
+                        thirdQueryString, combinedString, true, s, errors));
+        ComparatorHelper.assumeResultSetsAreEqual(resultSets.get(0), resultSets.get(1), originalQueryString,
+                combinedString, state, ComparatorHelper::canonicalizeResultValue);
     }
 
     @Override
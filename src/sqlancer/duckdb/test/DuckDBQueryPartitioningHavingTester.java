@@ -35,7 +35,6 @@ public class DuckDBQueryPartitioningHavingTester extends DuckDBQueryPartitioning
         select.setGroupByExpressions(gen.generateExpressions(Randomly.smallNumber() + 1));
         select.setHavingClause(null);
         String originalQueryString = DuckDBToStringVisitor.asString(select);
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
 
         select.setHavingClause(predicate);
         String firstQueryString = DuckDBToStringVisitor.asString(select);
@@ -44,10 +43,12 @@ public class DuckDBQueryPartitioningHavingTester extends DuckDBQueryPartitioning
         select.setHavingClause(isNullPredicate);
         String thirdQueryString = DuckDBToStringVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
-                thirdQueryString, combinedString, !orderBy, state, errors);
-        ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
-                state, ComparatorHelper::canonicalizeResultValue);
+        List<List<String>> resultSets = ComparatorHelper.fetchConcurrently(state,
+                s -> ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, s),
+                s -> ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString, thirdQueryString,
+                        combinedString, !orderBy, s, errors));
+        ComparatorHelper.assumeResultSetsAreEqual(resultSets.get(0), resultSets.get(1), originalQueryString,
+                combinedString, state, ComparatorHelper::canonicalizeResultValue);
     }
 
     @Override
@@ -6,6 +6,7 @@ import java.util.List;
 
 import sqlancer.ComparatorHelper;
 import sqlancer.Randomly;
+import sqlancer.ResultSetDigest;
 import sqlancer.duckdb.DuckDBErrors;
 import sqlancer.duckdb.DuckDBProvider.DuckDBGlobalState;
 import sqlancer.duckdb.DuckDBToStringVisitor;
@@ -23,8 +24,6 @@ public class DuckDBQueryPartitioningWhereTester extends DuckDBQueryPartitioningB
         select.setWhereClause(null);
         String originalQueryString = DuckDBToStringVisitor.asString(select);
 
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
-
         boolean orderBy = Randomly.getBooleanWithRatherLowProbability();
         if (orderBy) {
             select.setOrderByClauses(gen.generateOrderBys());
@@ -36,10 +35,12 @@ public class DuckDBQueryPartitioningWhereTester extends DuckDBQueryPartitioningB
         select.setWhereClause(isNullPredicate);
         String thirdQueryString = DuckDBToStringVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
-                thirdQueryString, combinedString, !orderBy, state, errors);
-        ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
-                state, ComparatorHelper::canonicalizeResultValue);
+        List<ResultSetDigest> resultSets = ComparatorHelper.fetchConcurrently(state,
+                s -> ComparatorHelper.getResultSetFirstColumnDigest(originalQueryString, errors, s),
+                s -> ComparatorHelper.getCombinedResultSetDigest(firstQueryString, secondQueryString, thirdQueryString,
+                        combinedString, !orderBy, s, errors));
+        ComparatorHelper.assumeResultSetsAreEqual(resultSets.get(0), resultSets.get(1), originalQueryString,
+                combinedString, state, ComparatorHelper::canonicalizeResultValue);
     }
 
 }
@@ -1,5 +1,8 @@
 package sqlancer.hsqldb;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -8,6 +11,7 @@ import java.sql.Statement;
 import com.google.auto.service.AutoService;
 
 import sqlancer.AbstractAction;
+import sqlancer.CheckpointingProvider;
 import sqlancer.DatabaseProvider;
 import sqlancer.IgnoreMeException;
 import sqlancer.MainOptions;
@@ -23,9 +27,12 @@ import sqlancer.hsqldb.gen.HSQLDBTableGenerator;
 import sqlancer.hsqldb.gen.HSQLDBUpdateGenerator;
 
 @AutoService(DatabaseProvider.class)
-public class HSQLDBProvider extends SQLProviderAdapter<HSQLDBProvider.HSQLDBGlobalState, HSQLDBOptions> {
+public class HSQLDBProvider extends SQLProviderAdapter<HSQLDBProvider.HSQLDBGlobalState, HSQLDBOptions>
+        implements CheckpointingProvider<HSQLDBProvider.HSQLDBGlobalState, SQLConnection> {
 
     private static final String HSQLDB = "hsqldb";
+    private static final String[] DATABASE_FILE_EXTENSIONS = { ".properties", ".script", ".log", ".data", ".backup",
+            ".lobs" };
 
     public HSQLDBProvider() {
         super(HSQLDBGlobalState.class, HSQLDBOptions.class);
@@ -61,6 +68,40 @@ public class HSQLDBProvider extends SQLProviderAdapter<HSQLDBProvider.HSQLDBGlob
         return new SQLConnection(connection);
     }
 
+    @Override
+    public boolean saveCheckpoint(HSQLDBGlobalState globalState, File checkpoint) throws SQLException {
+        try (Statement s = globalState.getConnection().createStatement()) {
+            s.execute("BACKUP DATABASE TO '" + checkpoint.getAbsolutePath() + File.separator + "' BLOCKING AS FILES");
+        }
+        return true;
+    }
+
+    @Override
+    public SQLConnection restoreCheckpoint(HSQLDBGlobalState globalState, File checkpoint)
+            throws SQLException, IOException {
+        String databaseName = globalState.getDatabaseName();
+        String url = "jdbc:hsqldb:file:" + databaseName;
+        MainOptions options = globalState.getOptions();
+        // the files of the database can only be replaced after the in-process database was shut down
+        try (Connection connection = DriverManager.getConnection(url, options.getUserName(), options.getPassword());
+                Statement s = connection.createStatement()) {
+            s.execute("SHUTDOWN");
+        }
+        File database = new File(databaseName).getAbsoluteFile();
+        for (String extension : DATABASE_FILE_EXTENSIONS) {
+            Files.deleteIfExists(new File(database.getPath() + extension).toPath());
+        }
+        // the backup consists of the files of the database, which have the same names
+        File[] files = checkpoint.listFiles();
+        if (files == null) {
+            throw new IOException("checkpoint not found: " + checkpoint);
+        }
+        for (File file : files) {
+            Files.copy(file.toPath(), new File(database.getParentFile(), file.getName()).toPath());
+        }
+        return new SQLConnection(DriverManager.getConnection(url, options.getUserName(), options.getPassword()));
+    }
+
     @Override
     public String getDBMSName() {
         return HSQLDB;
@@ -6,6 +6,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 import com.google.auto.service.AutoService;
 
@@ -17,6 +18,7 @@ import sqlancer.SQLConnection;
 import sqlancer.SQLGlobalState;
 import sqlancer.SQLProviderAdapter;
 import sqlancer.common.DBMSCommon;
+import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.mariadb.MariaDBProvider.MariaDBGlobalState;
 import sqlancer.mariadb.gen.MariaDBIndexGenerator;
@@ -171,6 +173,27 @@ public class MariaDBProvider extends SQLProviderAdapter<MariaDBGlobalState, Mari
         globalState.getState().logStatement("DROP DATABASE IF EXISTS " + globalState.getDatabaseName());
         globalState.getState().logStatement("CREATE DATABASE " + globalState.getDatabaseName());
         globalState.getState().logStatement("USE " + globalState.getDatabaseName());
+        Connection con = connectToServer(globalState);
+        try (Statement s = con.createStatement()) {
+            s.execute("DROP DATABASE IF EXISTS " + globalState.getDatabaseName());
+        }
+        try (Statement s = con.createStatement()) {
+            s.execute("CREATE DATABASE " + globalState.getDatabaseName());
+        }
+        try (Statement s = con.createStatement()) {
+            s.execute("USE " + globalState.getDatabaseName());
+        }
+        return new SQLConnection(con);
+    }
+
+    @Override
+    public void dropDatabase(MariaDBGlobalState globalState) throws SQLException {
+        try (Connection con = connectToServer(globalState); Statement s = con.createStatement()) {
+            s.execute("DROP DATABASE IF EXISTS " + globalState.getDatabaseName());
+        }
+    }
+
+    private static Connection connectToServer(MariaDBGlobalState globalState) throws SQLException {
         String username = globalState.getOptions().getUserName();
         String password = globalState.getOptions().getPassword();
         String host = globalState.getOptions().getHost();
@@ -182,19 +205,29 @@ public class MariaDBProvider extends SQLProviderAdapter<MariaDBGlobalState, Mari
             port = MariaDBOptions.DEFAULT_PORT;
         }
         String url = String.format("jdbc:mariadb://%s:%d", host, port);
-        Connection con = DriverManager.getConnection(url, username, password);
-        try (Statement s = con.createStatement()) {
-            s.execute("DROP DATABASE IF EXISTS " + globalState.getDatabaseName());
-        }
-        try (Statement s = con.createStatement()) {
-            s.execute("CREATE DATABASE " + globalState.getDatabaseName());
-        }
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    @Override
+    protected SQLConnection createAuxiliaryConnection(MariaDBGlobalState globalState) throws SQLException {
+        Connection con = connectToServer(globalState);
         try (Statement s = con.createStatement()) {
             s.execute("USE " + globalState.getDatabaseName());
+        } catch (SQLException e) {
+            con.close();
+            throw e;
         }
+        con.setReadOnly(true);
         return new SQLConnection(con);
     }
 
+    @Override
+    public boolean isConnectionStatement(Query<?> query) {
+        // the variables are set for the session unless they are set globally (see MariaDBSetGenerator)
+        String statement = query.getQueryString().trim().toUpperCase(Locale.ROOT);
+        return statement.startsWith("SET") && !statement.startsWith("SET GLOBAL");
+    }
+
     @Override
     public String getDBMSName() {
         return "mariadb";
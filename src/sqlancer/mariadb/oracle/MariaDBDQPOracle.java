@@ -4,7 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import sqlancer.ComparatorHelper;
+import sqlancer.DQPExecutor;
 import sqlancer.Randomly;
 import sqlancer.common.oracle.TestOracle;
 import sqlancer.common.query.ExpectedErrors;
@@ -64,30 +64,10 @@ public class MariaDBDQPOracle implements TestOracle<MariaDBGlobalState> {
         select.setFromList(
                 tables.getTables().stream().map(t -> new MariaDBTableReference(t)).collect(Collectors.toList()));
 
-        // Get the result of the first query
         String originalQueryString = MariaDBVisitor.asString(select);
-        List<String> originalResult = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors,
-                state);
 
         List<SQLQueryAdapter> optimizationList = MariaDBSetGenerator.getAllOptimizer(state);
-        for (SQLQueryAdapter optimization : optimizationList) {
-            optimization.execute(state);
-            List<String> result = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
-            try {
-                ComparatorHelper.assumeResultSetsAreEqual(originalResult, result, originalQueryString,
-                        List.of(originalQueryString), state);
-            } catch (AssertionError e) {
-                String assertionMessage = String.format(
-                        "The size of the result sets mismatch (%d and %d)!" + System.lineSeparator()
-                                + "First query: \"%s\", whose cardinality is: %d" + System.lineSeparator()
-                                + "Second query:\"%s\", whose cardinality is: %d",
-                        originalResult.size(), result.size(), originalQueryString, originalResult.size(),
-                        String.join(";", originalQueryString), result.size());
-                assertionMessage += System.lineSeparator() + "The setting: " + optimization.getQueryString();
-                throw new AssertionError(assertionMessage);
-            }
-        }
-
+        DQPExecutor.assumeEqualResults(state, originalQueryString, List.of(), optimizationList, errors);
     }
 
 }
@@ -10,6 +10,7 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Arrays;
+import java.util.List;
 
 import com.google.auto.service.AutoService;
 
@@ -39,6 +40,8 @@ import sqlancer.materialize.gen.MaterializeViewGenerator;
 @AutoService(DatabaseProvider.class)
 public class MaterializeProvider extends SQLProviderAdapter<MaterializeGlobalState, MaterializeOptions> {
 
+    private static final String EXPLAIN = "EXPLAIN OPTIMIZED PLAN FOR ";
+
     /**
      * Generate only data types and expressions that are understood by PQS.
      */
@@ -286,7 +289,7 @@ public class MaterializeProvider extends SQLProviderAdapter<MaterializeGlobalSta
     @Override
     public String getQueryPlan(String selectStr, MaterializeGlobalState globalState) throws Exception {
         String queryPlan = "";
-        String explainQuery = "EXPLAIN OPTIMIZED PLAN FOR " + selectStr;
+        String explainQuery = EXPLAIN + selectStr;
         if (globalState.getOptions().logEachSelect()) {
             globalState.getLogger().writeCurrent(explainQuery);
             try {
@@ -296,35 +299,46 @@ public class MaterializeProvider extends SQLProviderAdapter<MaterializeGlobalSta
             }
         }
         SQLQueryAdapter q = new SQLQueryAdapter(explainQuery);
-        boolean afterProjection = false; // Remove the concrete expression after each Projection operator
         SQLancerResultSet rs = q.executeAndGet(globalState);
         if (rs != null) {
-            while (rs.next()) {
-                String line;
-                BufferedReader bufReader = new BufferedReader(new StringReader(rs.getString(1)));
-                while ((line = bufReader.readLine()) != null) {
-                    String targetQueryPlan = line.trim() + ";"; // Unify format
-                    if (targetQueryPlan.startsWith("Explained Query:")) {
-                        continue;
-                    }
-                    if (afterProjection) {
-                        afterProjection = false;
-                        continue;
-                    }
-                    if (targetQueryPlan.startsWith("Project")) {
-                        afterProjection = true;
-                    }
-                    // Remove all concrete expressions by keywords
-                    if (targetQueryPlan.contains(">") || targetQueryPlan.contains("<") || targetQueryPlan.contains("=")
-                            || targetQueryPlan.contains("*") || targetQueryPlan.contains("+")
-                            || targetQueryPlan.contains("'")) {
-                        continue;
-                    }
-                    queryPlan += targetQueryPlan;
+            queryPlan = parseQueryPlan(rs);
+        }
+
+        return queryPlan;
+    }
+
+    @Override
+    protected List<String> getQueryPlans(List<String> selectStrs, MaterializeGlobalState globalState) throws Exception {
+        return getQueryPlansInBatches(selectStrs, globalState, EXPLAIN, MaterializeProvider::parseQueryPlan);
+    }
+
+    private static String parseQueryPlan(SQLancerResultSet rs) throws SQLException, IOException {
+        String queryPlan = "";
+        boolean afterProjection = false; // Remove the concrete expression after each Projection operator
+        while (rs.next()) {
+            String line;
+            BufferedReader bufReader = new BufferedReader(new StringReader(rs.getString(1)));
+            while ((line = bufReader.readLine()) != null) {
+                String targetQueryPlan = line.trim() + ";"; // Unify format
+                if (targetQueryPlan.startsWith("Explained Query:")) {
+                    continue;
+                }
+                if (afterProjection) {
+                    afterProjection = false;
+                    continue;
+                }
+                if (targetQueryPlan.startsWith("Project")) {
+                    afterProjection = true;
                 }
+                // Remove all concrete expressions by keywords
+                if (targetQueryPlan.contains(">") || targetQueryPlan.contains("<") || targetQueryPlan.contains("=")
+                        || targetQueryPlan.contains("*") || targetQueryPlan.contains("+")
+                        || targetQueryPlan.contains("'")) {
+                    continue;
+                }
+                queryPlan += targetQueryPlan;
             }
         }
-
         return queryPlan;
     }
 
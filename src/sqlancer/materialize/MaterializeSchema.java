@@ -21,6 +21,7 @@ import sqlancer.common.schema.AbstractRowValue;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
+import sqlancer.common.schema.CatalogReader;
 import sqlancer.common.schema.TableIndex;
 import sqlancer.materialize.MaterializeSchema.MaterializeTable;
 import sqlancer.materialize.MaterializeSchema.MaterializeTable.TableType;
@@ -218,6 +219,17 @@ public class MaterializeSchema extends AbstractSchema<MaterializeGlobalState, Ma
 
     public static MaterializeSchema fromConnection(SQLConnection con, String databaseName) throws SQLException {
         try {
+            Map<String, List<MaterializeColumn>> columns = CatalogReader.readByTable(con,
+                    CatalogReader.POSTGRES_COLUMNS_QUERY,
+                    rs -> new MaterializeColumn(rs.getString("column_name"), getColumnType(rs.getString("data_type"))));
+            // org.postgresql.util.PSQLException: ERROR: unknown catalog item 'pg_indexes'
+            Map<String, List<MaterializeIndex>> indexes = CatalogReader.readByTable(con,
+                    "SELECT n.nspname AS table_schema, c2.relname AS table_name, c.relname as indexname FROM pg_catalog.pg_class c LEFT JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace LEFT JOIN pg_catalog.pg_index i ON i.indexrelid = c.oid LEFT JOIN pg_catalog.pg_class c2 ON i.indrelid = c2.oid WHERE c.relkind IN ('i','I','') AND n.nspname <> 'pg_catalog' AND n.nspname !~ '^pg_toast' AND n.nspname <> 'information_schema' AND pg_catalog.pg_table_is_visible(c.oid) ORDER BY indexname;",
+                    rs -> {
+                        String indexName = rs.getString("indexname");
+                        return DBMSCommon.matchesIndexName(indexName) ? MaterializeIndex.create(indexName) : null;
+                    });
+            List<MaterializeStatisticsObject> statistics = new ArrayList<>();
             List<MaterializeTable> databaseTables = new ArrayList<>();
             List<String> indexNames = new ArrayList<>();
             try (Statement s = con.createStatement()) {
@@ -234,10 +246,11 @@ public class MaterializeSchema extends AbstractSchema<MaterializeGlobalState, Ma
                             isInsertable = false;
                         }
                         MaterializeTable.TableType tableType = getTableType(tableTypeSchema);
-                        List<MaterializeColumn> databaseColumns = getTableColumns(con, tableName);
-                        List<MaterializeIndex> indexes = getIndexes(con, tableName);
-                        List<MaterializeStatisticsObject> statistics = getStatistics(con);
-                        MaterializeTable t = new MaterializeTable(tableName, databaseColumns, indexes, tableType,
+                        List<MaterializeColumn> databaseColumns = CatalogReader.getRows(columns, tableTypeSchema,
+                                tableName);
+                        List<MaterializeIndex> tableIndexes = CatalogReader.getRows(indexes, tableTypeSchema,
+                                tableName);
+                        MaterializeTable t = new MaterializeTable(tableName, databaseColumns, tableIndexes, tableType,
                                 statistics, isView, isInsertable);
                         for (MaterializeColumn c : databaseColumns) {
                             c.setTable(t);
@@ -262,10 +275,6 @@ public class MaterializeSchema extends AbstractSchema<MaterializeGlobalState, Ma
         }
     }
 
-    protected static List<MaterializeStatisticsObject> getStatistics(SQLConnection con) throws SQLException {
-        return new ArrayList<>();
-    }
-
     protected static MaterializeTable.TableType getTableType(String tableTypeStr) throws AssertionError {
         MaterializeTable.TableType tableType;
         if (tableTypeStr.contentEquals("public")) {
@@ -278,41 +287,6 @@ public class MaterializeSchema extends AbstractSchema<MaterializeGlobalState, Ma
         return tableType;
     }
 
-    protected static List<MaterializeIndex> getIndexes(SQLConnection con, String tableName) throws SQLException {
-        List<MaterializeIndex> indexes = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s.executeQuery(String
-                    // org.postgresql.util.PSQLException: ERROR: unknown catalog item 'pg_indexes'
-                    .format("SELECT c.relname as indexname FROM pg_catalog.pg_class c LEFT JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace LEFT JOIN pg_catalog.pg_index i ON i.indexrelid = c.oid LEFT JOIN pg_catalog.pg_class c2 ON i.indrelid = c2.oid WHERE c.relkind IN ('i','I','') AND n.nspname <> 'pg_catalog' AND n.nspname !~ '^pg_toast' AND n.nspname <> 'information_schema' AND c2.relname = '%s' AND pg_catalog.pg_table_is_visible(c.oid) ORDER BY indexname;",
-                            tableName))) {
-                while (rs.next()) {
-                    String indexName = rs.getString("indexname");
-                    if (DBMSCommon.matchesIndexName(indexName)) {
-                        indexes.add(MaterializeIndex.create(indexName));
-                    }
-                }
-            }
-        }
-        return indexes;
-    }
-
-    protected static List<MaterializeColumn> getTableColumns(SQLConnection con, String tableName) throws SQLException {
-        List<MaterializeColumn> columns = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s
-                    .executeQuery("select column_name, data_type from INFORMATION_SCHEMA.COLUMNS where table_name = '"
-                            + tableName + "' ORDER BY column_name")) {
-                while (rs.next()) {
-                    String columnName = rs.getString("column_name");
-                    String dataType = rs.getString("data_type");
-                    MaterializeColumn c = new MaterializeColumn(columnName, getColumnType(dataType));
-                    columns.add(c);
-                }
-            }
-        }
-        return columns;
-    }
-
     public MaterializeSchema(List<MaterializeTable> databaseTables, String databaseName, List<String> indexNames) {
         super(databaseTables);
         this.databaseName = databaseName;
@@ -17,4 +17,11 @@ public class MySQLGlobalState extends SQLGlobalState<MySQLOptions, MySQLSchema>
         return getDbmsSpecificOptions().oracles.stream().anyMatch(o -> o == MySQLOracleFactory.PQS);
     }
 
+    @Override
+    public String getResultFingerprintQuery(String queryString) {
+        // the generated select list names its columns ref0, ref1, and so on (see MySQLToStringVisitor), so that the
+        // first column can be referred to without knowing the number of columns; for other queries, the fingerprint
+        // query fails, so that their rows are fetched
+        return "SELECT COUNT(*), COUNT(ref0), SUM(CRC32(ref0)) FROM (" + queryString + ") AS sqlancer_fingerprint";
+    }
 }
@@ -5,6 +5,7 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 import com.google.auto.service.AutoService;
@@ -19,6 +20,7 @@ import sqlancer.SQLProviderAdapter;
 import sqlancer.StatementExecutor;
 import sqlancer.common.DBMSCommon;
 import sqlancer.common.query.ExpectedErrors;
+import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
 import sqlancer.mysql.MySQLOptions.MySQLOracleFactory;
@@ -174,6 +176,31 @@ public class MySQLProvider extends SQLProviderAdapter<MySQLGlobalState, MySQLOpt
 
     @Override
     public SQLConnection createDatabase(MySQLGlobalState globalState) throws SQLException {
+        String databaseName = globalState.getDatabaseName();
+        globalState.getState().logStatement("DROP DATABASE IF EXISTS " + databaseName);
+        globalState.getState().logStatement("CREATE DATABASE " + databaseName);
+        globalState.getState().logStatement("USE " + databaseName);
+        Connection con = connectToServer(globalState);
+        try (Statement s = con.createStatement()) {
+            s.execute("DROP DATABASE IF EXISTS " + databaseName);
+        }
+        try (Statement s = con.createStatement()) {
+            s.execute("CREATE DATABASE " + databaseName);
+        }
+        try (Statement s = con.createStatement()) {
+            s.execute("USE " + databaseName);
+        }
+        return new SQLConnection(con);
+    }
+
+    @Override
+    public void dropDatabase(MySQLGlobalState globalState) throws SQLException {
+        try (Connection con = connectToServer(globalState); Statement s = con.createStatement()) {
+            s.execute("DROP DATABASE IF EXISTS " + globalState.getDatabaseName());
+        }
+    }
+
+    private static Connection connectToServer(MySQLGlobalState globalState) throws SQLException {
         String username = globalState.getOptions().getUserName();
         String password = globalState.getOptions().getPassword();
         String host = globalState.getOptions().getHost();
@@ -184,25 +211,31 @@ public class MySQLProvider extends SQLProviderAdapter<MySQLGlobalState, MySQLOpt
         if (port == MainOptions.NO_SET_PORT) {
             port = MySQLOptions.DEFAULT_PORT;
         }
-        String databaseName = globalState.getDatabaseName();
-        globalState.getState().logStatement("DROP DATABASE IF EXISTS " + databaseName);
-        globalState.getState().logStatement("CREATE DATABASE " + databaseName);
-        globalState.getState().logStatement("USE " + databaseName);
         String url = String.format("jdbc:mysql://%s:%d?serverTimezone=UTC&useSSL=false&allowPublicKeyRetrieval=true",
                 host, port);
-        Connection con = DriverManager.getConnection(url, username, password);
-        try (Statement s = con.createStatement()) {
-            s.execute("DROP DATABASE IF EXISTS " + databaseName);
-        }
-        try (Statement s = con.createStatement()) {
-            s.execute("CREATE DATABASE " + databaseName);
-        }
+        return DriverManager.getConnection(url, username, password);
+    }
+
+    @Override
+    protected SQLConnection createAuxiliaryConnection(MySQLGlobalState globalState) throws SQLException {
+        Connection con = connectToServer(globalState);
         try (Statement s = con.createStatement()) {
-            s.execute("USE " + databaseName);
+            s.execute("USE " + globalState.getDatabaseName());
+        } catch (SQLException e) {
+            con.close();
+            throw e;
         }
+        con.setReadOnly(true);
         return new SQLConnection(con);
     }
 
+    @Override
+    public boolean isConnectionStatement(Query<?> query) {
+        // the variables are set for the session unless they are set globally (see MySQLSetGenerator)
+        String statement = query.getQueryString().trim().toUpperCase(Locale.ROOT);
+        return statement.startsWith("SET") && !statement.startsWith("SET GLOBAL");
+    }
+
     @Override
     public String getDBMSName() {
         return "mysql";
@@ -17,6 +17,7 @@ import sqlancer.common.schema.AbstractRowValue;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
+import sqlancer.common.schema.PivotRowSampler;
 import sqlancer.common.schema.TableIndex;
 import sqlancer.mysql.MySQLSchema.MySQLTable;
 import sqlancer.mysql.MySQLSchema.MySQLTable.MySQLEngine;
@@ -88,17 +89,17 @@ public class MySQLSchema extends AbstractSchema<MySQLGlobalState, MySQLTable> {
             super(tables);
         }
 
-        public MySQLRowValue getRandomRowValue(SQLConnection con) throws SQLException {
-            String randomRow = String.format("SELECT %s FROM %s ORDER BY RAND() LIMIT 1", columnNamesAsString(
+        public MySQLRowValue getRandomRowValue(MySQLGlobalState globalState) throws SQLException {
+            String randomRow = String.format("SELECT %s FROM %s", columnNamesAsString(
                     c -> c.getTable().getName() + "." + c.getName() + " AS " + c.getTable().getName() + c.getName()),
                     // columnNamesAsString(c -> "typeof(" + c.getTable().getName() + "." +
                     // c.getName() + ")")
-                    tableNamesAsString());
+                    PivotRowSampler.getRandomRowFromClause(globalState, getTables()));
             Map<MySQLColumn, MySQLConstant> values = new HashMap<>();
-            try (Statement s = con.createStatement()) {
+            try (Statement s = globalState.getConnection().createStatement()) {
                 ResultSet randomRowValues = s.executeQuery(randomRow);
                 if (!randomRowValues.next()) {
-                    throw new AssertionError("could not find random row! " + randomRow + "\n");
+                    throw PivotRowSampler.rowNotFound(globalState, getTables());
                 }
                 for (int i = 0; i < getColumns().size(); i++) {
                     MySQLColumn column = getColumns().get(i);
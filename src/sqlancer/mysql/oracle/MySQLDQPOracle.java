@@ -4,7 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import sqlancer.ComparatorHelper;
+import sqlancer.DQPExecutor;
 import sqlancer.Randomly;
 import sqlancer.common.oracle.TestOracle;
 import sqlancer.common.query.ExpectedErrors;
@@ -66,39 +66,19 @@ public class MySQLDQPOracle implements TestOracle<MySQLGlobalState> {
                 .collect(Collectors.toList());
         select.setFromList(tableList);
 
-        // Get the result of the first query
         String originalQueryString = MySQLVisitor.asString(select);
-        List<String> originalResult = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors,
-                state);
 
         // Check hints
         List<MySQLText> hintList = MySQLHintGenerator.generateAllHints(select, tables.getTables());
+        List<String> hintedQueryStrings = new ArrayList<>(hintList.size());
         for (MySQLText hint : hintList) {
             select.setHint(hint);
-            String queryString = MySQLVisitor.asString(select);
-            List<String> result = ComparatorHelper.getResultSetFirstColumnAsString(queryString, errors, state);
-            ComparatorHelper.assumeResultSetsAreEqual(originalResult, result, originalQueryString, List.of(queryString),
-                    state);
+            hintedQueryStrings.add(MySQLVisitor.asString(select));
         }
 
         // Check optimizer variables
         List<SQLQueryAdapter> optimizationList = MySQLSetGenerator.getAllOptimizer(state);
-        for (SQLQueryAdapter optimization : optimizationList) {
-            optimization.execute(state);
-            List<String> result = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
-            try {
-                ComparatorHelper.assumeResultSetsAreEqual(originalResult, result, originalQueryString,
-                        List.of(originalQueryString), state);
-            } catch (AssertionError e) {
-                String assertionMessage = String.format(
-                        "The size of the result sets mismatch (%d and %d)!" + System.lineSeparator()
-                                + "First query: \"%s\", whose cardinality is: %d" + System.lineSeparator()
-                                + "Second query:\"%s\", whose cardinality is: %d",
-                        originalResult.size(), result.size(), originalQueryString, originalResult.size(),
-                        String.join(";", originalQueryString), result.size());
-                assertionMessage += System.lineSeparator() + "The setting: " + optimization.getQueryString();
-                throw new AssertionError(assertionMessage);
-            }
-        }
+        DQPExecutor.assumeEqualResults(state, originalQueryString, hintedQueryStrings, optimizationList, errors);
     }
+
 }
@@ -7,6 +7,8 @@ import java.util.List;
 
 import sqlancer.ComparatorHelper;
 import sqlancer.Randomly;
+import sqlancer.ResultRow;
+import sqlancer.ResultSetDigest;
 import sqlancer.mysql.MySQLGlobalState;
 import sqlancer.mysql.MySQLVisitor;
 
@@ -22,7 +24,14 @@ public class MySQLTLPWhereOracle extends MySQLQueryPartitioningBase {
         select.setWhereClause(null);
         String originalQueryString = MySQLVisitor.asString(select);
 
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
+        boolean compareAllColumns = state.getOptions().compareAllColumns();
+        List<ResultRow> resultRows = null;
+        ResultSetDigest resultSet = null;
+        if (compareAllColumns) {
+            resultRows = ComparatorHelper.getResultSetRows(originalQueryString, errors, state);
+        } else {
+            resultSet = ComparatorHelper.getResultSetFirstColumnDigest(originalQueryString, errors, state);
+        }
 
         if (Randomly.getBoolean()) {
             select.setOrderByClauses(gen.generateOrderBys());
@@ -35,10 +44,17 @@ public class MySQLTLPWhereOracle extends MySQLQueryPartitioningBase {
         select.setWhereClause(isNullPredicate);
         String thirdQueryString = MySQLVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
-                thirdQueryString, combinedString, Randomly.getBoolean(), state, errors);
-        ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
-                state);
+        if (compareAllColumns) {
+            List<ResultRow> secondResultRows = ComparatorHelper.getCombinedResultSetRows(firstQueryString,
+                    secondQueryString, thirdQueryString, combinedString, Randomly.getBoolean(), state, errors);
+            ComparatorHelper.assumeResultRowsAreEqual(resultRows, secondResultRows, originalQueryString, combinedString,
+                    state);
+        } else {
+            ResultSetDigest secondResultSet = ComparatorHelper.getCombinedResultSetDigest(firstQueryString,
+                    secondQueryString, thirdQueryString, combinedString, Randomly.getBoolean(), state, errors);
+            ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
+                    state);
+        }
     }
 
 }
@@ -9,7 +9,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
 import sqlancer.SQLConnection;
 import sqlancer.common.schema.AbstractRelationalTable;
@@ -17,6 +16,7 @@ import sqlancer.common.schema.AbstractRowValue;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
+import sqlancer.common.schema.PivotRowSampler;
 import sqlancer.common.schema.TableIndex;
 import sqlancer.oceanbase.OceanBaseSchema.OceanBaseTable;
 import sqlancer.oceanbase.ast.OceanBaseConstant;
@@ -97,20 +97,20 @@ public class OceanBaseSchema extends AbstractSchema<OceanBaseGlobalState, OceanB
             super(tables);
         }
 
-        public OceanBaseRowValue getRandomRowValue(SQLConnection con) throws SQLException {
-            String randomRow = String.format("SELECT %s FROM %s ORDER BY RAND() LIMIT 1",
+        public OceanBaseRowValue getRandomRowValue(OceanBaseGlobalState globalState) throws SQLException {
+            String randomRow = String.format("SELECT %s FROM %s",
                     columnNamesAsString(c -> c.getType() == OceanBaseDataType.FLOAT || c.isZeroFill()
                             ? "concat(" + c.getTable().getName() + "." + c.getName() + ",'')" + " AS "
                                     + c.getTable().getName() + c.getName()
                             : c.getTable().getName() + "." + c.getName() + " AS " + c.getTable().getName()
                                     + c.getName()),
-                    tableNamesAsString());
+                    PivotRowSampler.getRandomRowFromClause(globalState, getTables()));
             // cast float and zerofill as varchar
             Map<OceanBaseColumn, OceanBaseConstant> values = new HashMap<>();
-            try (Statement s = con.createStatement()) {
+            try (Statement s = globalState.getConnection().createStatement()) {
                 ResultSet randomRowValues = s.executeQuery(randomRow);
                 if (!randomRowValues.next()) {
-                    throw new IgnoreMeException();
+                    throw PivotRowSampler.rowNotFound(globalState, getTables());
                 }
                 for (int i = 0; i < getColumns().size(); i++) {
                     OceanBaseColumn column = getColumns().get(i);
@@ -52,7 +52,7 @@ public class OceanBasePivotedQuerySynthesisOracle
         OceanBaseSelect selectStatement = new OceanBaseSelect();
         selectStatement.setSelectType(Randomly.fromOptions(OceanBaseSelect.SelectType.values()));
         columns = randomFromTables.getColumns();
-        pivotRow = randomFromTables.getRandomRowValue(globalState.getConnection());
+        pivotRow = randomFromTables.getRandomRowValue(globalState);
 
         selectStatement
                 .setFromList(tables.stream().map(t -> new OceanBaseTableReference(t)).collect(Collectors.toList()));
@@ -150,4 +150,10 @@ public class PostgresGlobalState extends SQLGlobalState<PostgresOptions, Postgre
         return this.allowedFunctionTypes;
     }
 
+    @Override
+    public String getResultFingerprintQuery(String queryString) {
+        // the column list renames only the first column, whose values are compared
+        return "SELECT COUNT(*), COUNT(sqlancer_value), SUM(hashtext(sqlancer_value::text)) FROM (" + queryString
+                + ") AS sqlancer_fingerprint(sqlancer_value)";
+    }
 }
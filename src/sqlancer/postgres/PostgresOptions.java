@@ -40,6 +40,9 @@ public class PostgresOptions implements DBMSSpecificOptions<PostgresOracleFactor
     public String connectionURL = String.format("postgresql://%s:%d/test", PostgresOptions.DEFAULT_HOST,
             PostgresOptions.DEFAULT_PORT);
 
+    @Parameter(names = "--seed-databases", description = "The number of seed databases that are generated once and then used as templates, from which each test database is cloned and further modified (0 to generate each test database from scratch)")
+    public int seedDatabases;
+
     @Parameter(names = "--extensions", description = "Specifies a comma-separated list of extension names to be created in each test database", arity = 1)
     public String extensions = "";
 
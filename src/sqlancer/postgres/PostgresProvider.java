@@ -4,9 +4,15 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.auto.service.AutoService;
 
@@ -19,10 +25,12 @@ import sqlancer.SQLConnection;
 import sqlancer.SQLProviderAdapter;
 import sqlancer.StatementExecutor;
 import sqlancer.common.DBMSCommon;
+import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
 import sqlancer.common.query.SQLancerResultSet;
 import sqlancer.postgres.PostgresOptions.PostgresOracleFactory;
+import sqlancer.postgres.PostgresSeedDatabases.PostgresSeedDatabase;
 import sqlancer.postgres.gen.PostgresAlterTableGenerator;
 import sqlancer.postgres.gen.PostgresAnalyzeGenerator;
 import sqlancer.postgres.gen.PostgresClusterGenerator;
@@ -63,8 +71,20 @@ public class PostgresProvider extends SQLProviderAdapter<PostgresGlobalState, Po
     protected String testURL;
     protected String databaseName;
     protected String createDatabaseCommand;
+    protected String createDatabaseOptions;
     protected String extensionsList;
 
+    // the database that the test databases are created from
+    private static final String ENTRY_DATABASE_NAME = "test";
+
+    // the statements that created each database whose connection can be returned to the connection pool (see
+    // MainOptions#poolConnections), which are logged again when the database is reused; shared across all threads
+    private static final Map<String, List<String>> CREATION_STATEMENTS = new ConcurrentHashMap<>();
+
+    // see PostgresOptions#seedDatabases
+    private PostgresSeedDatabase clonedSeedDatabase;
+    private int seedDatabaseToCreate = -1;
+
     public PostgresProvider() {
         super(PostgresGlobalState.class, PostgresOptions.class);
     }
@@ -193,6 +213,38 @@ public class PostgresProvider extends SQLProviderAdapter<PostgresGlobalState, Po
 
     @Override
     public void generateDatabase(PostgresGlobalState globalState) throws Exception {
+        if (clonedSeedDatabase != null) {
+            // the statements that generated the seed database reproduce its clone
+            for (Query<?> statement : clonedSeedDatabase.getStatements()) {
+                globalState.getState().logStatement(statement);
+            }
+            discardSession(globalState);
+            readFunctions(globalState);
+            prepareTables(globalState);
+            return;
+        }
+        if (seedDatabaseToCreate == -1 || !PostgresSeedDatabases.reserve(seedDatabaseToCreate)) {
+            generateDatabaseFromScratch(globalState);
+            return;
+        }
+        int nrStatementsBeforeGeneration = globalState.getState().getStatements().size();
+        boolean generated = false;
+        try {
+            generateDatabaseFromScratch(globalState);
+            generated = true;
+        } finally {
+            if (!generated) {
+                PostgresSeedDatabases.creationFailed(seedDatabaseToCreate);
+            }
+        }
+        List<Query<?>> statements = globalState.getState().getStatements();
+        createSeedDatabase(globalState, statements.subList(nrStatementsBeforeGeneration, statements.size()));
+        discardSession(globalState);
+        // the tables were already prepared; only the session settings of prepareTables are lost
+        setStatementTimeout(globalState);
+    }
+
+    private void generateDatabaseFromScratch(PostgresGlobalState globalState) throws Exception {
         readFunctions(globalState);
         createTables(globalState, Randomly.fromOptions(4, 5, 6));
         prepareTables(globalState);
@@ -213,24 +265,149 @@ public class PostgresProvider extends SQLProviderAdapter<PostgresGlobalState, Po
         }
     }
 
+    /**
+     * Creates the seed database that this run reserved as a copy of the test database. As a database with active
+     * connections cannot be used as a template, the connection to the test database is closed and re-established, which
+     * resets the session.
+     *
+     * @param globalState
+     *            the state of the current run
+     * @param statements
+     *            the statements that generated the test database, which are logged in place of cloning the seed
+     *            database
+     *
+     * @throws SQLException
+     *             if the connection to the test database cannot be closed or re-established
+     */
+    private void createSeedDatabase(PostgresGlobalState globalState, List<Query<?>> statements) throws SQLException {
+        String seedName = PostgresSeedDatabases.getName(globalState.getOptions().getDatabasePrefix(),
+                seedDatabaseToCreate);
+        SQLConnection testConnection = globalState.getConnection();
+        testConnection.disconnect();
+        try (Connection con = DriverManager.getConnection("jdbc:" + entryURL, username, password);
+                Statement s = con.createStatement()) {
+            try {
+                s.execute("ALTER DATABASE " + seedName + " IS_TEMPLATE false");
+            } catch (SQLException e) {
+                // the seed database does not exist yet
+            }
+            s.execute("DROP DATABASE IF EXISTS " + seedName);
+            s.execute("CREATE DATABASE " + seedName + " TEMPLATE " + databaseName);
+            s.execute("ALTER DATABASE " + seedName + " IS_TEMPLATE true");
+            PostgresSeedDatabases.created(seedDatabaseToCreate,
+                    new PostgresSeedDatabase(seedName, createDatabaseOptions, statements));
+        } catch (SQLException e) {
+            PostgresSeedDatabases.creationFailed(seedDatabaseToCreate);
+        } finally {
+            // the connection keeps its statement cache settings and is still closed by the caller of createDatabase
+            testConnection.reconnect(DriverManager.getConnection("jdbc:" + testURL, username, password));
+        }
+    }
+
+    // the session state of the generation, including temporary tables, is not part of a seed database, so it is
+    // discarded also in the logs
+    private void discardSession(PostgresGlobalState globalState) throws Exception {
+        globalState.executeStatement(new SQLQueryAdapter("DISCARD ALL", true));
+    }
+
     @Override
     public SQLConnection createDatabase(PostgresGlobalState globalState) throws SQLException {
+        SQLConnection con = takePooledConnection(globalState);
+        if (con == null) {
+            con = makePoolable(globalState, createFreshDatabase(globalState));
+        }
+        return con;
+    }
+
+    @Override
+    public void dropDatabase(PostgresGlobalState globalState) throws SQLException {
+        // a connection to the database that was returned to the connection pool would prevent dropping it
+        closePooledConnection(globalState);
+        if (entryURL == null) {
+            // this provider neither created nor reused a database
+            return;
+        }
+        try (Connection con = DriverManager.getConnection("jdbc:" + entryURL, username, password);
+                Statement s = con.createStatement()) {
+            s.execute("DROP DATABASE IF EXISTS " + globalState.getDatabaseName());
+        }
+    }
+
+    @Override
+    protected boolean supportsConnectionPooling() {
+        return true;
+    }
+
+    @Override
+    protected boolean resetPooledDatabase(PostgresGlobalState globalState, SQLConnection con) throws SQLException {
+        databaseName = globalState.getDatabaseName();
+        List<String> creationStatements = CREATION_STATEMENTS.get(databaseName);
+        if (creationStatements == null) {
+            return false;
+        }
+        // the encoding and the locale of a database cannot be changed, so the options it was created with are reused
+        createDatabaseCommand = creationStatements.get(creationStatements.size() - 1);
+        createDatabaseOptions = createDatabaseCommand.substring(getCreateDatabaseCommand(databaseName, "").length());
+        // the connection URLs are needed for dropping the database and for auxiliary connections
+        setConnectionURLs(globalState);
+        List<String> statements = Arrays.asList("ROLLBACK", "DISCARD ALL", "DROP SCHEMA IF EXISTS extensions CASCADE",
+                "DROP SCHEMA public CASCADE", "CREATE SCHEMA public");
+        for (String statement : statements) {
+            try (Statement s = con.createStatement()) {
+                s.execute(statement);
+            }
+        }
+        for (String statement : creationStatements) {
+            globalState.getState().logStatement(statement);
+        }
+        globalState.getState().logStatement(String.format("\\c %s;", databaseName));
+        for (String statement : statements) {
+            globalState.getState().logStatement(statement);
+        }
+        return true;
+    }
+
+    protected SQLConnection createFreshDatabase(PostgresGlobalState globalState) throws SQLException {
         if (globalState.getDbmsSpecificOptions().getTestOracleFactory().stream()
                 .anyMatch((o) -> o == PostgresOracleFactory.PQS)) {
             generateOnlyKnown = true;
         }
 
+        setConnectionURLs(globalState);
+        Connection con = DriverManager.getConnection("jdbc:" + entryURL, username, password);
+        createDatabaseOptions = getCreateDatabaseOptions(globalState);
+        createDatabaseCommand = getCreateDatabaseCommand(databaseName, createDatabaseOptions);
+        try (Statement s = con.createStatement()) {
+            s.execute("DROP DATABASE IF EXISTS " + databaseName);
+        }
+        List<String> creationStatements = new ArrayList<>();
+        creationStatements.add(String.format("\\c %s;", ENTRY_DATABASE_NAME));
+        creationStatements.add("DROP DATABASE IF EXISTS " + databaseName);
+        creationStatements.addAll(createOrCloneDatabase(globalState, con));
+        for (String statement : creationStatements) {
+            globalState.getState().logStatement(statement);
+        }
+        con.close();
+        CREATION_STATEMENTS.put(databaseName, creationStatements);
+        globalState.getState().logStatement(String.format("\\c %s;", databaseName));
+
+        con = DriverManager.getConnection("jdbc:" + testURL, username, password);
+        return new SQLConnection(con);
+    }
+
+    // sets the credentials, the URL of the database that the test database is created from, and the URL of the test
+    // database
+    private void setConnectionURLs(PostgresGlobalState globalState) {
         username = globalState.getOptions().getUserName();
         password = globalState.getOptions().getPassword();
         host = globalState.getOptions().getHost();
         port = globalState.getOptions().getPort();
-        entryPath = "/test";
+        entryPath = "/" + ENTRY_DATABASE_NAME;
         entryURL = globalState.getDbmsSpecificOptions().connectionURL;
         // trim URL to exclude "jdbc:"
         if (entryURL.startsWith("jdbc:")) {
             entryURL = entryURL.substring(5);
         }
-        String entryDatabaseName = entryPath.substring(1);
         databaseName = globalState.getDatabaseName();
 
         try {
@@ -261,30 +438,42 @@ public class PostgresProvider extends SQLProviderAdapter<PostgresGlobalState, Po
             if (port == MainOptions.NO_SET_PORT) {
                 port = uri.getPort();
             }
-            entryURL = String.format("%s://%s:%d/%s", uri.getScheme(), host, port, entryDatabaseName);
+            entryURL = String.format("%s://%s:%d/%s", uri.getScheme(), host, port, ENTRY_DATABASE_NAME);
         } catch (URISyntaxException e) {
             throw new AssertionError(e);
         }
-        Connection con = DriverManager.getConnection("jdbc:" + entryURL, username, password);
-        globalState.getState().logStatement(String.format("\\c %s;", entryDatabaseName));
-        globalState.getState().logStatement("DROP DATABASE IF EXISTS " + databaseName);
-        createDatabaseCommand = getCreateDatabaseCommand(globalState);
-        globalState.getState().logStatement(createDatabaseCommand);
-        try (Statement s = con.createStatement()) {
-            s.execute("DROP DATABASE IF EXISTS " + databaseName);
+        int databaseIndex = entryURL.indexOf(ENTRY_DATABASE_NAME);
+        String preDatabaseName = entryURL.substring(0, databaseIndex);
+        String postDatabaseName = entryURL.substring(databaseIndex + ENTRY_DATABASE_NAME.length());
+        testURL = preDatabaseName + databaseName + postDatabaseName;
+    }
+
+    // returns the statements that are logged for creating the database
+    private List<String> createOrCloneDatabase(PostgresGlobalState globalState, Connection con) throws SQLException {
+        int nrSeedDatabases = globalState.getDbmsSpecificOptions().seedDatabases;
+        if (nrSeedDatabases > 0) {
+            int index = globalState.getRandomly().getInteger(0, nrSeedDatabases);
+            PostgresSeedDatabase seed = PostgresSeedDatabases.get(index);
+            if (seed != null) {
+                String cloneCommand = "CREATE DATABASE " + databaseName + " TEMPLATE " + seed.getName();
+                try (Statement s = con.createStatement()) {
+                    s.execute(cloneCommand);
+                    clonedSeedDatabase = seed;
+                    // the seed database might not exist when the log is replayed, so the database is created with the
+                    // options of the seed database instead, and generateDatabase logs the statements that generated it
+                    return List.of("-- " + cloneCommand,
+                            getCreateDatabaseCommand(databaseName, seed.getCreateDatabaseOptions()));
+                } catch (SQLException e) {
+                    // for example, the seed database was dropped; create the database from scratch
+                }
+            } else {
+                seedDatabaseToCreate = index;
+            }
         }
         try (Statement s = con.createStatement()) {
             s.execute(createDatabaseCommand);
         }
-        con.close();
-        int databaseIndex = entryURL.indexOf(entryDatabaseName);
-        String preDatabaseName = entryURL.substring(0, databaseIndex);
-        String postDatabaseName = entryURL.substring(databaseIndex + entryDatabaseName.length());
-        testURL = preDatabaseName + databaseName + postDatabaseName;
-        globalState.getState().logStatement(String.format("\\c %s;", databaseName));
-
-        con = DriverManager.getConnection("jdbc:" + testURL, username, password);
-        return new SQLConnection(con);
+        return List.of(createDatabaseCommand);
     }
 
     protected void readFunctions(PostgresGlobalState globalState) throws SQLException {
@@ -319,12 +508,20 @@ public class PostgresProvider extends SQLProviderAdapter<PostgresGlobalState, Po
                 });
         se.executeStatements();
         globalState.executeStatement(new SQLQueryAdapter("COMMIT", true));
+        setStatementTimeout(globalState);
+    }
+
+    private void setStatementTimeout(PostgresGlobalState globalState) throws Exception {
         globalState.executeStatement(new SQLQueryAdapter("SET SESSION statement_timeout = 5000;\n"));
     }
 
-    private String getCreateDatabaseCommand(PostgresGlobalState state) {
+    private static String getCreateDatabaseCommand(String name, String options) {
+        return "CREATE DATABASE " + name + " " + options;
+    }
+
+    // the part of the CREATE DATABASE command after the database name
+    private String getCreateDatabaseOptions(PostgresGlobalState state) {
         StringBuilder sb = new StringBuilder();
-        sb.append("CREATE DATABASE " + databaseName + " ");
         if (((PostgresOptions) state.getDbmsSpecificOptions()).testCollations) {
             if (Randomly.getBoolean()) {
                 if (Randomly.getBoolean()) {
@@ -345,6 +542,35 @@ public class PostgresProvider extends SQLProviderAdapter<PostgresGlobalState, Po
         return sb.toString();
     }
 
+    @Override
+    protected SQLConnection createAuxiliaryConnection(PostgresGlobalState globalState) throws SQLException {
+        if (testURL == null) {
+            // this provider neither created nor reused a database
+            return null;
+        }
+        Connection con = DriverManager.getConnection("jdbc:" + testURL, username, password);
+        con.setReadOnly(true);
+        return new SQLConnection(con);
+    }
+
+    @Override
+    protected boolean canUseAuxiliaryConnections(PostgresGlobalState globalState) throws SQLException {
+        // the start of the transaction differs from that of the statement only within a transaction block, and the
+        // temporary tables are visible only to the connection that created them
+        String query = "SELECT now() = statement_timestamp() AND NOT EXISTS "
+                + "(SELECT 1 FROM pg_class WHERE relnamespace = pg_my_temp_schema())";
+        try (Statement s = globalState.getConnection().createStatement(); ResultSet rs = s.executeQuery(query)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    @Override
+    public boolean isConnectionStatement(Query<?> query) {
+        // the settings are changed for the session (see PostgresSetGenerator)
+        String statement = query.getQueryString().trim().toUpperCase(Locale.ROOT);
+        return statement.startsWith("SET") || statement.startsWith("RESET") || statement.startsWith("DISCARD");
+    }
+
     @Override
     public String getDBMSName() {
         return "postgres";
@@ -21,6 +21,8 @@ import sqlancer.common.schema.AbstractRowValue;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
+import sqlancer.common.schema.CatalogReader;
+import sqlancer.common.schema.PivotRowSampler;
 import sqlancer.common.schema.TableIndex;
 import sqlancer.postgres.PostgresSchema.PostgresTable;
 import sqlancer.postgres.PostgresSchema.PostgresTable.TableType;
@@ -66,17 +68,17 @@ public class PostgresSchema extends AbstractSchema<PostgresGlobalState, Postgres
             super(tables);
         }
 
-        public PostgresRowValue getRandomRowValue(SQLConnection con) throws SQLException {
-            String randomRow = String.format("SELECT %s FROM %s ORDER BY RANDOM() LIMIT 1", columnNamesAsString(
+        public PostgresRowValue getRandomRowValue(PostgresGlobalState globalState) throws SQLException {
+            String randomRow = String.format("SELECT %s FROM %s", columnNamesAsString(
                     c -> c.getTable().getName() + "." + c.getName() + " AS " + c.getTable().getName() + c.getName()),
                     // columnNamesAsString(c -> "typeof(" + c.getTable().getName() + "." +
                     // c.getName() + ")")
-                    tableNamesAsString());
+                    PivotRowSampler.getRandomRowFromClause(globalState, getTables()));
             Map<PostgresColumn, PostgresConstant> values = new HashMap<>();
-            try (Statement s = con.createStatement()) {
+            try (Statement s = globalState.getConnection().createStatement()) {
                 ResultSet randomRowValues = s.executeQuery(randomRow);
                 if (!randomRowValues.next()) {
-                    throw new AssertionError("could not find random row! " + randomRow + "\n");
+                    throw PivotRowSampler.rowNotFound(globalState, getTables());
                 }
                 for (int i = 0; i < getColumns().size(); i++) {
                     PostgresColumn column = getColumns().get(i);
@@ -222,10 +224,19 @@ public class PostgresSchema extends AbstractSchema<PostgresGlobalState, Postgres
 
     public static PostgresSchema fromConnection(SQLConnection con, String databaseName) throws SQLException {
         try {
+            Map<String, List<PostgresColumn>> columns = CatalogReader.readByTable(con,
+                    CatalogReader.POSTGRES_COLUMNS_QUERY,
+                    rs -> new PostgresColumn(rs.getString("column_name"), getColumnType(rs.getString("data_type"))));
+            Map<String, List<PostgresIndex>> indexes = CatalogReader.readByTable(con,
+                    CatalogReader.POSTGRES_INDEXES_QUERY, rs -> {
+                        String indexName = rs.getString("indexname");
+                        return DBMSCommon.matchesIndexName(indexName) ? PostgresIndex.create(indexName) : null;
+                    });
+            List<PostgresStatisticsObject> statistics = CatalogReader.read(con, CatalogReader.POSTGRES_STATISTICS_QUERY,
+                    rs -> new PostgresStatisticsObject(rs.getString("stxname")));
             List<PostgresTable> databaseTables = new ArrayList<>();
             try (Statement s = con.createStatement()) {
-                try (ResultSet rs = s.executeQuery(
-                        "SELECT table_name, table_schema, table_type, is_insertable_into FROM information_schema.tables WHERE table_schema='public' OR table_schema LIKE 'pg_temp_%' ORDER BY table_name;")) {
+                try (ResultSet rs = s.executeQuery(CatalogReader.POSTGRES_TABLES_QUERY)) {
                     while (rs.next()) {
                         String tableName = rs.getString("table_name");
                         String tableTypeSchema = rs.getString("table_schema");
@@ -236,11 +247,11 @@ public class PostgresSchema extends AbstractSchema<PostgresGlobalState, Postgres
                                                                     // tableTypeStr.contains("LOCAL TEMPORARY") &&
                                                                     // !isInsertable;
                         PostgresTable.TableType tableType = getTableType(tableTypeSchema);
-                        List<PostgresColumn> databaseColumns = getTableColumns(con, tableName);
-                        List<PostgresIndex> indexes = getIndexes(con, tableName);
-                        List<PostgresStatisticsObject> statistics = getStatistics(con);
-                        PostgresTable t = new PostgresTable(tableName, databaseColumns, indexes, tableType, statistics,
-                                isView, isInsertable);
+                        List<PostgresColumn> databaseColumns = CatalogReader.getRows(columns, tableTypeSchema,
+                                tableName);
+                        List<PostgresIndex> tableIndexes = CatalogReader.getRows(indexes, tableTypeSchema, tableName);
+                        PostgresTable t = new PostgresTable(tableName, databaseColumns, tableIndexes, tableType,
+                                statistics, isView, isInsertable);
                         for (PostgresColumn c : databaseColumns) {
                             c.setTable(t);
                         }
@@ -254,18 +265,6 @@ public class PostgresSchema extends AbstractSchema<PostgresGlobalState, Postgres
         }
     }
 
-    protected static List<PostgresStatisticsObject> getStatistics(SQLConnection con) throws SQLException {
-        List<PostgresStatisticsObject> statistics = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s.executeQuery("SELECT stxname FROM pg_statistic_ext ORDER BY stxname;")) {
-                while (rs.next()) {
-                    statistics.add(new PostgresStatisticsObject(rs.getString("stxname")));
-                }
-            }
-        }
-        return statistics;
-    }
-
     protected static PostgresTable.TableType getTableType(String tableTypeStr) throws AssertionError {
         PostgresTable.TableType tableType;
         if (tableTypeStr.contentEquals("public")) {
@@ -278,39 +277,6 @@ public class PostgresSchema extends AbstractSchema<PostgresGlobalState, Postgres
         return tableType;
     }
 
-    protected static List<PostgresIndex> getIndexes(SQLConnection con, String tableName) throws SQLException {
-        List<PostgresIndex> indexes = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s.executeQuery(String
-                    .format("SELECT indexname FROM pg_indexes WHERE tablename='%s' ORDER BY indexname;", tableName))) {
-                while (rs.next()) {
-                    String indexName = rs.getString("indexname");
-                    if (DBMSCommon.matchesIndexName(indexName)) {
-                        indexes.add(PostgresIndex.create(indexName));
-                    }
-                }
-            }
-        }
-        return indexes;
-    }
-
-    protected static List<PostgresColumn> getTableColumns(SQLConnection con, String tableName) throws SQLException {
-        List<PostgresColumn> columns = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s
-                    .executeQuery("select column_name, data_type from INFORMATION_SCHEMA.COLUMNS where table_name = '"
-                            + tableName + "' ORDER BY column_name")) {
-                while (rs.next()) {
-                    String columnName = rs.getString("column_name");
-                    String dataType = rs.getString("data_type");
-                    PostgresColumn c = new PostgresColumn(columnName, getColumnType(dataType));
-                    columns.add(c);
-                }
-            }
-        }
-        return columns;
-    }
-
     public PostgresSchema(List<PostgresTable> databaseTables, String databaseName) {
         super(databaseTables);
         this.databaseName = databaseName;
@@ -0,0 +1,89 @@
+package sqlancer.postgres;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import sqlancer.common.query.Query;
+
+/**
+ * Keeps track of the template databases from which PostgreSQL test databases are cloned (see
+ * {@link PostgresOptions#seedDatabases}), across all threads. Each seed database is created once, by the first run that
+ * selects it; the statements that generated it are kept, so that they can be logged in place of the clone operation.
+ */
+final class PostgresSeedDatabases {
+
+    private static final Map<Integer, PostgresSeedDatabase> SEEDS = new ConcurrentHashMap<>();
+    private static final Set<Integer> SEEDS_IN_CREATION = ConcurrentHashMap.newKeySet();
+
+    private PostgresSeedDatabases() {
+    }
+
+    static final class PostgresSeedDatabase {
+
+        private final String name;
+        private final String createDatabaseOptions;
+        private final List<Query<?>> statements;
+
+        PostgresSeedDatabase(String name, String createDatabaseOptions, List<Query<?>> statements) {
+            this.name = name;
+            this.createDatabaseOptions = createDatabaseOptions;
+            this.statements = new ArrayList<>(statements);
+        }
+
+        String getName() {
+            return name;
+        }
+
+        // the options with which the database was created from which the seed database was copied
+        String getCreateDatabaseOptions() {
+            return createDatabaseOptions;
+        }
+
+        List<Query<?>> getStatements() {
+            return statements;
+        }
+
+    }
+
+    static String getName(String databasePrefix, int index) {
+        return databasePrefix + "seed" + index;
+    }
+
+    /**
+     * Returns the seed database with the given index, if it has already been created.
+     *
+     * @param index
+     *            the index of the seed database
+     *
+     * @return the seed database, or null if it has not been created yet
+     */
+    static PostgresSeedDatabase get(int index) {
+        return SEEDS.get(index);
+    }
+
+    /**
+     * Reserves the creation of the seed database with the given index for the calling run, which must call either
+     * {@link #created(int, PostgresSeedDatabase)} or {@link #creationFailed(int)} afterwards.
+     *
+     * @param index
+     *            the index of the seed database
+     *
+     * @return true if the caller must create the seed database, false if it is already created by another run
+     */
+    static boolean reserve(int index) {
+        return !SEEDS.containsKey(index) && SEEDS_IN_CREATION.add(index);
+    }
+
+    static void created(int index, PostgresSeedDatabase seed) {
+        SEEDS.put(index, seed);
+        SEEDS_IN_CREATION.remove(index);
+    }
+
+    static void creationFailed(int index) {
+        SEEDS_IN_CREATION.remove(index);
+    }
+
+}
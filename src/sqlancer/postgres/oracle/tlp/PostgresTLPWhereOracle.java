@@ -7,6 +7,8 @@ import java.util.List;
 
 import sqlancer.ComparatorHelper;
 import sqlancer.Randomly;
+import sqlancer.ResultRow;
+import sqlancer.ResultSetDigest;
 import sqlancer.postgres.PostgresGlobalState;
 import sqlancer.postgres.PostgresVisitor;
 
@@ -27,7 +29,6 @@ public class PostgresTLPWhereOracle extends PostgresTLPBase {
             select.setOrderByClauses(gen.generateOrderBy());
         }
         String originalQueryString = PostgresVisitor.asString(select);
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
 
         select.setOrderByClauses(Collections.emptyList());
         select.setWhereClause(predicate);
@@ -37,9 +38,21 @@ public class PostgresTLPWhereOracle extends PostgresTLPBase {
         select.setWhereClause(isNullPredicate);
         String thirdQueryString = PostgresVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
-                thirdQueryString, combinedString, Randomly.getBoolean(), state, errors);
-        ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
-                state);
+        boolean asUnion = Randomly.getBoolean();
+        if (state.getOptions().compareAllColumns()) {
+            List<List<ResultRow>> resultSets = ComparatorHelper.fetchConcurrently(state,
+                    s -> ComparatorHelper.getResultSetRows(originalQueryString, errors, s),
+                    s -> ComparatorHelper.getCombinedResultSetRows(firstQueryString, secondQueryString,
+                            thirdQueryString, combinedString, asUnion, s, errors));
+            ComparatorHelper.assumeResultRowsAreEqual(resultSets.get(0), resultSets.get(1), originalQueryString,
+                    combinedString, state);
+        } else {
+            List<ResultSetDigest> resultSets = ComparatorHelper.fetchConcurrently(state,
+                    s -> ComparatorHelper.getResultSetFirstColumnDigest(originalQueryString, errors, s),
+                    s -> ComparatorHelper.getCombinedResultSetDigest(firstQueryString, secondQueryString,
+                            thirdQueryString, combinedString, asUnion, s, errors));
+            ComparatorHelper.assumeResultSetsAreEqual(resultSets.get(0), resultSets.get(1), originalQueryString,
+                    combinedString, state);
+        }
     }
 }
@@ -0,0 +1,84 @@
+package sqlancer.qpg;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+
+import sqlancer.common.DBMSCommon;
+
+/**
+ * The weighted average rewards of the mutation operators of Query Plan Guidance (QPG), which are shared by all threads
+ * that test the same DBMS. The rewards are updated without locks, by atomically replacing the bits of a reward.
+ */
+public final class MutatorRewards {
+
+    private static final Map<Class<?>, MutatorRewards> INSTANCES = new ConcurrentHashMap<>();
+
+    private final AtomicLongArray rewards;
+
+    MutatorRewards(double... initialRewards) {
+        rewards = new AtomicLongArray(initialRewards.length);
+        for (int i = 0; i < initialRewards.length; i++) {
+            rewards.set(i, Double.doubleToRawLongBits(initialRewards[i]));
+        }
+    }
+
+    /**
+     * Returns the rewards shared by the threads that use the given provider class.
+     *
+     * @param providerClass
+     *            the class of the provider
+     * @param initialRewards
+     *            computes the initial rewards, one for each mutation operator, if the rewards do not exist yet
+     *
+     * @return the shared rewards
+     */
+    public static MutatorRewards getInstance(Class<?> providerClass, Supplier<double[]> initialRewards) {
+        return INSTANCES.computeIfAbsent(providerClass, c -> new MutatorRewards(initialRewards.get()));
+    }
+
+    public int getNrMutators() {
+        return rewards.length();
+    }
+
+    public double get(int mutator) {
+        return Double.longBitsToDouble(rewards.get(mutator));
+    }
+
+    /**
+     * Atomically updates the reward of a mutation operator.
+     *
+     * @param mutator
+     *            the index of the mutation operator
+     * @param update
+     *            computes the new reward from the current one
+     */
+    public void update(int mutator, DoubleUnaryOperator update) {
+        long current;
+        long next;
+        do {
+            current = rewards.get(mutator);
+            next = Double.doubleToRawLongBits(update.applyAsDouble(Double.longBitsToDouble(current)));
+        } while (!rewards.compareAndSet(mutator, current, next));
+    }
+
+    public void add(int mutator, double delta) {
+        update(mutator, reward -> reward + delta);
+    }
+
+    /**
+     * Returns the mutation operator with the highest reward.
+     *
+     * @return the index of the mutation operator
+     */
+    public int getBestMutator() {
+        double[] snapshot = new double[rewards.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = get(i);
+        }
+        return DBMSCommon.getMaxIndexInDoubleArray(snapshot);
+    }
+
+}
@@ -0,0 +1,96 @@
+package sqlancer.qpg;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Computes the query plans of many queries on several connections in parallel. The queries are split into contiguous
+ * chunks, each chunk is explained by one of the suppliers, which are typically bound to distinct connections to the
+ * same database, and the query plans are merged back in the order of the queries. A supplier is used by at most one
+ * task at a time.
+ */
+public final class ParallelQueryPlanSupplier implements QueryPlanStore.QueryPlanSupplier {
+
+    // each supplier should explain a few chunks, so that a slow chunk does not delay the others too much
+    private static final int CHUNKS_PER_SUPPLIER = 4;
+
+    private final BlockingQueue<QueryPlanStore.QueryPlanSupplier> suppliers;
+    private final int nrSuppliers;
+    private final int minChunkSize;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a supplier that distributes the queries across the given suppliers.
+     *
+     * @param suppliers
+     *            the suppliers, which must be safe to use from any thread but need not be safe to use from several
+     *            threads at once
+     * @param minChunkSize
+     *            the minimum number of queries that are explained by one task
+     * @param executor
+     *            executes the tasks; it should have at least one thread for each supplier
+     */
+    public ParallelQueryPlanSupplier(List<QueryPlanStore.QueryPlanSupplier> suppliers, int minChunkSize,
+            ExecutorService executor) {
+        if (suppliers.isEmpty() || minChunkSize < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.suppliers = new ArrayBlockingQueue<>(suppliers.size(), false, suppliers);
+        this.nrSuppliers = suppliers.size();
+        this.minChunkSize = minChunkSize;
+        this.executor = executor;
+    }
+
+    @Override
+    public List<String> getQueryPlans(List<String> queries) throws Exception {
+        int nrChunks = Math.min(nrSuppliers * CHUNKS_PER_SUPPLIER, (queries.size() + minChunkSize - 1) / minChunkSize);
+        if (nrChunks <= 1) {
+            return explain(queries);
+        }
+        List<Future<List<String>>> futures = new ArrayList<>(nrChunks);
+        try {
+            for (int i = 0; i < nrChunks; i++) {
+                List<String> chunk = queries.subList(queries.size() * i / nrChunks,
+                        queries.size() * (i + 1) / nrChunks);
+                futures.add(executor.submit(() -> explain(chunk)));
+            }
+            List<String> queryPlans = new ArrayList<>(queries.size());
+            for (Future<List<String>> future : futures) {
+                queryPlans.addAll(future.get());
+            }
+            return queryPlans;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw (Error) e.getCause();
+        } finally {
+            // wait for the remaining tasks, so that the suppliers can be used again once this method returns
+            for (Future<List<String>> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException ignored) {
+                }
+            }
+        }
+    }
+
+    private List<String> explain(List<String> chunk) throws Exception {
+        QueryPlanStore.QueryPlanSupplier supplier = suppliers.take();
+        try {
+            List<String> queryPlans = supplier.getQueryPlans(chunk);
+            if (queryPlans.size() != chunk.size()) {
+                throw new AssertionError(queryPlans.size() + " " + chunk.size());
+            }
+            return queryPlans;
+        } finally {
+            suppliers.add(supplier);
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package sqlancer.qpg;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import sqlancer.common.DBMSCommon;
+
+/**
+ * A set of 64-bit query plan fingerprints that is shared by all threads that test the same DBMS, so that a query plan
+ * that was already explored by one thread is not considered new by another one. The set is lock-free and has a fixed
+ * capacity. When the slots that a fingerprint can occupy are all taken, it replaces one of the fingerprints, which is
+ * then forgotten. Thus, the memory used is bounded, at the cost of occasionally considering a plan new again.
+ */
+public final class QueryPlanFingerprints {
+
+    private static final Map<Class<?>, QueryPlanFingerprints> INSTANCES = new ConcurrentHashMap<>();
+    private static final int MAX_PROBES = 16;
+    private static final long EMPTY = 0;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+
+    QueryPlanFingerprints(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, MAX_PROBES));
+        if (size < capacity) {
+            size <<= 1;
+        }
+        slots = new AtomicLongArray(size);
+        mask = size - 1;
+    }
+
+    /**
+     * Returns the fingerprints shared by the threads that use the given provider class.
+     *
+     * @param providerClass
+     *            the class of the provider
+     * @param capacity
+     *            the number of fingerprints that the set can hold, if the set does not exist yet
+     *
+     * @return the shared fingerprints
+     */
+    public static QueryPlanFingerprints getInstance(Class<?> providerClass, int capacity) {
+        return INSTANCES.computeIfAbsent(providerClass, c -> new QueryPlanFingerprints(capacity));
+    }
+
+    /**
+     * Computes the fingerprint of a query plan (a 64-bit FNV-1a hash with a final avalanche step).
+     *
+     * @param queryPlan
+     *            the query plan
+     *
+     * @return the fingerprint
+     */
+    public static long fingerprint(String queryPlan) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < queryPlan.length(); i++) {
+            hash ^= queryPlan.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return DBMSCommon.mixHash(hash);
+    }
+
+    /**
+     * Adds a fingerprint to the set.
+     *
+     * @param fingerprint
+     *            the fingerprint
+     *
+     * @return true if the set did not contain the fingerprint
+     */
+    public boolean add(long fingerprint) {
+        long value = fingerprint == EMPTY ? 1 : fingerprint;
+        int home = (int) value & mask;
+        for (int i = 0; i < MAX_PROBES; i++) {
+            int slot = (home + i) & mask;
+            long current = slots.get(slot);
+            if (current == value) {
+                return false;
+            }
+            if (current == EMPTY) {
+                if (slots.compareAndSet(slot, EMPTY, value)) {
+                    return true;
+                }
+                if (slots.get(slot) == value) {
+                    // another thread added the same fingerprint
+                    return false;
+                }
+            }
+        }
+        slots.set(home, value);
+        return true;
+    }
+
+    public boolean contains(long fingerprint) {
+        long value = fingerprint == EMPTY ? 1 : fingerprint;
+        int home = (int) value & mask;
+        for (int i = 0; i < MAX_PROBES; i++) {
+            long current = slots.get((home + i) & mask);
+            if (current == value) {
+                return true;
+            }
+            if (current == EMPTY) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+}
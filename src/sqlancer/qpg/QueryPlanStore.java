@@ -0,0 +1,357 @@
+package sqlancer.qpg;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import sqlancer.Randomly;
+import sqlancer.common.DBMSCommon;
+
+/**
+ * The query plan pool of Query Plan Guidance (QPG). Rather than the query plans themselves, the store keeps a 128-bit
+ * fingerprint of each normalized query plan, together with a bounded sample of the queries that resulted in the plan.
+ * When the database is mutated, the sampled queries are explained again to determine whether their plans changed. Each
+ * sampled query can record the tables that it refers to, so that only the queries that refer to a changed table need to
+ * be explained again.
+ */
+public final class QueryPlanStore {
+
+    private final Map<Fingerprint, Plan> plans = new HashMap<>();
+    private final int queriesPerPlan;
+    private final Randomly randomly;
+
+    /**
+     * Computes the query plans of queries.
+     */
+    @FunctionalInterface
+    public interface QueryPlanSupplier {
+
+        /**
+         * Returns the query plans of several queries, which allows the DBMS to be queried in batches.
+         *
+         * @param queries
+         *            the queries
+         *
+         * @return the query plan of each query, in the same order, or an empty string if a query is invalid
+         *
+         * @throws Exception
+         *             if the query plans cannot be obtained
+         */
+        List<String> getQueryPlans(List<String> queries) throws Exception;
+    }
+
+    /**
+     * A 128-bit fingerprint of a normalized query plan.
+     */
+    public static final class Fingerprint {
+
+        private final long high;
+        private final long low;
+
+        Fingerprint(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        public static Fingerprint fromQueryPlan(String queryPlan) {
+            String normalizedPlan = normalize(queryPlan);
+            long low = 0x9e3779b97f4a7c15L;
+            for (int i = 0; i < normalizedPlan.length(); i++) {
+                low = (low + normalizedPlan.charAt(i)) * 0xbf58476d1ce4e5b9L;
+            }
+            return new Fingerprint(QueryPlanFingerprints.fingerprint(normalizedPlan),
+                    DBMSCommon.mixHash(low ^ normalizedPlan.length()));
+        }
+
+        public long getHigh() {
+            return high;
+        }
+
+        public long getLow() {
+            return low;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) obj;
+            return high == other.high && low == other.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(high);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%016x%016x", high, low);
+        }
+
+    }
+
+    private static final class SampledQuery {
+
+        private final String query;
+        // the names of the tables that the query refers to, or null if the query must always be explained again
+        private final String[] tables;
+
+        SampledQuery(String query, Set<String> tables) {
+            this.query = query;
+            this.tables = tables == null ? null : tables.toArray(new String[0]);
+        }
+
+        boolean refersToAny(Set<String> changedTables) {
+            if (tables == null) {
+                return true;
+            }
+            for (String table : tables) {
+                if (changedTables.contains(table)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+    private static final class Plan {
+
+        private final List<SampledQuery> queries = new ArrayList<>(1);
+        private long nrQueries;
+
+    }
+
+    /**
+     * Creates an empty store.
+     *
+     * @param queriesPerPlan
+     *            the maximum number of queries that are kept for each query plan
+     * @param randomly
+     *            used to sample the queries once a query plan has more queries than can be kept
+     */
+    public QueryPlanStore(int queriesPerPlan, Randomly randomly) {
+        if (queriesPerPlan < 1) {
+            throw new IllegalArgumentException(String.valueOf(queriesPerPlan));
+        }
+        this.queriesPerPlan = queriesPerPlan;
+        this.randomly = randomly;
+    }
+
+    /**
+     * Normalizes a query plan, so that plans that differ only in whitespace have the same fingerprint.
+     *
+     * @param queryPlan
+     *            the query plan, as a sequence of operators terminated by semicolons
+     *
+     * @return the normalized query plan
+     */
+    public static String normalize(String queryPlan) {
+        StringBuilder sb = new StringBuilder(queryPlan.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < queryPlan.length(); i++) {
+            char c = queryPlan.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace && c != ';' && sb.length() != 0 && sb.charAt(sb.length() - 1) != ';') {
+                sb.append(' ');
+            }
+            pendingSpace = false;
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Adds a query and its query plan.
+     *
+     * @param queryPlan
+     *            the (non-empty) query plan of the query
+     * @param query
+     *            the query
+     * @param tables
+     *            the names of the tables that the query refers to, or null if the query must be explained again after
+     *            any mutation
+     *
+     * @return the fingerprint of the query plan, if the store did not contain the query plan, or null otherwise
+     */
+    public Fingerprint add(String queryPlan, String query, Set<String> tables) {
+        Fingerprint fingerprint = Fingerprint.fromQueryPlan(queryPlan);
+        boolean isNew = !plans.containsKey(fingerprint);
+        addQuery(fingerprint, new SampledQuery(query, tables));
+        return isNew ? fingerprint : null;
+    }
+
+    private void addQuery(Fingerprint fingerprint, SampledQuery query) {
+        Plan plan = plans.computeIfAbsent(fingerprint, f -> new Plan());
+        plan.nrQueries++;
+        if (plan.queries.size() < queriesPerPlan) {
+            plan.queries.add(query);
+        } else if (queriesPerPlan > 1) {
+            // reservoir sampling: each query of the plan is kept with the same probability; a single query is kept as
+            // it is, like in the original QPG, which also does not draw a random number for each query
+            long index = randomly.getLong(0, plan.nrQueries);
+            if (index < queriesPerPlan) {
+                plan.queries.set((int) index, query);
+            }
+        }
+    }
+
+    public boolean contains(Fingerprint fingerprint) {
+        return plans.containsKey(fingerprint);
+    }
+
+    public boolean isEmpty() {
+        return plans.isEmpty();
+    }
+
+    /**
+     * Returns the number of distinct query plans.
+     *
+     * @return the number of query plans
+     */
+    public int size() {
+        return plans.size();
+    }
+
+    /**
+     * Returns the number of queries that are kept.
+     *
+     * @return the number of sampled queries
+     */
+    public int getNrQueries() {
+        int nrQueries = 0;
+        for (Plan plan : plans.values()) {
+            nrQueries += plan.queries.size();
+        }
+        return nrQueries;
+    }
+
+    /**
+     * Explains the sampled queries again after a mutation. A query whose query plan changed is moved to its new query
+     * plan, and a query that became invalid is removed.
+     *
+     * @param changedTables
+     *            the names of the tables that the mutation changed, or null if all queries must be explained again
+     * @param supplier
+     *            computes the new query plans
+     * @param isNew
+     *            determines whether a query plan that is not in the store is new, for example, whether it was not
+     *            explored by other threads; it is called at most once for each query plan
+     *
+     * @return the number of new query plans that were found
+     *
+     * @throws Exception
+     *             if the supplier fails
+     */
+    public int recheck(Set<String> changedTables, QueryPlanSupplier supplier, Predicate<Fingerprint> isNew)
+            throws Exception {
+        return recheck(changedTables, supplier, null, isNew);
+    }
+
+    /**
+     * Explains the sampled queries again after a mutation, like {@link #recheck(Set, QueryPlanSupplier, Predicate)},
+     * but confirms each query plan that differs from the stored one with a second supplier. This allows the queries to
+     * be explained on other connections, which might choose a different but equivalent plan or lag behind, while
+     * recording only the query plans of the primary connection.
+     *
+     * @param changedTables
+     *            the names of the tables that the mutation changed, or null if all queries must be explained again
+     * @param supplier
+     *            computes the new query plans
+     * @param verifier
+     *            computes the new query plans of the queries for which the supplier returned a different query plan, or
+     *            null if the plans of the supplier are used as they are
+     * @param isNew
+     *            determines whether a query plan that is not in the store is new
+     *
+     * @return the number of new query plans that were found
+     *
+     * @throws Exception
+     *             if a supplier fails
+     */
+    public int recheck(Set<String> changedTables, QueryPlanSupplier supplier, QueryPlanSupplier verifier,
+            Predicate<Fingerprint> isNew) throws Exception {
+        List<Fingerprint> fingerprints = new ArrayList<>();
+        List<SampledQuery> queries = new ArrayList<>();
+        for (Map.Entry<Fingerprint, Plan> entry : plans.entrySet()) {
+            for (SampledQuery query : entry.getValue().queries) {
+                if (changedTables == null || query.refersToAny(changedTables)) {
+                    fingerprints.add(entry.getKey());
+                    queries.add(query);
+                }
+            }
+        }
+        if (queries.isEmpty()) {
+            return 0;
+        }
+        List<String> newQueryPlans = supplier
+                .getQueryPlans(queries.stream().map(query -> query.query).collect(Collectors.toList()));
+        if (verifier != null) {
+            newQueryPlans = verify(fingerprints, queries, newQueryPlans, verifier);
+        }
+
+        int nrNewPlans = 0;
+        Map<Fingerprint, List<SampledQuery>> changedPlans = new HashMap<>();
+        for (int i = 0; i < queries.size(); i++) {
+            String newQueryPlan = newQueryPlans.get(i);
+            if (newQueryPlan.isEmpty()) { // Invalid query
+                removeQuery(fingerprints.get(i), queries.get(i));
+                continue;
+            }
+            Fingerprint newFingerprint = Fingerprint.fromQueryPlan(newQueryPlan);
+            if (!newFingerprint.equals(fingerprints.get(i))) { // A query plan has been changed
+                removeQuery(fingerprints.get(i), queries.get(i));
+                if (!plans.containsKey(newFingerprint) && !changedPlans.containsKey(newFingerprint)
+                        && isNew.test(newFingerprint)) {
+                    nrNewPlans++;
+                }
+                changedPlans.computeIfAbsent(newFingerprint, f -> new ArrayList<>()).add(queries.get(i));
+            }
+        }
+        for (Map.Entry<Fingerprint, List<SampledQuery>> entry : changedPlans.entrySet()) {
+            for (SampledQuery query : entry.getValue()) {
+                addQuery(entry.getKey(), query);
+            }
+        }
+        return nrNewPlans;
+    }
+
+    private static List<String> verify(List<Fingerprint> fingerprints, List<SampledQuery> queries,
+            List<String> queryPlans, QueryPlanSupplier verifier) throws Exception {
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < queries.size(); i++) {
+            String queryPlan = queryPlans.get(i);
+            if (queryPlan.isEmpty() || !Fingerprint.fromQueryPlan(queryPlan).equals(fingerprints.get(i))) {
+                changed.add(i);
+            }
+        }
+        if (changed.isEmpty()) {
+            return queryPlans;
+        }
+        List<String> verifiedQueryPlans = verifier
+                .getQueryPlans(changed.stream().map(i -> queries.get(i).query).collect(Collectors.toList()));
+        List<String> result = new ArrayList<>(queryPlans);
+        for (int i = 0; i < changed.size(); i++) {
+            result.set(changed.get(i), verifiedQueryPlans.get(i));
+        }
+        return result;
+    }
+
+    private void removeQuery(Fingerprint fingerprint, SampledQuery query) {
+        Plan plan = plans.get(fingerprint);
+        plan.queries.remove(query);
+        if (plan.queries.isEmpty()) {
+            plans.remove(fingerprint);
+        }
+    }
+
+}
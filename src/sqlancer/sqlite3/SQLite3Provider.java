@@ -3,15 +3,21 @@ package sqlancer.sqlite3;
 import java.io.File;
 import java.io.IOException;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
+import org.sqlite.SQLiteConfig;
+
 import com.google.auto.service.AutoService;
 
 import sqlancer.AbstractAction;
+import sqlancer.CheckpointingProvider;
 import sqlancer.DatabaseProvider;
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
@@ -20,6 +26,7 @@ import sqlancer.SQLProviderAdapter;
 import sqlancer.StatementExecutor;
 import sqlancer.common.DBMSCommon;
 import sqlancer.common.query.ExpectedErrors;
+import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
 import sqlancer.common.query.SQLancerResultSet;
@@ -47,7 +54,8 @@ import sqlancer.sqlite3.gen.dml.SQLite3UpdateGenerator;
 import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3Table;
 
 @AutoService(DatabaseProvider.class)
-public class SQLite3Provider extends SQLProviderAdapter<SQLite3GlobalState, SQLite3Options> {
+public class SQLite3Provider extends SQLProviderAdapter<SQLite3GlobalState, SQLite3Options>
+        implements CheckpointingProvider<SQLite3GlobalState, SQLConnection> {
 
     public static boolean allowFloatingPointFp = true;
     public static boolean mustKnowResult;
@@ -286,11 +294,7 @@ public class SQLite3Provider extends SQLProviderAdapter<SQLite3GlobalState, SQLi
 
     @Override
     public SQLConnection createDatabase(SQLite3GlobalState globalState) throws SQLException {
-        File dir = new File("." + File.separator + "databases");
-        if (!dir.exists()) {
-            dir.mkdir();
-        }
-        File dataBase = new File(dir, globalState.getDatabaseName() + ".db");
+        File dataBase = getDatabaseFile(globalState);
         if (dataBase.exists() && ((SQLite3GlobalState) globalState).getDbmsSpecificOptions().deleteIfExists) {
             dataBase.delete();
         }
@@ -298,6 +302,92 @@ public class SQLite3Provider extends SQLProviderAdapter<SQLite3GlobalState, SQLi
         return new SQLConnection(DriverManager.getConnection(url));
     }
 
+    @Override
+    public void dropDatabase(SQLite3GlobalState globalState) {
+        getDatabaseFile(globalState).delete();
+    }
+
+    private static File getDatabaseFile(SQLite3GlobalState globalState) {
+        File dir = new File("." + File.separator + "databases");
+        if (!dir.exists()) {
+            dir.mkdir();
+        }
+        return new File(dir, globalState.getDatabaseName() + ".db");
+    }
+
+    @Override
+    protected SQLConnection createAuxiliaryConnection(SQLite3GlobalState globalState) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        String url = "jdbc:sqlite:" + getDatabaseFile(globalState).getAbsolutePath();
+        return new SQLConnection(DriverManager.getConnection(url, config.toProperties()));
+    }
+
+    @Override
+    protected boolean canUseAuxiliaryConnections(SQLite3GlobalState globalState) throws SQLException {
+        try (Statement s = globalState.getConnection().createStatement()) {
+            // another connection can read the database file only if the connection does not lock it
+            try (ResultSet rs = s.executeQuery("PRAGMA locking_mode")) {
+                if (!rs.next() || !rs.getString(1).equalsIgnoreCase("normal")) {
+                    return false;
+                }
+            }
+            return isDatabaseFileComplete(s);
+        }
+    }
+
+    @Override
+    public boolean saveCheckpoint(SQLite3GlobalState globalState, File checkpoint) throws SQLException {
+        try (Statement s = globalState.getConnection().createStatement()) {
+            if (!isDatabaseFileComplete(s)) {
+                return false;
+            }
+            s.executeUpdate("backup to \"" + checkpoint.getAbsolutePath() + "\"");
+        }
+        return true;
+    }
+
+    // the database file contains neither the changes of an open transaction nor temporary or attached objects
+    private static boolean isDatabaseFileComplete(Statement s) throws SQLException {
+        try {
+            s.execute("BEGIN");
+        } catch (SQLException e) {
+            return false;
+        }
+        s.execute("COMMIT");
+        try (ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM sqlite_temp_master")) {
+            if (!rs.next() || rs.getInt(1) != 0) {
+                return false;
+            }
+        }
+        try (ResultSet rs = s.executeQuery("PRAGMA database_list")) {
+            while (rs.next()) {
+                if (!rs.getString("name").equals("main") && !rs.getString("name").equals("temp")) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public SQLConnection restoreCheckpoint(SQLite3GlobalState globalState, File checkpoint) throws SQLException {
+        SQLConnection con = createDatabase(globalState);
+        try (Statement s = con.createStatement()) {
+            s.executeUpdate("restore from \"" + checkpoint.getAbsolutePath() + "\"");
+        } catch (SQLException e) {
+            con.close();
+            throw e;
+        }
+        return con;
+    }
+
+    @Override
+    public boolean isConnectionStatement(Query<?> query) {
+        // most PRAGMAs only affect the connection, and the others can be executed again
+        return query.getQueryString().trim().toUpperCase(Locale.ROOT).startsWith("PRAGMA");
+    }
+
     @Override
     public String getDBMSName() {
         return "sqlite3";
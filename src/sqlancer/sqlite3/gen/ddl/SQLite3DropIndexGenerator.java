@@ -3,6 +3,7 @@ package sqlancer.sqlite3.gen.ddl;
 import sqlancer.Randomly;
 import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.common.schema.SchemaDelta;
 import sqlancer.sqlite3.SQLite3GlobalState;
 
 // see https://www.sqlite.org/lang_dropindex.html
@@ -23,7 +24,7 @@ public final class SQLite3DropIndexGenerator {
         sb.append('"');
         return new SQLQueryAdapter(sb.toString(), ExpectedErrors.from(
                 "[SQLITE_ERROR] SQL error or missing database (index associated with UNIQUE or PRIMARY KEY constraint cannot be dropped)"),
-                true);
+                true).withSchemaDelta(SchemaDelta.dropIndex(indexName));
     }
 
 }
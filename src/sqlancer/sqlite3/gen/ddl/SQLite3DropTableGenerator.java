@@ -4,6 +4,7 @@ import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
 import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.common.schema.SchemaDelta;
 import sqlancer.sqlite3.SQLite3GlobalState;
 
 public final class SQLite3DropTableGenerator {
@@ -19,12 +20,13 @@ public final class SQLite3DropTableGenerator {
         if (Randomly.getBoolean()) {
             sb.append("IF EXISTS ");
         }
-        sb.append(globalState.getSchema().getRandomTableOrBailout(t -> !t.isView()).getName());
+        String tableName = globalState.getSchema().getRandomTableOrBailout(t -> !t.isView()).getName();
+        sb.append(tableName);
         return new SQLQueryAdapter(sb.toString(),
                 ExpectedErrors.from("[SQLITE_ERROR] SQL error or missing database (foreign key mismatch",
                         "Abort due to constraint violation (FOREIGN KEY constraint failed)",
                         "SQL error or missing database"),
-                true);
+                true).withSchemaDelta(SchemaDelta.dropTable(tableName));
 
     }
 
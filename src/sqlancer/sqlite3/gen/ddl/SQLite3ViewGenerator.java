@@ -7,6 +7,7 @@ import sqlancer.Randomly;
 import sqlancer.common.DBMSCommon;
 import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.common.schema.SchemaDelta;
 import sqlancer.sqlite3.SQLite3Errors;
 import sqlancer.sqlite3.SQLite3GlobalState;
 import sqlancer.sqlite3.SQLite3Options.SQLite3OracleFactory;
@@ -25,8 +26,9 @@ public final class SQLite3ViewGenerator {
     public static SQLQueryAdapter dropView(SQLite3GlobalState globalState) {
         SQLite3Schema s = globalState.getSchema();
         StringBuilder sb = new StringBuilder("DROP VIEW ");
-        sb.append(s.getRandomViewOrBailout().getName());
-        return new SQLQueryAdapter(sb.toString(), true);
+        String viewName = s.getRandomViewOrBailout().getName();
+        sb.append(viewName);
+        return new SQLQueryAdapter(sb.toString(), true).withSchemaDelta(SchemaDelta.dropTable(viewName));
     }
 
     public static SQLQueryAdapter generate(SQLite3GlobalState globalState) throws SQLException {
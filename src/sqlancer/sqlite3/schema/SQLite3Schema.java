@@ -19,6 +19,7 @@ import sqlancer.common.schema.AbstractRowValue;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
+import sqlancer.common.schema.PivotRowSampler;
 import sqlancer.common.schema.TableIndex;
 import sqlancer.sqlite3.SQLite3GlobalState;
 import sqlancer.sqlite3.ast.SQLite3Constant;
@@ -33,7 +34,7 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
      */
     public static final List<String> ROWID_STRINGS = Collections
             .unmodifiableList(Arrays.asList("rowid", "_rowid_", "oid"));
-    private final List<String> indexNames;
+    private List<String> indexNames;
 
     public List<String> getIndexNames() {
         return indexNames;
@@ -155,13 +156,13 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
             super(tables);
         }
 
-        public SQLite3RowValue getRandomRowValue(SQLConnection con) throws SQLException {
-            String randomRow = String.format("SELECT %s, %s FROM %s ORDER BY RANDOM() LIMIT 1", columnNamesAsString(
+        public SQLite3RowValue getRandomRowValue(SQLite3GlobalState globalState) throws SQLException {
+            String randomRow = String.format("SELECT %s, %s FROM %s", columnNamesAsString(
                     c -> c.getTable().getName() + "." + c.getName() + " AS " + c.getTable().getName() + c.getName()),
                     columnNamesAsString(c -> "typeof(" + c.getTable().getName() + "." + c.getName() + ")"),
-                    tableNamesAsString());
+                    PivotRowSampler.getRandomRowFromClause(globalState, getTables()));
             Map<SQLite3Column, SQLite3Constant> values = new HashMap<>();
-            try (Statement s = con.createStatement()) {
+            try (Statement s = globalState.getConnection().createStatement()) {
                 ResultSet randomRowValues;
                 try {
                     randomRowValues = s.executeQuery(randomRow);
@@ -169,7 +170,7 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
                     throw new IgnoreMeException();
                 }
                 if (!randomRowValues.next()) {
-                    throw new IgnoreMeException();
+                    throw PivotRowSampler.rowNotFound(globalState, getTables());
                     // throw new AssertionError("could not find random row! " + randomRow);
                 }
                 for (int i = 0; i < getColumns().size(); i++) {
@@ -231,6 +232,12 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
             return isVirtual;
         }
 
+        @Override
+        public boolean isRowCountTrackable() {
+            // for example, FTS commands are issued as INSERTs that do not add rows
+            return super.isRowCountTrackable() && !isVirtual;
+        }
+
         public boolean isSystemTable() {
             return getName().startsWith("sqlit");
         }
@@ -258,6 +265,22 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
         this.indexNames = indexNames;
     }
 
+    @Override
+    public boolean removeTable(String name) {
+        SQLite3Table table = getDatabaseTable(name);
+        if (table != null && !table.isView() && !indexNames.isEmpty()) {
+            // the indexes are not associated with their table, so the indexes dropped with the table are unknown
+            return false;
+        }
+        return super.removeTable(name);
+    }
+
+    @Override
+    public boolean removeIndex(String indexName) {
+        indexNames = indexNames.stream().filter(i -> !i.equals(indexName)).collect(Collectors.toList());
+        return true;
+    }
+
     @Override
     public String toString() {
         StringBuffer sb = new StringBuffer();
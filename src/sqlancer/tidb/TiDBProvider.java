@@ -6,6 +6,7 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 import com.google.auto.service.AutoService;
@@ -20,6 +21,7 @@ import sqlancer.SQLGlobalState;
 import sqlancer.SQLProviderAdapter;
 import sqlancer.StatementExecutor;
 import sqlancer.common.query.ExpectedErrors;
+import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
 import sqlancer.common.query.SQLancerResultSet;
@@ -41,6 +43,8 @@ import sqlancer.tidb.gen.TiDBViewGenerator;
 @AutoService(DatabaseProvider.class)
 public class TiDBProvider extends SQLProviderAdapter<TiDBGlobalState, TiDBOptions> {
 
+    private static final String EXPLAIN = "EXPLAIN FORMAT=brief ";
+
     public TiDBProvider() {
         super(TiDBGlobalState.class, TiDBOptions.class);
     }
@@ -173,17 +177,8 @@ public class TiDBProvider extends SQLProviderAdapter<TiDBGlobalState, TiDBOption
 
     @Override
     public SQLConnection createDatabase(TiDBGlobalState globalState) throws SQLException {
-        String host = globalState.getOptions().getHost();
-        int port = globalState.getOptions().getPort();
-        if (host == null) {
-            host = TiDBOptions.DEFAULT_HOST;
-        }
-        if (port == MainOptions.NO_SET_PORT) {
-            port = TiDBOptions.DEFAULT_PORT;
-        }
-
         String databaseName = globalState.getDatabaseName();
-        String url = String.format("jdbc:mysql://%s:%d/", host, port);
+        String url = getServerUrl(globalState);
         Connection con = DriverManager.getConnection(url, globalState.getOptions().getUserName(),
                 globalState.getOptions().getPassword());
         globalState.getState().logStatement("USE test");
@@ -201,11 +196,45 @@ public class TiDBProvider extends SQLProviderAdapter<TiDBGlobalState, TiDBOption
             s.execute(createDatabaseCommand);
         }
         con.close();
-        con = DriverManager.getConnection(url + databaseName, globalState.getOptions().getUserName(),
-                globalState.getOptions().getPassword());
+        return new SQLConnection(connectToDatabase(globalState));
+    }
+
+    private static String getServerUrl(TiDBGlobalState globalState) {
+        String host = globalState.getOptions().getHost();
+        int port = globalState.getOptions().getPort();
+        if (host == null) {
+            host = TiDBOptions.DEFAULT_HOST;
+        }
+        if (port == MainOptions.NO_SET_PORT) {
+            port = TiDBOptions.DEFAULT_PORT;
+        }
+        return String.format("jdbc:mysql://%s:%d/", host, port);
+    }
+
+    private static Connection connectToDatabase(TiDBGlobalState globalState) throws SQLException {
+        MainOptions options = globalState.getOptions();
+        String url = getServerUrl(globalState) + globalState.getDatabaseName();
+        if (options.enableQPG() && options.getQPGExplainBatchSize() > 1) {
+            // multi-statement strings allow the query plans of several queries to be obtained at once (see
+            // getQueryPlans); they are not allowed otherwise, so that generated statements cannot contain several
+            url += "?allowMultiQueries=true";
+        }
+        return DriverManager.getConnection(url, options.getUserName(), options.getPassword());
+    }
+
+    @Override
+    protected SQLConnection createAuxiliaryConnection(TiDBGlobalState globalState) throws SQLException {
+        Connection con = connectToDatabase(globalState);
+        con.setReadOnly(true);
         return new SQLConnection(con);
     }
 
+    @Override
+    public boolean isConnectionStatement(Query<?> query) {
+        // the system variables are set for the session (see TiDBSetGenerator)
+        return query.getQueryString().trim().toLowerCase(Locale.ROOT).startsWith("set @@");
+    }
+
     @Override
     public String getDBMSName() {
         return "tidb";
@@ -223,14 +252,10 @@ public class TiDBProvider extends SQLProviderAdapter<TiDBGlobalState, TiDBOption
             }
         }
 
-        SQLQueryAdapter q = new SQLQueryAdapter("EXPLAIN FORMAT=brief " + selectStr);
+        SQLQueryAdapter q = new SQLQueryAdapter(EXPLAIN + selectStr);
         try (SQLancerResultSet rs = q.executeAndGet(globalState)) {
             if (rs != null) {
-                while (rs.next()) {
-                    String targetQueryPlan = rs.getString(1).replace("├─", "").replace("└─", "").replace("│", "").trim()
-                            + ";"; // Unify format
-                    queryPlan += targetQueryPlan;
-                }
+                queryPlan = parseQueryPlan(rs);
             }
         } catch (Throwable e) {
             e.printStackTrace();
@@ -239,6 +264,21 @@ public class TiDBProvider extends SQLProviderAdapter<TiDBGlobalState, TiDBOption
         return queryPlan;
     }
 
+    @Override
+    protected List<String> getQueryPlans(List<String> selectStrs, TiDBGlobalState globalState) throws Exception {
+        return getQueryPlansInBatches(selectStrs, globalState, EXPLAIN, TiDBProvider::parseQueryPlan);
+    }
+
+    private static String parseQueryPlan(SQLancerResultSet rs) throws SQLException {
+        String queryPlan = "";
+        while (rs.next()) {
+            // Unify format
+            String targetQueryPlan = rs.getString(1).replace("├─", "").replace("└─", "").replace("│", "").trim() + ";";
+            queryPlan += targetQueryPlan;
+        }
+        return queryPlan;
+    }
+
     @Override
     protected double[] initializeWeightedAverageReward() {
         return new double[Action.values().length];
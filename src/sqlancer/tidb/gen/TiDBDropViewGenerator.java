@@ -3,6 +3,7 @@ package sqlancer.tidb.gen;
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
 import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.common.schema.SchemaDelta;
 import sqlancer.tidb.TiDBProvider.TiDBGlobalState;
 
 public final class TiDBDropViewGenerator {
@@ -18,8 +19,9 @@ public final class TiDBDropViewGenerator {
         if (Randomly.getBoolean()) {
             sb.append("IF EXISTS ");
         }
-        sb.append(globalState.getSchema().getRandomTableOrBailout(t -> t.isView()).getName());
-        return new SQLQueryAdapter(sb.toString(), null, true);
+        String viewName = globalState.getSchema().getRandomTableOrBailout(t -> t.isView()).getName();
+        sb.append(viewName);
+        return new SQLQueryAdapter(sb.toString(), null, true).withSchemaDelta(SchemaDelta.dropTable(viewName));
     }
 
 }
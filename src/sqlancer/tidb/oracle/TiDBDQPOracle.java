@@ -5,7 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import sqlancer.ComparatorHelper;
+import sqlancer.DQPExecutor;
 import sqlancer.Randomly;
 import sqlancer.common.oracle.TestOracle;
 import sqlancer.common.query.ExpectedErrors;
@@ -64,17 +64,14 @@ public class TiDBDQPOracle implements TestOracle<TiDBGlobalState> {
         }
 
         String originalQueryString = TiDBVisitor.asString(select);
-        List<String> originalResult = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors,
-                state);
 
         List<TiDBText> hintList = TiDBHintGenerator.generateAllHints(select, tables.getTables());
+        List<String> hintedQueryStrings = new ArrayList<>(hintList.size());
         for (TiDBText hint : hintList) {
             select.setHint(hint);
-            String queryString = TiDBVisitor.asString(select);
-            List<String> result = ComparatorHelper.getResultSetFirstColumnAsString(queryString, errors, state);
-            ComparatorHelper.assumeResultSetsAreEqual(originalResult, result, originalQueryString, List.of(queryString),
-                    state);
+            hintedQueryStrings.add(TiDBVisitor.asString(select));
         }
+        DQPExecutor.assumeEqualResults(state, originalQueryString, hintedQueryStrings, List.of(), errors);
     }
 
 }
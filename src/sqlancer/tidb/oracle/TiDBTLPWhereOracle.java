@@ -62,7 +62,6 @@ public class TiDBTLPWhereOracle extends TiDBTLPBase {
         select.setWhereClause(null);
         String originalQueryString = TiDBVisitor.asString(select);
         generatedQueryString = originalQueryString;
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
 
         boolean orderBy = Randomly.getBooleanWithRatherLowProbability();
         if (orderBy) {
@@ -75,9 +74,12 @@ public class TiDBTLPWhereOracle extends TiDBTLPBase {
         select.setWhereClause(isNullPredicate);
         String thirdQueryString = TiDBVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
-                thirdQueryString, combinedString, !orderBy, state, errors);
-        ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
+        List<List<String>> resultSets = ComparatorHelper.fetchConcurrently(state,
+                s -> ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, s),
+                s -> ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString, thirdQueryString,
+                        combinedString, !orderBy, s, errors));
+        List<String> resultSet = resultSets.get(0);
+        ComparatorHelper.assumeResultSetsAreEqual(resultSet, resultSets.get(1), originalQueryString, combinedString,
                 state);
         reproducer = new TiDBTLPWhereReproducer(firstQueryString, secondQueryString, thirdQueryString,
                 originalQueryString, resultSet, orderBy);
@@ -1,9 +1,6 @@
 package sqlancer.timescaledb;
 
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.SQLIntegrityConstraintViolationException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -31,21 +28,8 @@ public class TimescaleDBSchema extends PostgresSchema {
     public static TimescaleDBSchema fromConnection(SQLConnection con, String databaseName) throws SQLException {
         PostgresSchema schema = PostgresSchema.fromConnection(con, databaseName);
         List<TimescaleDBTable> databaseTables = new ArrayList<>();
-        try (Statement s = con.createStatement();
-                ResultSet rs = s.executeQuery("SELECT table_name FROM information_schema.tables")) {
-            while (rs.next()) {
-                String tableName = rs.getString("table_name");
-
-                PostgresTable t = schema.getDatabaseTable(tableName);
-                if (t == null) {
-                    continue;
-                }
-
-                TimescaleDBTable table = new TimescaleDBTable(t);
-                databaseTables.add(table);
-            }
-        } catch (SQLIntegrityConstraintViolationException e) {
-            throw new AssertionError(e);
+        for (PostgresTable t : schema.getDatabaseTables()) {
+            databaseTables.add(new TimescaleDBTable(t));
         }
         return new TimescaleDBSchema(databaseTables, databaseName);
     }
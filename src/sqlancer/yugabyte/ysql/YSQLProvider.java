@@ -7,6 +7,9 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.auto.service.AutoService;
 
@@ -46,6 +49,14 @@ public class YSQLProvider extends SQLProviderAdapter<YSQLGlobalState, YSQLOption
 
     // TODO Due to yugabyte problems with parallel DDL we need this lock object
     public static final Object DDL_LOCK = new Object();
+
+    // the database that the test databases are created from
+    private static final String ENTRY_DATABASE_NAME = "yugabyte";
+
+    // the statements that created each database whose connection can be returned to the connection pool (see
+    // MainOptions#poolConnections), which are logged again when the database is reused; shared across all threads
+    private static final Map<String, List<String>> CREATION_STATEMENTS = new ConcurrentHashMap<>();
+
     /**
      * Generate only data types and expressions that are understood by PQS.
      */
@@ -132,13 +143,64 @@ public class YSQLProvider extends SQLProviderAdapter<YSQLGlobalState, YSQLOption
 
     @Override
     public SQLConnection createDatabase(YSQLGlobalState globalState) throws SQLException {
+        SQLConnection con = takePooledConnection(globalState);
+        if (con == null) {
+            con = makePoolable(globalState, createFreshDatabase(globalState));
+        }
+        return con;
+    }
+
+    @Override
+    protected boolean supportsConnectionPooling() {
+        return true;
+    }
+
+    @Override
+    protected boolean resetPooledDatabase(YSQLGlobalState globalState, SQLConnection con) throws SQLException {
+        databaseName = globalState.getDatabaseName();
+        List<String> creationStatements = CREATION_STATEMENTS.get(databaseName);
+        if (creationStatements == null) {
+            return false;
+        }
+        // the options of a database cannot be changed, so the options it was created with are reused
+        createDatabaseCommand = creationStatements.get(creationStatements.size() - 1);
+        setConnectionURLs(globalState);
+        List<String> statements = Arrays.asList("ROLLBACK", "DISCARD ALL", "DROP SCHEMA public CASCADE",
+                "CREATE SCHEMA public");
+        synchronized (DDL_LOCK) {
+            for (String statement : statements) {
+                try (Statement s = con.createStatement()) {
+                    s.execute(statement);
+                }
+            }
+        }
+        for (String statement : creationStatements) {
+            globalState.getState().logStatement(statement);
+        }
+        globalState.getState().logStatement(String.format("\\c %s;", databaseName));
+        for (String statement : statements) {
+            globalState.getState().logStatement(statement);
+        }
+        return true;
+    }
+
+    private SQLConnection createFreshDatabase(YSQLGlobalState globalState) throws SQLException {
+        setConnectionURLs(globalState);
+        createDatabaseSync(globalState, ENTRY_DATABASE_NAME);
+        globalState.getState().logStatement(String.format("\\c %s;", databaseName));
+
+        return new SQLConnection(createConnectionSafely(testURL, username, password));
+    }
+
+    // sets the credentials, the URL of the database that the test database is created from, and the URL of the test
+    // database
+    private void setConnectionURLs(YSQLGlobalState globalState) {
         username = globalState.getOptions().getUserName();
         password = globalState.getOptions().getPassword();
         host = globalState.getOptions().getHost();
         port = globalState.getOptions().getPort();
-        entryPath = "/yugabyte";
+        entryPath = "/" + ENTRY_DATABASE_NAME;
         entryURL = globalState.getDbmsSpecificOptions().connectionURL;
-        String entryDatabaseName = entryPath.substring(1);
         databaseName = globalState.getDatabaseName();
 
         if (host == null) {
@@ -176,20 +238,15 @@ public class YSQLProvider extends SQLProviderAdapter<YSQLGlobalState, YSQLOption
             if (port == MainOptions.NO_SET_PORT) {
                 port = uri.getPort();
             }
-            entryURL = String.format("jdbc:yugabytedb://%s:%d/%s", host, port, entryDatabaseName);
+            entryURL = String.format("jdbc:yugabytedb://%s:%d/%s", host, port, ENTRY_DATABASE_NAME);
         } catch (URISyntaxException e) {
             throw new AssertionError(e);
         }
 
-        createDatabaseSync(globalState, entryDatabaseName);
-
-        int databaseIndex = entryURL.indexOf("/" + entryDatabaseName) + 1;
+        int databaseIndex = entryURL.indexOf("/" + ENTRY_DATABASE_NAME) + 1;
         String preDatabaseName = entryURL.substring(0, databaseIndex);
-        String postDatabaseName = entryURL.substring(databaseIndex + entryDatabaseName.length());
+        String postDatabaseName = entryURL.substring(databaseIndex + ENTRY_DATABASE_NAME.length());
         testURL = preDatabaseName + databaseName + postDatabaseName;
-        globalState.getState().logStatement(String.format("\\c %s;", databaseName));
-
-        return new SQLConnection(createConnectionSafely(testURL, username, password));
     }
 
     @Override
@@ -203,10 +260,12 @@ public class YSQLProvider extends SQLProviderAdapter<YSQLGlobalState, YSQLOption
             exceptionLessSleep(5000);
 
             Connection con = createConnectionSafely(entryURL, username, password);
-            globalState.getState().logStatement(String.format("\\c %s;", entryDatabaseName));
-            globalState.getState().logStatement("DROP DATABASE IF EXISTS " + databaseName);
             createDatabaseCommand = getCreateDatabaseCommand(globalState);
-            globalState.getState().logStatement(createDatabaseCommand);
+            List<String> creationStatements = List.of(String.format("\\c %s;", entryDatabaseName),
+                    "DROP DATABASE IF EXISTS " + databaseName, createDatabaseCommand);
+            for (String statement : creationStatements) {
+                globalState.getState().logStatement(statement);
+            }
             try (Statement s = con.createStatement()) {
                 s.execute("DROP DATABASE IF EXISTS " + databaseName);
             }
@@ -214,6 +273,7 @@ public class YSQLProvider extends SQLProviderAdapter<YSQLGlobalState, YSQLOption
                 s.execute(createDatabaseCommand);
             }
             con.close();
+            CREATION_STATEMENTS.put(databaseName, creationStatements);
         }
     }
 
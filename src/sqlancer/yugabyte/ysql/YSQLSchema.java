@@ -21,6 +21,8 @@ import sqlancer.common.schema.AbstractRowValue;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
+import sqlancer.common.schema.CatalogReader;
+import sqlancer.common.schema.PivotRowSampler;
 import sqlancer.common.schema.TableIndex;
 import sqlancer.yugabyte.ysql.YSQLSchema.YSQLTable;
 import sqlancer.yugabyte.ysql.ast.YSQLConstant;
@@ -71,10 +73,18 @@ public class YSQLSchema extends AbstractSchema<YSQLGlobalState, YSQLTable> {
 
     public static YSQLSchema fromConnection(SQLConnection con, String databaseName) throws SQLException {
         try {
+            Map<String, List<YSQLColumn>> columns = CatalogReader.readByTable(con, CatalogReader.POSTGRES_COLUMNS_QUERY,
+                    rs -> new YSQLColumn(rs.getString("column_name"), getColumnType(rs.getString("data_type"))));
+            Map<String, List<YSQLIndex>> indexes = CatalogReader.readByTable(con, CatalogReader.POSTGRES_INDEXES_QUERY,
+                    rs -> {
+                        String indexName = rs.getString("indexname");
+                        return DBMSCommon.matchesIndexName(indexName) ? YSQLIndex.create(indexName) : null;
+                    });
+            List<YSQLStatisticsObject> statistics = CatalogReader.read(con, CatalogReader.POSTGRES_STATISTICS_QUERY,
+                    rs -> new YSQLStatisticsObject(rs.getString("stxname")));
             List<YSQLTable> databaseTables = new ArrayList<>();
             try (Statement s = con.createStatement()) {
-                try (ResultSet rs = s.executeQuery(
-                        "SELECT table_name, table_schema, table_type, is_insertable_into FROM information_schema.tables WHERE table_schema='public' OR table_schema LIKE 'pg_temp_%' ORDER BY table_name;")) {
+                try (ResultSet rs = s.executeQuery(CatalogReader.POSTGRES_TABLES_QUERY)) {
                     while (rs.next()) {
                         String tableName = rs.getString("table_name");
                         String tableTypeSchema = rs.getString("table_schema");
@@ -85,11 +95,10 @@ public class YSQLSchema extends AbstractSchema<YSQLGlobalState, YSQLTable> {
                         // tableTypeStr.contains("LOCAL TEMPORARY") &&
                         // !isInsertable;
                         YSQLTable.TableType tableType = getTableType(tableTypeSchema);
-                        List<YSQLColumn> databaseColumns = getTableColumns(con, tableName);
-                        List<YSQLIndex> indexes = getIndexes(con, tableName);
-                        List<YSQLStatisticsObject> statistics = getStatistics(con);
-                        YSQLTable t = new YSQLTable(tableName, databaseColumns, indexes, tableType, statistics, isView,
-                                isInsertable);
+                        List<YSQLColumn> databaseColumns = CatalogReader.getRows(columns, tableTypeSchema, tableName);
+                        List<YSQLIndex> tableIndexes = CatalogReader.getRows(indexes, tableTypeSchema, tableName);
+                        YSQLTable t = new YSQLTable(tableName, databaseColumns, tableIndexes, tableType, statistics,
+                                isView, isInsertable);
                         for (YSQLColumn c : databaseColumns) {
                             c.setTable(t);
                         }
@@ -103,18 +112,6 @@ public class YSQLSchema extends AbstractSchema<YSQLGlobalState, YSQLTable> {
         }
     }
 
-    protected static List<YSQLStatisticsObject> getStatistics(SQLConnection con) throws SQLException {
-        List<YSQLStatisticsObject> statistics = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s.executeQuery("SELECT stxname FROM pg_statistic_ext ORDER BY stxname;")) {
-                while (rs.next()) {
-                    statistics.add(new YSQLStatisticsObject(rs.getString("stxname")));
-                }
-            }
-        }
-        return statistics;
-    }
-
     protected static YSQLTable.TableType getTableType(String tableTypeStr) throws AssertionError {
         YSQLTable.TableType tableType;
         if (tableTypeStr.contentEquals("public")) {
@@ -127,39 +124,6 @@ public class YSQLSchema extends AbstractSchema<YSQLGlobalState, YSQLTable> {
         return tableType;
     }
 
-    protected static List<YSQLIndex> getIndexes(SQLConnection con, String tableName) throws SQLException {
-        List<YSQLIndex> indexes = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s.executeQuery(String
-                    .format("SELECT indexname FROM pg_indexes WHERE tablename='%s' ORDER BY indexname;", tableName))) {
-                while (rs.next()) {
-                    String indexName = rs.getString("indexname");
-                    if (DBMSCommon.matchesIndexName(indexName)) {
-                        indexes.add(YSQLIndex.create(indexName));
-                    }
-                }
-            }
-        }
-        return indexes;
-    }
-
-    protected static List<YSQLColumn> getTableColumns(SQLConnection con, String tableName) throws SQLException {
-        List<YSQLColumn> columns = new ArrayList<>();
-        try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s
-                    .executeQuery("select column_name, data_type from INFORMATION_SCHEMA.COLUMNS where table_name = '"
-                            + tableName + "' ORDER BY column_name")) {
-                while (rs.next()) {
-                    String columnName = rs.getString("column_name");
-                    String dataType = rs.getString("data_type");
-                    YSQLColumn c = new YSQLColumn(columnName, getColumnType(dataType));
-                    columns.add(c);
-                }
-            }
-        }
-        return columns;
-    }
-
     public boolean getDatabaseIsColocated(SQLConnection con) {
         try (Statement s = con.createStatement(); ResultSet rs = s.executeQuery("SELECT yb_is_database_colocated();")) {
             rs.next();
@@ -219,17 +183,17 @@ public class YSQLSchema extends AbstractSchema<YSQLGlobalState, YSQLTable> {
             super(tables);
         }
 
-        public YSQLRowValue getRandomRowValue(SQLConnection con) throws SQLException {
-            String randomRow = String.format("SELECT %s FROM %s ORDER BY RANDOM() LIMIT 1", columnNamesAsString(
+        public YSQLRowValue getRandomRowValue(YSQLGlobalState globalState) throws SQLException {
+            String randomRow = String.format("SELECT %s FROM %s", columnNamesAsString(
                     c -> c.getTable().getName() + "." + c.getName() + " AS " + c.getTable().getName() + c.getName()),
                     // columnNamesAsString(c -> "typeof(" + c.getTable().getName() + "." +
                     // c.getName() + ")")
-                    tableNamesAsString());
+                    PivotRowSampler.getRandomRowFromClause(globalState, getTables()));
             Map<YSQLColumn, YSQLConstant> values = new HashMap<>();
-            try (Statement s = con.createStatement()) {
+            try (Statement s = globalState.getConnection().createStatement()) {
                 ResultSet randomRowValues = s.executeQuery(randomRow);
                 if (!randomRowValues.next()) {
-                    throw new AssertionError("could not find random row! " + randomRow + "\n");
+                    throw PivotRowSampler.rowNotFound(globalState, getTables());
                 }
                 for (int i = 0; i < getColumns().size(); i++) {
                     YSQLColumn column = getColumns().get(i);
@@ -116,7 +116,7 @@ public class YSQLPivotedQuerySynthesisOracle
         YSQLSelect selectStatement = new YSQLSelect();
         selectStatement.setSelectType(Randomly.fromOptions(YSQLSelect.SelectType.values()));
         List<YSQLColumn> columns = randomFromTables.getColumns();
-        pivotRow = randomFromTables.getRandomRowValue(globalState.getConnection());
+        pivotRow = randomFromTables.getRandomRowValue(globalState);
 
         fetchColumns = columns;
         selectStatement.setFromList(randomFromTables.getTables().stream()
@@ -0,0 +1,49 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class TestActionStatistics {
+
+    @Test
+    public void testUntriedActionIsFavored() {
+        ActionStatistics statistics = new ActionStatistics();
+        assertEquals(1, statistics.getWeight(statistics.getArm("INSERT")));
+        assertSame(statistics.getArm("INSERT"), statistics.getArm("INSERT"));
+    }
+
+    @Test
+    public void testFailingActionIsThrottled() {
+        ActionStatistics statistics = new ActionStatistics();
+        ActionStatistics.Arm insert = statistics.getArm("INSERT");
+        ActionStatistics.Arm alterTable = statistics.getArm("ALTER_TABLE");
+        for (int i = 0; i < 1000; i++) {
+            statistics.record(insert, true, 1000);
+            statistics.record(alterTable, i % 10 == 0, 1000);
+        }
+        assertEquals(1, statistics.getWeight(insert));
+        assertEquals(0.1, alterTable.getMeanReward(), 0.001);
+        assertTrue(statistics.getWeight(alterTable) < 0.3);
+        assertTrue(statistics.getWeight(alterTable) >= ActionStatistics.MIN_WEIGHT);
+    }
+
+    @Test
+    public void testSlowActionIsThrottled() {
+        ActionStatistics statistics = new ActionStatistics();
+        ActionStatistics.Arm insert = statistics.getArm("INSERT");
+        ActionStatistics.Arm vacuum = statistics.getArm("VACUUM");
+        for (int i = 0; i < 1000; i++) {
+            statistics.record(insert, true, 1000);
+            if (i % 10 == 0) {
+                statistics.record(vacuum, true, 100_000);
+            }
+        }
+        assertEquals(1000, insert.getMeanNanos(), 0.001);
+        assertTrue(vacuum.getMeanReward() < 0.2);
+        assertTrue(statistics.getWeight(vacuum) < statistics.getWeight(insert));
+    }
+
+}
@@ -0,0 +1,52 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.log.AsyncLogWriter;
+
+public class TestAsyncLogWriter {
+
+    @Test
+    public void testSyncWritesAllOutputInOrder() throws IOException {
+        StringWriter out = new StringWriter();
+        StringBuilder expected = new StringBuilder();
+        try (AsyncLogWriter writer = new AsyncLogWriter(out, 100, 1000)) {
+            for (int i = 0; i < 10000; i++) {
+                String statement = "INSERT INTO t0 VALUES (" + i + ");\n";
+                writer.write(statement);
+                expected.append(statement);
+            }
+            writer.sync();
+            assertEquals(expected.toString(), out.toString());
+        }
+    }
+
+    @Test
+    public void testOutputIsWrittenAfterInterval() throws Exception {
+        StringWriter out = new StringWriter();
+        try (AsyncLogWriter writer = new AsyncLogWriter(out, Integer.MAX_VALUE, 10)) {
+            writer.write("SELECT 1;\n");
+            for (int i = 0; i < 500 && out.toString().isEmpty(); i++) {
+                Thread.sleep(10);
+            }
+            assertEquals("SELECT 1;\n", out.toString());
+        }
+    }
+
+    @Test
+    public void testCloseWritesBufferedOutput() throws IOException {
+        StringWriter out = new StringWriter();
+        AsyncLogWriter writer = new AsyncLogWriter(out, Integer.MAX_VALUE, Long.MAX_VALUE / 2);
+        writer.write("SELECT 1;\n");
+        writer.close();
+        assertEquals("SELECT 1;\n", out.toString());
+        assertThrows(IOException.class, () -> writer.write("SELECT 2;\n"));
+    }
+
+}
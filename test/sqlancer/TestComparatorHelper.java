@@ -1,10 +1,14 @@
 package sqlancer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
@@ -69,4 +73,93 @@ public class TestComparatorHelper {
         });
     }
 
+    @Test
+    public void testResultSetDigestIsOrderInsensitive() {
+        assertTrue(ResultSetDigest.fromRows(Arrays.asList("a", "b", null, "b"))
+                .matches(ResultSetDigest.fromRows(Arrays.asList("b", null, "b", "a"))));
+        assertFalse(ResultSetDigest.fromRows(Arrays.asList("a", "a", "b"))
+                .matches(ResultSetDigest.fromRows(Arrays.asList("a", "b", "b"))));
+        assertFalse(ResultSetDigest.fromRows(Arrays.asList("a", null))
+                .matches(ResultSetDigest.fromRows(Arrays.asList("a", "null"))));
+        assertFalse(ResultSetDigest.fromRows(Arrays.asList("ab", "c"))
+                .matches(ResultSetDigest.fromRows(Arrays.asList("a", "bc"))));
+        assertEquals(3, ResultSetDigest.fromRows(Arrays.asList("a", "a", "b")).getCount());
+    }
+
+    @Test
+    public void testFingerprintsAreCombined() {
+        ResultSetDigest fingerprint = new ResultSetDigest(List.of("SELECT * FROM t0"), null, null, true);
+        fingerprint.addFingerprint(3, 2, 42);
+        ResultSetDigest combinedFingerprint = new ResultSetDigest(
+                List.of("SELECT * FROM t0 WHERE p", "SELECT * FROM t0 WHERE NOT p", "SELECT * FROM t0 WHERE p IS NULL"),
+                null, null, true);
+        combinedFingerprint.addFingerprint(2, 2, 40);
+        combinedFingerprint.addFingerprint(0, 0, 0);
+        assertFalse(fingerprint.matches(combinedFingerprint));
+        combinedFingerprint.addFingerprint(1, 0, 2);
+        assertTrue(fingerprint.matches(combinedFingerprint));
+        assertEquals(3, combinedFingerprint.getCount());
+        // fingerprints computed by the DBMS cannot be compared to digests of the fetched rows
+        ResultSetDigest digest = new ResultSetDigest(List.of("SELECT * FROM t0"), null);
+        assertFalse(fingerprint.matches(digest));
+        assertFalse(digest.matches(fingerprint));
+    }
+
+    @Test
+    public void testAssumeResultSetsAreEqualWithDigests() throws SQLException {
+        ComparatorHelper.assumeResultSetsAreEqual(ResultSetDigest.fromRows(Arrays.asList("a", "b", "c")),
+                ResultSetDigest.fromRows(Arrays.asList("c", "a", "b")), "", Arrays.asList(""), state);
+        // like the comparison of the result sets, the comparison of the digests ignores the number of duplicates
+        ComparatorHelper.assumeResultSetsAreEqual(ResultSetDigest.fromRows(Arrays.asList("a", "a", "b")),
+                ResultSetDigest.fromRows(Arrays.asList("a", "b", "b")), "", Arrays.asList(""), state);
+        assertThrowsExactly(NullPointerException.class, () -> {
+            ComparatorHelper.assumeResultSetsAreEqual(ResultSetDigest.fromRows(Arrays.asList("a", "b", "c")),
+                    ResultSetDigest.fromRows(Arrays.asList("a", "b", "d")), "", Arrays.asList(""), state);
+        });
+    }
+
+    @Test
+    public void testRemoveTrailingZeros() {
+        assertEquals("1", ComparatorHelper.removeTrailingZeros("1.000"));
+        assertEquals("1.50", ComparatorHelper.removeTrailingZeros("1.50"));
+        assertEquals("100", ComparatorHelper.removeTrailingZeros("100"));
+        String alphabet = "0.1a\n\r\u2028";
+        Random r = new Random(0);
+        for (int i = 0; i < 100000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = r.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                sb.append(alphabet.charAt(r.nextInt(alphabet.length())));
+            }
+            String value = sb.toString();
+            assertEquals(value.replaceAll("[\\.]0+$", ""), ComparatorHelper.removeTrailingZeros(value), value);
+        }
+    }
+
+    @Test
+    public void testAssumeResultRowsAreEqual() throws SQLException {
+        List<ResultRow> r1 = TestResultRow.getRows("SELECT * FROM (VALUES (1, 'a'), (2, 'b'), (1, 'a'))");
+        List<ResultRow> r2 = TestResultRow.getRows("SELECT * FROM (VALUES (2, 'b'), (1, 'a'), (1, 'a'))");
+        List<ResultRow> r3 = TestResultRow.getRows("SELECT * FROM (VALUES (1, 'a'), (2, 'b'), (2, 'b'))");
+        ComparatorHelper.assumeResultRowsAreEqual(r1, r2, "", Arrays.asList(""), state);
+        // unlike the values of the first column, rows are compared with their number of duplicates
+        assertThrowsExactly(NullPointerException.class, () -> {
+            ComparatorHelper.assumeResultRowsAreEqual(r1, r3, "", Arrays.asList(""), state);
+        });
+    }
+
+    @Test
+    public void testAssumeResultRowsAreEqualWithApproximateValues() throws SQLException {
+        // the rows are sorted differently by their floating-point values, although they match
+        List<ResultRow> r1 = TestResultRow
+                .getRows("SELECT * FROM (VALUES (CAST(1.0 AS DOUBLE), 'b'), (CAST(1.0000001 AS DOUBLE), 'a'))");
+        List<ResultRow> r2 = TestResultRow
+                .getRows("SELECT * FROM (VALUES (CAST(1.0000001 AS DOUBLE), 'b'), (CAST(1.0 AS DOUBLE), 'a'))");
+        List<ResultRow> r3 = TestResultRow
+                .getRows("SELECT * FROM (VALUES (CAST(1.0000001 AS DOUBLE), 'b'), (CAST(1.5 AS DOUBLE), 'a'))");
+        ComparatorHelper.assumeResultRowsAreEqual(r1, r2, "", Arrays.asList(""), state);
+        assertTrue(ComparatorHelper.resultRowsMatch(r1, r2, state));
+        assertFalse(ComparatorHelper.resultRowsMatch(r1, r3, state));
+    }
+
 }
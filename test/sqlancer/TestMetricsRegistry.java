@@ -0,0 +1,66 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.MetricsRegistry.Counter;
+
+public class TestMetricsRegistry {
+
+    @Test
+    public void testConcurrentIncrements() throws InterruptedException {
+        MetricsRegistry metrics = new MetricsRegistry();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread t = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    metrics.increment(Counter.SUCCESSFUL_ACTIONS);
+                    metrics.incrementQueries("NoREC");
+                }
+            }, "database" + i);
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(4000, metrics.get(Counter.SUCCESSFUL_ACTIONS));
+        assertEquals(4000, metrics.get(Counter.QUERIES));
+        assertEquals(0, metrics.get(Counter.UNSUCCESSFUL_ACTIONS));
+        assertEquals(4000, metrics.getOracleQueryCounts().get("NoREC"));
+        assertEquals(4, metrics.getThreadCounts(Counter.QUERIES).size());
+        assertEquals(1000, metrics.getThreadCounts(Counter.QUERIES).get("database2"));
+    }
+
+    @Test
+    public void testThreadRenaming() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        String originalName = Thread.currentThread().getName();
+        try {
+            Thread.currentThread().setName("database0");
+            metrics.increment(Counter.DATABASES);
+            Thread.currentThread().setName("database1");
+            metrics.increment(Counter.DATABASES);
+            metrics.increment(Counter.DATABASES);
+        } finally {
+            Thread.currentThread().setName(originalName);
+        }
+        assertEquals(1, metrics.getThreadCounts(Counter.DATABASES).get("database0"));
+        assertEquals(2, metrics.getThreadCounts(Counter.DATABASES).get("database1"));
+    }
+
+    @Test
+    public void testActionCounts() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.recordAction("INSERT", true);
+        metrics.recordAction("INSERT", false);
+        metrics.recordAction("INSERT", true);
+        assertArrayEquals(new long[] { 2, 1 }, metrics.getActionCounts().get("INSERT"));
+    }
+
+}
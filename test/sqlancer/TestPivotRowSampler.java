@@ -0,0 +1,74 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.sqlite3.SQLite3GlobalState;
+import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3RowValue;
+import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3Tables;
+
+public class TestPivotRowSampler {
+
+    private static SQLite3GlobalState createDatabase(String... statements) throws SQLException {
+        SQLite3GlobalState state = new SQLite3GlobalState();
+        state.setMainOptions(MainOptions.DEFAULT_OPTIONS);
+        state.setRandomly(new Randomly(0));
+        state.setConnection(new SQLConnection(DriverManager.getConnection("jdbc:sqlite::memory:")));
+        try (Statement s = state.getConnection().createStatement()) {
+            for (String statement : statements) {
+                s.execute(statement);
+            }
+        }
+        return state;
+    }
+
+    @Test
+    public void testAllRowsOfJoinAreSampled() throws SQLException {
+        SQLite3GlobalState state = createDatabase("CREATE TABLE t0(c0)", "CREATE TABLE t1(c0)",
+                "INSERT INTO t0(c0) VALUES (1), (2), (3)", "INSERT INTO t1(c0) VALUES ('a'), ('b')");
+        SQLite3Tables tables = new SQLite3Tables(state.getSchema().getDatabaseTables());
+        Set<String> pivotRows = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            SQLite3RowValue pivotRow = tables.getRandomRowValue(state);
+            assertEquals(2, pivotRow.getValues().size());
+            pivotRows.add(pivotRow.getRowValuesAsString());
+        }
+        assertEquals(6, pivotRows.size());
+    }
+
+    @Test
+    public void testOutdatedRowCount() throws SQLException {
+        SQLite3GlobalState state = createDatabase("CREATE TABLE t0(c0)", "INSERT INTO t0(c0) VALUES (1), (2)");
+        SQLite3Tables tables = new SQLite3Tables(state.getSchema().getDatabaseTables());
+        assertEquals(2, tables.getTables().get(0).getNrRows(state));
+        try (Statement s = state.getConnection().createStatement()) {
+            s.execute("DELETE FROM t0 WHERE c0 = 1");
+        }
+        // the cached number of rows is outdated, so the pivot row might not be found
+        boolean notFound = false;
+        for (int i = 0; i < 100 && !notFound; i++) {
+            try {
+                tables.getRandomRowValue(state);
+            } catch (IgnoreMeException e) {
+                notFound = true;
+            }
+        }
+        assertTrue(notFound);
+        assertEquals(1, tables.getTables().get(0).getNrRows(state));
+        tables.getRandomRowValue(state);
+        try (Statement s = state.getConnection().createStatement()) {
+            s.execute("DELETE FROM t0");
+        }
+        assertThrows(IgnoreMeException.class, () -> tables.getRandomRowValue(state));
+    }
+
+}
@@ -0,0 +1,68 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.query.SQLancerResultSet;
+
+public class TestResultRow {
+
+    static List<ResultRow> getRows(String query) throws SQLException {
+        try (Connection con = DriverManager.getConnection("jdbc:h2:mem:")) {
+            Statement s = con.createStatement();
+            SQLancerResultSet result = new SQLancerResultSet(s.executeQuery(query), s::close);
+            List<ResultRow> rows = new ArrayList<>();
+            ResultRow.Codec codec = new ResultRow.Codec();
+            while (result.next()) {
+                rows.add(codec.read(result));
+            }
+            result.close();
+            return rows;
+        }
+    }
+
+    private static ResultRow getRow(String values) throws SQLException {
+        return getRows("SELECT " + values).get(0);
+    }
+
+    @Test
+    public void testTypedValues() throws SQLException {
+        ResultRow row = getRow("1, CAST(0.1 AS DOUBLE) + CAST(0.2 AS DOUBLE), CAST(1.50 AS DECIMAL(5, 2)), 'a', X'01'");
+        assertEquals(5, row.getColumnCount());
+        assertEquals("(1, 0.30000000000000004, 1.50, a, [1])", row.toString());
+        assertTrue(row.matches(getRow("1, CAST(0.3 AS DOUBLE), CAST(1.5 AS DECIMAL(5, 1)), 'a', X'01'")));
+        assertFalse(row.matches(getRow("2, CAST(0.3 AS DOUBLE), CAST(1.5 AS DECIMAL(5, 1)), 'a', X'01'")));
+        assertFalse(row.matches(getRow("1, CAST(0.4 AS DOUBLE), CAST(1.5 AS DECIMAL(5, 1)), 'a', X'01'")));
+        assertFalse(row.matches(getRow("1, CAST(0.3 AS DOUBLE), CAST(1.51 AS DECIMAL(5, 2)), 'a', X'01'")));
+        assertFalse(row.matches(getRow("1, CAST(0.3 AS DOUBLE), CAST(1.5 AS DECIMAL(5, 1)), 'a', X'02'")));
+    }
+
+    @Test
+    public void testNullValues() throws SQLException {
+        ResultRow row = getRow("CAST(NULL AS INT), CAST(NULL AS VARCHAR)");
+        assertEquals("(NULL, NULL)", row.toString());
+        assertTrue(row.matches(getRow("CAST(NULL AS INT), CAST(NULL AS VARCHAR)")));
+        assertFalse(row.matches(getRow("0, CAST(NULL AS VARCHAR)")));
+        assertFalse(row.matches(getRow("CAST(NULL AS INT), 'NULL'")));
+    }
+
+    @Test
+    public void testNumbersOfDifferentTypes() throws SQLException {
+        ResultRow row = getRow("1");
+        assertTrue(row.matches(getRow("CAST(1 AS DOUBLE)")));
+        assertTrue(row.matches(getRow("CAST(1.00 AS DECIMAL(5, 2))")));
+        assertEquals(0, ResultRow.ORDER.compare(row, getRow("CAST(1.00 AS DECIMAL(5, 2))")));
+        assertTrue(ResultRow.ORDER.compare(row, getRow("CAST(1.5 AS DOUBLE)")) < 0);
+    }
+
+}
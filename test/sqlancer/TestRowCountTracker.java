@@ -0,0 +1,95 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.schema.RowCountTracker;
+
+public class TestRowCountTracker {
+
+    private static final Predicate<String> IS_TABLE = name -> name.startsWith("t");
+
+    private static RowCountTracker createTracker() {
+        RowCountTracker tracker = new RowCountTracker();
+        tracker.setExactRowCount("t0", 10);
+        tracker.setExactRowCount("t1", 5);
+        return tracker;
+    }
+
+    private static void execute(RowCountTracker tracker, String query, boolean success, long updateCount) {
+        tracker.statementExecuted(query, success, updateCount, false, IS_TABLE);
+    }
+
+    @Test
+    public void testInsertAndDelete() {
+        RowCountTracker tracker = createTracker();
+        assertTrue(tracker.isExact("t0"));
+        execute(tracker, "INSERT INTO t0(c0) VALUES (1), (2);", true, 2);
+        assertEquals(12, tracker.getRowCount("t0"));
+        assertTrue(tracker.isEstimated("t0"));
+        execute(tracker, "DELETE FROM t0 WHERE c0 > 3;", true, 4);
+        assertEquals(8, tracker.getRowCount("t0"));
+        execute(tracker, "UPDATE t0 SET c0 = 1;", true, 8);
+        execute(tracker, "SELECT * FROM t0;", true, -1);
+        assertEquals(8, tracker.getRowCount("t0"));
+        assertEquals(5, tracker.getRowCount("t1"));
+    }
+
+    @Test
+    public void testUncertainStatements() {
+        RowCountTracker tracker = createTracker();
+        execute(tracker, "INSERT OR REPLACE INTO t0(c0) VALUES (1);", true, 1);
+        assertEquals(RowCountTracker.UNKNOWN, tracker.getRowCount("t0"));
+        execute(tracker, "INSERT INTO t1(c0) VALUES (1) ON CONFLICT DO NOTHING;", true, 1);
+        assertEquals(RowCountTracker.UNKNOWN, tracker.getRowCount("t1"));
+
+        tracker = createTracker();
+        execute(tracker, "INSERT INTO t0(c0) VALUES (1);", false, -1);
+        assertEquals(RowCountTracker.UNKNOWN, tracker.getRowCount("t0"));
+        assertEquals(5, tracker.getRowCount("t1"));
+        // inserting into a view changes its base tables
+        execute(tracker, "INSERT INTO v0(c0) VALUES (1);", true, 1);
+        assertEquals(RowCountTracker.UNKNOWN, tracker.getRowCount("t1"));
+    }
+
+    @Test
+    public void testTransactions() {
+        RowCountTracker tracker = createTracker();
+        execute(tracker, "BEGIN;", true, 0);
+        execute(tracker, "INSERT INTO t0(c0) VALUES (1);", true, 1);
+        execute(tracker, "COMMIT;", true, 0);
+        assertEquals(11, tracker.getRowCount("t0"));
+        execute(tracker, "BEGIN;", true, 0);
+        execute(tracker, "INSERT INTO t0(c0) VALUES (1);", true, 1);
+        execute(tracker, "ROLLBACK;", true, 0);
+        assertFalse(tracker.isEstimated("t0"));
+        assertEquals(RowCountTracker.UNKNOWN, tracker.getRowCount("t0"));
+
+        tracker = createTracker();
+        execute(tracker, "BEGIN;", true, 0);
+        // a failed statement might abort the transaction
+        execute(tracker, "INSERT INTO t0(c0) VALUES (1);", false, -1);
+        assertEquals(RowCountTracker.UNKNOWN, tracker.getRowCount("t1"));
+    }
+
+    @Test
+    public void testSchemaChanges() {
+        RowCountTracker tracker = createTracker();
+        tracker.statementExecuted("DROP TABLE t1;", true, 0, true, IS_TABLE);
+        assertEquals(RowCountTracker.UNKNOWN, tracker.getRowCount("t1"));
+        assertEquals(10, tracker.getRowCount("t0"));
+        tracker.statementExecuted("CREATE TRIGGER tr0 AFTER INSERT ON t1 BEGIN DELETE FROM t0; END;", true, 0, true,
+                IS_TABLE);
+        assertEquals(RowCountTracker.UNKNOWN, tracker.getRowCount("t0"));
+        tracker.setExactRowCount("t0", 10);
+        // the trigger could change any table
+        execute(tracker, "INSERT INTO t0(c0) VALUES (1);", true, 1);
+        assertEquals(RowCountTracker.UNKNOWN, tracker.getRowCount("t0"));
+    }
+
+}
@@ -0,0 +1,118 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.common.query.SQLancerResultSet;
+import sqlancer.sqlite3.SQLite3GlobalState;
+
+public class TestSQLConnectionStatementCache {
+
+    private static SQLConnection createConnection() throws SQLException {
+        return new SQLConnection(DriverManager.getConnection("jdbc:sqlite::memory:"));
+    }
+
+    @Test
+    public void testStatementsAreClosedWithoutCache() throws SQLException {
+        try (SQLConnection con = createConnection()) {
+            Statement s = con.acquireStatement();
+            con.releaseStatement(s);
+            assertTrue(s.isClosed());
+        }
+    }
+
+    @Test
+    public void testStatementReuse() throws SQLException {
+        try (SQLConnection con = createConnection()) {
+            con.enableStatementCache(2);
+            Statement s = con.acquireStatement();
+            Statement other = con.acquireStatement();
+            assertNotSame(s, other);
+            con.releaseStatement(s);
+            assertSame(s, con.acquireStatement());
+        }
+    }
+
+    @Test
+    public void testResultSetClosesItsStatement() throws SQLException {
+        try (SQLConnection con = createConnection()) {
+            Statement s = con.createStatement();
+            SQLancerResultSet result = new SQLancerResultSet(s.executeQuery("SELECT 1"));
+            result.close();
+            assertTrue(s.isClosed());
+        }
+    }
+
+    @Test
+    public void testReconnectKeepsStatementCache() throws SQLException {
+        try (SQLConnection con = createConnection()) {
+            con.enableStatementCache(2);
+            Statement s = con.acquireStatement();
+            con.releaseStatement(s);
+            con.disconnect();
+            assertTrue(s.isClosed());
+            con.reconnect(DriverManager.getConnection("jdbc:sqlite::memory:"));
+            Statement other = con.acquireStatement();
+            assertFalse(other.isClosed());
+            con.releaseStatement(other);
+            assertSame(other, con.acquireStatement());
+        }
+    }
+
+    @Test
+    public void testPreparedStatementLRUEviction() throws SQLException {
+        try (SQLConnection con = createConnection()) {
+            con.enableStatementCache(2);
+            PreparedStatement s1 = con.acquirePreparedStatement("SELECT 1");
+            PreparedStatement s2 = con.acquirePreparedStatement("SELECT 2");
+            PreparedStatement s3 = con.acquirePreparedStatement("SELECT 3");
+            con.releasePreparedStatement("SELECT 1", s1);
+            con.releasePreparedStatement("SELECT 2", s2);
+            assertSame(s1, con.acquirePreparedStatement("SELECT 1"));
+            con.releasePreparedStatement("SELECT 1", s1);
+            // "SELECT 2" is now the least recently used statement
+            con.releasePreparedStatement("SELECT 3", s3);
+            assertTrue(s2.isClosed());
+            assertFalse(s1.isClosed());
+            assertSame(s3, con.acquirePreparedStatement("SELECT 3"));
+        }
+    }
+
+    @Test
+    public void testInvalidation() throws SQLException {
+        try (SQLConnection con = createConnection()) {
+            con.enableStatementCache(2);
+            PreparedStatement s = con.acquirePreparedStatement("SELECT 1");
+            con.releasePreparedStatement("SELECT 1", s);
+            con.invalidateStatementCache();
+            assertTrue(s.isClosed());
+            assertNotSame(s, con.acquirePreparedStatement("SELECT 1"));
+        }
+    }
+
+    @Test
+    public void testInvalidationAfterQueryThatCouldAffectSchema() throws SQLException {
+        try (SQLConnection con = createConnection()) {
+            con.enableStatementCache(2);
+            SQLite3GlobalState state = new SQLite3GlobalState();
+            state.setConnection(con);
+            PreparedStatement s = con.acquirePreparedStatement("SELECT 1");
+            con.releasePreparedStatement("SELECT 1", s);
+            try (SQLancerResultSet rs = new SQLQueryAdapter("SELECT 2", true).executeAndGet(state)) {
+                assertTrue(rs.next());
+            }
+            assertTrue(s.isClosed());
+        }
+    }
+
+}
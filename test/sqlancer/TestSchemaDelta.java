@@ -0,0 +1,58 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.schema.SchemaDelta;
+import sqlancer.sqlite3.SQLite3GlobalState;
+import sqlancer.sqlite3.schema.SQLite3Schema;
+import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3Table;
+
+public class TestSchemaDelta {
+
+    private static SQLite3GlobalState createDatabase(String... statements) throws SQLException {
+        SQLite3GlobalState state = new SQLite3GlobalState();
+        state.setConnection(new SQLConnection(DriverManager.getConnection("jdbc:sqlite::memory:")));
+        try (Statement s = state.getConnection().createStatement()) {
+            for (String statement : statements) {
+                s.execute(statement);
+            }
+        }
+        return state;
+    }
+
+    @Test
+    public void testDropTable() throws SQLException {
+        SQLite3GlobalState state = createDatabase("CREATE TABLE t0(c0)", "CREATE TABLE t1(c0)",
+                "CREATE VIEW v0 AS SELECT * FROM t0");
+        SQLite3Schema schema = SQLite3Schema.fromConnection(state);
+        List<SQLite3Table> tablesBefore = schema.getDatabaseTables();
+        assertTrue(SchemaDelta.dropTable("t1").applyTo(schema));
+        assertTrue(SchemaDelta.dropTable("v0").applyTo(schema));
+        assertEquals("t0", schema.getDatabaseTables().get(0).getName());
+        assertEquals(1, schema.getDatabaseTables().size());
+        // lists obtained before the patch are not changed
+        assertEquals(3, tablesBefore.size());
+    }
+
+    @Test
+    public void testDropIndex() throws SQLException {
+        SQLite3GlobalState state = createDatabase("CREATE TABLE t0(c0)", "CREATE TABLE t1(c0)",
+                "CREATE INDEX i0 ON t0(c0)");
+        SQLite3Schema schema = SQLite3Schema.fromConnection(state);
+        // the dropped table could have had indexes that are not known
+        assertFalse(SchemaDelta.dropTable("t1").applyTo(schema));
+        assertTrue(SchemaDelta.dropIndex("i0").applyTo(schema));
+        assertTrue(schema.getIndexNames().isEmpty());
+        assertTrue(SchemaDelta.dropTable("t1").applyTo(schema));
+    }
+
+}
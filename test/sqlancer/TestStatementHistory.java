@@ -0,0 +1,57 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.log.SQLLoggableFactory;
+import sqlancer.common.query.Query;
+import sqlancer.common.query.SQLQueryAdapter;
+
+public class TestStatementHistory {
+
+    @Test
+    public void testSpilledStatementsAreReadBack() throws IOException {
+        List<String> expected = new ArrayList<>();
+        try (StatementHistory history = new StatementHistory(new SQLLoggableFactory(), 10)) {
+            history.add(new SQLQueryAdapter("CREATE TABLE t0(c0 INT);", true));
+            expected.add("CREATE TABLE t0(c0 INT);");
+            for (int i = 0; i < 10000; i++) {
+                String query = "INSERT INTO t0(c0) VALUES (" + i + ");";
+                history.add(new SQLQueryAdapter(query));
+                expected.add(query);
+            }
+            assertEquals(expected.size(), history.size());
+            assertEquals(expected.size() - 10, history.getNrSpilledStatements());
+            List<String> actual = new ArrayList<>();
+            for (Query<?> query : history) {
+                actual.add(query.getQueryString());
+            }
+            assertEquals(expected, actual);
+            assertTrue(history.get(0).couldAffectSchema());
+            assertFalse(history.get(1).couldAffectSchema());
+        }
+    }
+
+    @Test
+    public void testSet() throws IOException {
+        try (StatementHistory history = new StatementHistory(new SQLLoggableFactory(), 2)) {
+            for (int i = 0; i < 5; i++) {
+                history.add(new SQLQueryAdapter("SELECT " + i + ";"));
+            }
+            history.set(1, new SQLQueryAdapter("-- SELECT 1;"));
+            history.set(4, new SQLQueryAdapter("-- SELECT 4;"));
+            assertEquals("SELECT 0;", history.get(0).getQueryString());
+            assertEquals("-- SELECT 1;", history.get(1).getQueryString());
+            assertEquals("SELECT 2;", history.get(2).getQueryString());
+            assertEquals("-- SELECT 4;", history.get(4).getQueryString());
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.log.StatementLogReader;
+import sqlancer.common.log.StatementLogWriter;
+
+public class TestStatementLog {
+
+    private static List<String> writeStatements(File file, int nrStatements) throws IOException {
+        List<String> statements = new ArrayList<>();
+        try (StatementLogWriter writer = new StatementLogWriter(file, 1024)) {
+            for (int i = 0; i < nrStatements; i++) {
+                String statement = "INSERT INTO t0(c0) VALUES ('" + i + "ä');";
+                writer.write(statement);
+                statements.add(statement);
+            }
+        }
+        return statements;
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        File file = File.createTempFile("sqlancer", StatementLogWriter.FILE_EXTENSION);
+        file.deleteOnExit();
+        List<String> statements = writeStatements(file, 5000);
+        try (StatementLogReader reader = new StatementLogReader(file)) {
+            assertEquals(5000, reader.getNrStatements());
+            List<String> read = new ArrayList<>();
+            reader.readAllStatements(read::add);
+            assertEquals(statements, read);
+
+            List<String> range = new ArrayList<>();
+            reader.readStatements(1234, 1240, range::add);
+            assertEquals(statements.subList(1234, 1240), range);
+        }
+    }
+
+    @Test
+    public void testEmptyLog() throws IOException {
+        File file = File.createTempFile("sqlancer", StatementLogWriter.FILE_EXTENSION);
+        file.deleteOnExit();
+        writeStatements(file, 0);
+        try (StatementLogReader reader = new StatementLogReader(file)) {
+            assertEquals(0, reader.getNrStatements());
+        }
+    }
+
+    @Test
+    public void testTruncatedLogWithoutIndex() throws IOException {
+        File file = File.createTempFile("sqlancer", StatementLogWriter.FILE_EXTENSION);
+        file.deleteOnExit();
+        List<String> statements = writeStatements(file, 5000);
+        // simulate a process that was killed while writing a block, before the index was written
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() / 2);
+        }
+        try (StatementLogReader reader = new StatementLogReader(file)) {
+            List<String> read = new ArrayList<>();
+            reader.readAllStatements(read::add);
+            assertEquals(statements.subList(0, read.size()), read);
+            assertEquals(read.size(), reader.getNrStatements());
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package sqlancer.qpg;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.Randomly;
+
+public class TestParallelQueryPlanSupplier {
+
+    private static final int NR_CONNECTIONS = 4;
+
+    // explains the queries like a connection, which must not be used by several threads at once
+    private static QueryPlanStore.QueryPlanSupplier connection(Set<Integer> usedConnections, int index) {
+        AtomicBoolean inUse = new AtomicBoolean();
+        return queries -> {
+            if (!inUse.compareAndSet(false, true)) {
+                throw new AssertionError("connection " + index + " is used concurrently");
+            }
+            try {
+                usedConnections.add(index);
+                Thread.sleep(1);
+                return queries.stream().map(query -> "SCAN " + query.substring(query.lastIndexOf(' ') + 1) + ";")
+                        .collect(Collectors.toList());
+            } finally {
+                inUse.set(false);
+            }
+        };
+    }
+
+    @Test
+    public void testQueryPlansAreMergedInOrder() throws Exception {
+        Set<Integer> usedConnections = ConcurrentHashMap.newKeySet();
+        List<QueryPlanStore.QueryPlanSupplier> connections = new ArrayList<>();
+        for (int i = 0; i < NR_CONNECTIONS; i++) {
+            connections.add(connection(usedConnections, i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(NR_CONNECTIONS);
+        try {
+            ParallelQueryPlanSupplier supplier = new ParallelQueryPlanSupplier(connections, 2, executor);
+            List<String> queries = IntStream.range(0, 101).mapToObj(i -> "SELECT * FROM t" + i)
+                    .collect(Collectors.toList());
+            List<String> expected = IntStream.range(0, 101).mapToObj(i -> "SCAN t" + i + ";")
+                    .collect(Collectors.toList());
+            for (int i = 0; i < 10; i++) {
+                assertEquals(expected, supplier.getQueryPlans(queries));
+            }
+            assertEquals(NR_CONNECTIONS, usedConnections.size());
+            // a single chunk is explained on one connection
+            assertEquals(List.of("SCAN t0;"), supplier.getQueryPlans(List.of("SELECT * FROM t0")));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRecheckOnSeveralConnections() throws Exception {
+        Set<Integer> usedConnections = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(NR_CONNECTIONS);
+        try {
+            ParallelQueryPlanSupplier supplier = new ParallelQueryPlanSupplier(
+                    List.of(connection(usedConnections, 0), connection(usedConnections, 1)), 1, executor);
+            QueryPlanStore store = new QueryPlanStore(10, new Randomly(0));
+            for (int i = 0; i < 20; i++) {
+                store.add("SCAN t" + (i % 2) + ";", "SELECT * FROM t" + i, null);
+            }
+            assertEquals(18, store.recheck(null, supplier, f -> true));
+            assertEquals(20, store.size());
+            assertTrue(store.contains(QueryPlanStore.Fingerprint.fromQueryPlan("SCAN t19;")));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testExceptionIsPropagated() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ParallelQueryPlanSupplier supplier = new ParallelQueryPlanSupplier(List.of(queries -> {
+                throw new SQLException("connection closed");
+            }, queries -> {
+                throw new SQLException("connection closed");
+            }), 1, executor);
+            assertThrows(SQLException.class, () -> supplier.getQueryPlans(List.of("SELECT 1", "SELECT 2")));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package sqlancer.qpg;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class TestQPGSharedState {
+
+    private static final int NR_THREADS = 8;
+
+    @Test
+    public void testEachPlanIsNewForOneThread() throws Exception {
+        QueryPlanFingerprints fingerprints = new QueryPlanFingerprints(1 << 16);
+        AtomicInteger newPlans = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(NR_THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < NR_THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        if (fingerprints.add(QueryPlanFingerprints.fingerprint("SCAN t" + i))) {
+                            newPlans.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(10000, newPlans.get());
+        assertTrue(fingerprints.contains(QueryPlanFingerprints.fingerprint("SCAN t42")));
+        assertFalse(fingerprints.contains(QueryPlanFingerprints.fingerprint("SCAN t10000")));
+    }
+
+    @Test
+    public void testBoundedCapacity() {
+        QueryPlanFingerprints fingerprints = new QueryPlanFingerprints(100);
+        assertEquals(128, fingerprints.getCapacity());
+        for (int i = 0; i < 100000; i++) {
+            fingerprints.add(QueryPlanFingerprints.fingerprint("SEARCH t0 USING INDEX i" + i));
+        }
+        assertEquals(128, fingerprints.getCapacity());
+        // the most recently added fingerprint is never evicted
+        assertFalse(fingerprints.add(QueryPlanFingerprints.fingerprint("SEARCH t0 USING INDEX i99999")));
+    }
+
+    @Test
+    public void testConcurrentRewardUpdates() throws Exception {
+        MutatorRewards rewards = new MutatorRewards(0, 0, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(NR_THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < NR_THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        rewards.add(1, 1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(NR_THREADS * 10000, rewards.get(1));
+        assertEquals(1, rewards.getBestMutator());
+        rewards.update(2, reward -> reward + (NR_THREADS * 20000 - reward) * 0.75);
+        assertEquals(2, rewards.getBestMutator());
+    }
+
+}
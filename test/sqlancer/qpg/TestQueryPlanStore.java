@@ -0,0 +1,158 @@
+package sqlancer.qpg;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.Randomly;
+
+public class TestQueryPlanStore {
+
+    private static List<String> explain(List<String> queries, Map<String, String> plans, List<String> explained) {
+        explained.addAll(queries);
+        return queries.stream().map(plans::get).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testNormalization() {
+        assertEquals("SCAN t0;SEARCH t1 USING INDEX i0 (c0=?);",
+                QueryPlanStore.normalize(" SCAN  t0 ;\nSEARCH t1\tUSING INDEX i0 (c0=?);"));
+        assertEquals(QueryPlanStore.Fingerprint.fromQueryPlan("SCAN t0;"),
+                QueryPlanStore.Fingerprint.fromQueryPlan("SCAN   t0 ;"));
+        assertNotEquals(QueryPlanStore.Fingerprint.fromQueryPlan("SCAN t0;"),
+                QueryPlanStore.Fingerprint.fromQueryPlan("SCAN t1;"));
+    }
+
+    @Test
+    public void testBoundedQueriesPerPlan() {
+        QueryPlanStore store = new QueryPlanStore(2, new Randomly(0));
+        assertNotNull(store.add("SCAN t0;", "SELECT * FROM t0", null));
+        for (int i = 0; i < 1000; i++) {
+            assertNull(store.add("SCAN t0;", "SELECT * FROM t0 WHERE c0 = " + i, null));
+        }
+        assertNotNull(store.add("SCAN t1;", "SELECT * FROM t1", null));
+        assertEquals(2, store.size());
+        assertEquals(3, store.getNrQueries());
+    }
+
+    @Test
+    public void testSingleQueryPerPlanKeepsFirstQuery() throws Exception {
+        QueryPlanStore store = new QueryPlanStore(1, new Randomly(0));
+        store.add("SCAN t0;", "SELECT * FROM t0", null);
+        for (int i = 0; i < 100; i++) {
+            store.add("SCAN t0;", "SELECT * FROM t0 WHERE c0 = " + i, null);
+        }
+        List<String> explained = new ArrayList<>();
+        store.recheck(null, queries -> explain(queries, Map.of("SELECT * FROM t0", "SCAN t0;"), explained), f -> true);
+        assertEquals(List.of("SELECT * FROM t0"), explained);
+    }
+
+    @Test
+    public void testRecheck() throws Exception {
+        QueryPlanStore store = new QueryPlanStore(1, new Randomly(0));
+        store.add("SCAN t0;", "SELECT * FROM t0", Set.of("t0"));
+        store.add("SCAN t1;", "SELECT * FROM t1", Set.of("t1"));
+        store.add("SCAN t0;SCAN t1;", "SELECT * FROM t0, t1", Set.of("t0", "t1"));
+        store.add("SCAN v0;", "SELECT * FROM v0", null);
+
+        // an index on t0 changes the plans of the queries on t0
+        Map<String, String> plans = new HashMap<>();
+        plans.put("SELECT * FROM t0", "SEARCH t0 USING INDEX i0;");
+        plans.put("SELECT * FROM t1", "SCAN t1;");
+        plans.put("SELECT * FROM t0, t1", "SEARCH t0 USING INDEX i0;SCAN t1;");
+        plans.put("SELECT * FROM v0", "SCAN v0;");
+        List<String> explained = new ArrayList<>();
+        int nrNewPlans = store.recheck(Set.of("t0"), queries -> explain(queries, plans, explained), f -> true);
+        assertEquals(2, nrNewPlans);
+        assertEquals(3, explained.size());
+        assertFalse(explained.contains("SELECT * FROM t1"));
+        assertTrue(store.contains(QueryPlanStore.Fingerprint.fromQueryPlan("SEARCH t0 USING INDEX i0;")));
+        assertFalse(store.contains(QueryPlanStore.Fingerprint.fromQueryPlan("SCAN t0;")));
+        assertEquals(4, store.size());
+
+        // dropping t1 makes the queries on t1 invalid
+        plans.put("SELECT * FROM t1", "");
+        plans.put("SELECT * FROM t0, t1", "");
+        explained.clear();
+        assertEquals(0, store.recheck(null, queries -> explain(queries, plans, explained), f -> true));
+        assertEquals(4, explained.size());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    public void testRecheckExplainsAllQueriesAtOnce() throws Exception {
+        QueryPlanStore store = new QueryPlanStore(2, new Randomly(0));
+        for (int i = 0; i < 10; i++) {
+            store.add("SCAN t" + i + ";", "SELECT * FROM t" + i, null);
+            store.add("SCAN t" + i + ";", "SELECT c0 FROM t" + i, null);
+        }
+        List<Integer> batchSizes = new ArrayList<>();
+        store.recheck(null, queries -> {
+            batchSizes.add(queries.size());
+            return queries.stream().map(query -> "SCAN " + query.substring(query.lastIndexOf(' ') + 1) + ";")
+                    .collect(Collectors.toList());
+        }, f -> true);
+        assertEquals(List.of(20), batchSizes);
+        assertEquals(10, store.size());
+    }
+
+    @Test
+    public void testRecheckConfirmsChangedPlans() throws Exception {
+        QueryPlanStore store = new QueryPlanStore(1, new Randomly(0));
+        store.add("SCAN t0;", "SELECT * FROM t0", null);
+        store.add("SCAN t1 USING INDEX i0;", "SELECT * FROM t1", null);
+        store.add("SCAN t2;", "SELECT * FROM t2", null);
+        // another connection chooses an equivalent index and still sees t2, which was dropped
+        Map<String, String> otherPlans = Map.of("SELECT * FROM t0", "SCAN t0;", "SELECT * FROM t1",
+                "SCAN t1 USING INDEX i1;", "SELECT * FROM t2", "SCAN t2;");
+        Map<String, String> plans = Map.of("SELECT * FROM t0", "SCAN t0;", "SELECT * FROM t1",
+                "SCAN t1 USING INDEX i0;", "SELECT * FROM t2", "");
+        Map<String, String> changedOtherPlans = new HashMap<>(otherPlans);
+        changedOtherPlans.put("SELECT * FROM t0", "SEARCH t0 USING INDEX i2;");
+        Map<String, String> changedPlans = new HashMap<>(plans);
+        changedPlans.put("SELECT * FROM t0", "SEARCH t0 USING INDEX i2;");
+        List<String> confirmed = new ArrayList<>();
+        assertEquals(0, store.recheck(null, queries -> explain(queries, otherPlans, new ArrayList<>()),
+                queries -> explain(queries, plans, confirmed), f -> true));
+        assertEquals(List.of("SELECT * FROM t1"), confirmed);
+        assertEquals(3, store.size());
+
+        confirmed.clear();
+        assertEquals(1, store.recheck(null, queries -> explain(queries, changedOtherPlans, new ArrayList<>()),
+                queries -> explain(queries, changedPlans, confirmed), f -> true));
+        assertEquals(List.of("SELECT * FROM t0", "SELECT * FROM t1"),
+                confirmed.stream().sorted().collect(Collectors.toList()));
+        assertTrue(store.contains(QueryPlanStore.Fingerprint.fromQueryPlan("SEARCH t0 USING INDEX i2;")));
+    }
+
+    @Test
+    public void testRecheckKnownPlansAreNotNew() throws Exception {
+        QueryPlanStore store = new QueryPlanStore(1, new Randomly(0));
+        store.add("SCAN t0;", "SELECT * FROM t0", null);
+        store.add("SCAN t1;", "SELECT * FROM t1", null);
+        store.add("SCAN t2;", "SELECT * FROM t2", null);
+        List<QueryPlanStore.Fingerprint> checked = new ArrayList<>();
+        Map<String, String> plans = Map.of("SELECT * FROM t0", "SCAN t2;", "SELECT * FROM t1", "SCAN t3;",
+                "SELECT * FROM t2", "SCAN t2;");
+        // the queries now have the plan of another query, or a plan that was explored by another thread
+        int nrNewPlans = store.recheck(null, queries -> explain(queries, plans, new ArrayList<>()), f -> {
+            checked.add(f);
+            return false;
+        });
+        assertEquals(0, nrNewPlans);
+        assertEquals(List.of(QueryPlanStore.Fingerprint.fromQueryPlan("SCAN t3;")), checked);
+    }
+
+}
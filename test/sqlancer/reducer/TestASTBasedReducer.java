@@ -5,6 +5,8 @@ import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import org.junit.jupiter.api.Test;
 import sqlancer.common.query.Query;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.function.Function;
 
@@ -264,4 +266,27 @@ public class TestASTBasedReducer {
         assertEquals("SELECT * FROM t0 WHERE 2.143 IS NULL;", TestEnvironment.getQueriesString(reducedResult));
     }
 
+    @Test
+    void testCandidatesAreTestedOnce() throws Exception {
+        TestEnvironment env = TestEnvironment.getASTBasedReducerEnv();
+        String[] queriesStr = {
+                "SELECT DISTINCT row_id, c FROM v0 WHERE ((v0.rowid || (v0.c < 200 && v0.c >= 100) || 114514)OR(((v0.c0)||(1529686005)))) UNION SELECT DISTINCT * FROM v0 WHERE (NOT ((v0.rowid)OR(((v0.c0)||(1529686005)))))" };
+        env.setInitialStatementsFromStrings(List.of(queriesStr));
+        List<String> testedCandidates = new ArrayList<>();
+        env.setBugInducingCondition(statements -> {
+            String queriesString = TestEnvironment.getQueriesString(statements);
+            testedCandidates.add(queriesString.replaceAll(";$", ""));
+            try {
+                CCJSqlParserUtil.parse(queriesString);
+            } catch (JSQLParserException e) {
+                return false;
+            }
+            return queriesString.contains("||");
+        });
+        env.runReduce();
+        assertEquals("SELECT row_id FROM v0 WHERE v0.rowid || 0;",
+                TestEnvironment.getQueriesString(env.getReducedStatements()));
+        assertEquals(new HashSet<>(testedCandidates).size(), testedCandidates.size());
+    }
+
 }
@@ -0,0 +1,91 @@
+package sqlancer.reducer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.Main;
+import sqlancer.MainOptions;
+import sqlancer.Randomly;
+import sqlancer.Reproducer;
+import sqlancer.StatementReducer;
+import sqlancer.common.query.Query;
+import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.sqlite3.SQLite3GlobalState;
+import sqlancer.sqlite3.SQLite3Options;
+import sqlancer.sqlite3.SQLite3Provider;
+
+public class TestReducerCheckpoints {
+
+    private static void setOption(MainOptions options, String name, Object value) throws Exception {
+        Field field = options.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(options, value);
+    }
+
+    private static String reduce(boolean useCheckpoints, int nrThreads) throws Exception {
+        MainOptions options = new MainOptions();
+        setOption(options, "useReducer", true);
+        setOption(options, "statementReducerCheckpoints", useCheckpoints);
+        setOption(options, "statementReducerThreads", nrThreads);
+        SQLite3Provider provider = new SQLite3Provider();
+        String databaseName = "reducer_checkpoints";
+
+        List<Query<?>> statements = new ArrayList<>();
+        // only affects the connection, so it must be executed again after restoring a checkpoint
+        statements.add(new SQLQueryAdapter("PRAGMA case_sensitive_like=ON;"));
+        statements.add(new SQLQueryAdapter("CREATE TABLE t0(c0 INT);", true));
+        for (int i = 0; i < 200; i++) {
+            statements.add(new SQLQueryAdapter("INSERT INTO t0(c0) VALUES (" + i + ");"));
+            if (i % 20 == 0) {
+                // the database cannot be saved in a transaction or with temporary tables
+                statements.add(new SQLQueryAdapter("BEGIN;"));
+                statements.add(new SQLQueryAdapter("UPDATE t0 SET c0 = c0 + 1000 WHERE c0 = " + i + ";"));
+                statements.add(new SQLQueryAdapter("COMMIT;"));
+                statements.add(new SQLQueryAdapter("CREATE TEMP TABLE IF NOT EXISTS t1(c0);", true));
+            }
+        }
+        SQLite3GlobalState state = new SQLite3GlobalState();
+        state.setState(provider.getStateToReproduce(databaseName));
+        state.getState().setStatements(statements);
+        state.setMainOptions(options);
+
+        SQLite3GlobalState newGlobalState = new SQLite3GlobalState();
+        newGlobalState.setState(provider.getStateToReproduce(databaseName));
+        newGlobalState.setDatabaseName(databaseName);
+        newGlobalState.setMainOptions(options);
+        newGlobalState.setDbmsSpecificOptions(new SQLite3Options());
+        newGlobalState.setRandomly(new Randomly(0));
+        newGlobalState.setStateLogger(new Main.StateLogger(databaseName, provider, options));
+
+        Reproducer<SQLite3GlobalState> reproducer = globalState -> {
+            try (Statement s = globalState.getConnection().createStatement(); ResultSet rs = s
+                    .executeQuery("SELECT (SELECT COUNT(*) FROM t0 WHERE c0 IN (17, 150, 1060)) + ('a' LIKE 'A')")) {
+                return rs.next() && rs.getInt(1) == 3;
+            } catch (Exception e) {
+                return false;
+            }
+        };
+        new StatementReducer<>(provider).reduce(state, reproducer, newGlobalState);
+        return newGlobalState.getState().getStatements().stream().map(Query::getQueryString)
+                .collect(Collectors.joining("\n"));
+    }
+
+    @Test
+    void testSameResultAsReplay() throws Exception {
+        String expected = "PRAGMA case_sensitive_like=ON;\nCREATE TABLE t0(c0 INT);\nINSERT INTO t0(c0) VALUES (17);\n"
+                + "INSERT INTO t0(c0) VALUES (60);\nUPDATE t0 SET c0 = c0 + 1000 WHERE c0 = 60;\n"
+                + "INSERT INTO t0(c0) VALUES (150);";
+        assertEquals(expected, reduce(false, 1));
+        assertEquals(expected, reduce(true, 1));
+        assertEquals(expected, reduce(true, 4));
+    }
+
+}
@@ -73,6 +73,30 @@ public class TestStatementReducer {
         assertEquals(queriesString, "Statement_2;\nStatement_318;\nStatement_990;");
     }
 
+    @Test
+    void testConcurrentDeltaDebugging() throws Exception {
+        String pattern = "(.*\\n)*(Statement_2;)\\n(.*\\n)*(Statement_318);\\n(.*\\n)*(Statement_990;)(.*\\n)*.*";
+        List<String> fakeStatements = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            fakeStatements.add("Statement_" + i + ";");
+        }
+        String[] reducedResults = new String[2];
+        for (int nrThreads : new int[] { 1, 4 }) {
+            TestEnvironment env = TestEnvironment.getStatementReducerEnv();
+            env.setStatementReducerThreads(nrThreads);
+            env.setInitialStatementsFromStrings(fakeStatements);
+            env.setBugInducingCondition(queryList -> {
+                String queries = TestEnvironment.getQueriesString(queryList);
+                return Pattern.matches(pattern, queries);
+            });
+            env.runReduce();
+            reducedResults[nrThreads == 1 ? 0 : 1] = TestEnvironment.getQueriesString(env.getReducedStatements());
+        }
+        assertEquals("Statement_2;\nStatement_318;\nStatement_990;", reducedResults[1]);
+        // the committed candidates do not depend on the number of threads
+        assertEquals(reducedResults[0], reducedResults[1]);
+    }
+
     @Test
     void testSQLite3WithStatementReducer() {
         Main.executeMain(new String[] { "--random-seed", "0", "--use-reducer", "--timeout-seconds", "60",
@@ -35,7 +35,7 @@ public class VirtualDBProvider extends SQLProviderAdapter<VirtualDBGlobalState,
         return state -> {
             if (globalState.getBugInducingCondition() == null)
                 return false;
-            return globalState.getBugInducingCondition().apply(globalState.getState().getStatements());
+            return globalState.getBugInducingCondition().apply(state.getState().getStatements());
         };
     }
 